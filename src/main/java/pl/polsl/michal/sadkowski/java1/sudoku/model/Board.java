@@ -1,90 +0,0 @@
-// pl.polsl.michal.sadkowski.java1.sudoku.model.Board.java
-
-package pl.polsl.michal.sadkowski.java1.sudoku.model;
-
-import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
-
-/**
- * Class representing a standard 9x9 Sudoku board.
- * This class stores the board state and manages setting and clearing cell values.
- *
- * @author Michał Sadkowski
- * @version 1.2 (set to 0-indexing array)
- */
-public class Board {
-    /** The board size is 9x9. */
-    private static final int N = 9;
-    /** The 2D array for the Sudoku grid. Uses 0-based indexing (0-8). */
-    private final int[][] grid;
-
-    /**
-     * Creates a new empty 9x9 Sudoku board, filling all cells with 0.
-     */
-    public Board() {
-        grid = new int[N][N];
-    }
-
-    /**
-     * Sets the value of a specific cell.
-     *
-     * @param row The 0-based row index (0-8).
-     * @param col The 0-based column index (0-8).
-     * @param value The value to set (0-9, where 0 is an empty cell).
-     * @throws SudokuException If the row, column, or value is outside the allowed range.
-     */
-    public void setCell(int row, int col, int value) throws SudokuException {
-        if (row < 0 || row >= N || col < 0 || col >= N) {
-            throw new SudokuException("Row/col out of range (0-8).");
-        }
-        if (value < 0 || value > 9) {
-            throw new SudokuException("Value must be 0..9 (0 = empty).");
-        }
-        grid[row][col] = value;
-    }
-
-    /**
-     * Gets the value from a specific cell.
-     *
-     * @param row The 0-based row index (0-8).
-     * @param col The 0-based column index (0-8).
-     * @return The value in the cell (0-9).
-     * @throws SudokuException If the row or column is outside the allowed range.
-     */
-    public int getCell(int row, int col) throws SudokuException {
-        if (row < 0 || row >= N || col < 0 || col >= N) {
-            throw new SudokuException("Row/col out of range (0-8).");
-        }
-        return grid[row][col];
-    }
-
-    /**
-     * Clears the entire board by setting all cell values to 0 (empty).
-     */
-    public void clear() {
-        for (int r = 0; r < N; r++) {
-            for (int c = 0; c < N; c++) {
-                grid[r][c] = 0;
-            }
-        }
-    }
-
-    /**
-     * Generates a string representation of the board for console display.
-     *
-     * @return A well-formatted string of the board.
-     */
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (int r = 0; r < N; r++) {
-            if (r % 3 == 0 && r != 0) sb.append("------+-------+------\n");
-            for (int c = 0; c < N; c++) {
-                if (c % 3 == 0 && c != 0) sb.append("| ");
-                int v = grid[r][c];
-                sb.append(v == 0 ? ". " : (v + " "));
-            }
-            sb.append("\n");
-        }
-        return sb.toString();
-    }
-}
\ No newline at end of file
@@ -1,6 +0,0 @@
-/**
- * Contains the Model classes for the Sudoku application: {@link pl.polsl.michal.sadkowski.java1.sudoku.model.Board},
- * {@link pl.polsl.michal.sadkowski.java1.sudoku.model.User}, and the main wrapper class {@link pl.polsl.michal.sadkowski.java1.sudoku.model.SudokuGame}.
- * These classes store the application state and business logic.
- */
-package pl.polsl.michal.sadkowski.java1.sudoku.model;
\ No newline at end of file
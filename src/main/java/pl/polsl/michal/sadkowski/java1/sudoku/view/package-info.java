@@ -1,5 +0,0 @@
-/**
- * Contains the View class, {@link pl.polsl.michal.sadkowski.java1.sudoku.view.ConsoleView},
- * which is responsible for displaying output to the user and collecting raw input.
- */
-package pl.polsl.michal.sadkowski.java1.sudoku.view;
\ No newline at end of file
@@ -0,0 +1,275 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.bench.ControllerLoadTest.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.bench;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.NoOpGUIUpdater;
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.SudokuGame;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test of the game controller for capacity planning of hosted deployments.
+ * Every simulated player owns one {@link SudokuGUIController} with a {@link NoOpGUIUpdater} and drives it from
+ * its own virtual thread with a random but realistic stream of moves: mostly digit entries, some clears, undos,
+ * rejected inputs and cell clicks, and now and then a new game. After a warm-up the harness reports the
+ * aggregate operations per second, latency percentiles and the bytes allocated per operation.
+ * <p>
+ * Usage: {@code ControllerLoadTest [players] [seconds] [think ms] [warm-up seconds]}; the defaults are
+ * 1000 players, 10 seconds, no think time and 3 seconds of warm-up. With a think time every player sleeps
+ * between moves, which models real users and shows how many idle sessions one JVM can hold.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class ControllerLoadTest {
+    /** Digit strings, so that the move stream itself does not allocate. */
+    private static final String[] DIGITS = {"", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
+    /** The difficulty passed to new games. */
+    private static final String DIFFICULTY = "Medium";
+    /** One move in this many starts a new game. */
+    private static final int NEW_GAME_EVERY = 400;
+
+    /** Utility class, no instances. */
+    private ControllerLoadTest() {
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The number of players, the measured seconds, the think time in milliseconds and the warm-up seconds.
+     * @throws Exception if a player fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int thinkMillis = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        long measureStart = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long measureEnd = measureStart + seconds * 1_000_000_000L;
+        List<Future<LatencyHistogram>> results = new ArrayList<>(players);
+        long allocatedBefore;
+        long allocatedAfter;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int p = 0; p < players; p++) {
+                long seed = p;
+                results.add(executor.submit(() -> play(seed, thinkMillis, measureStart, measureEnd)));
+            }
+            sleepUntil(measureStart);
+            allocatedBefore = allocatedBytes();
+            sleepUntil(measureEnd);
+            allocatedAfter = allocatedBytes();
+        }
+
+        LatencyHistogram total = new LatencyHistogram();
+        for (Future<LatencyHistogram> result : results) {
+            total.add(result.get());
+        }
+        long ops = total.getCount();
+        System.out.printf("%d players, %d s, think %d ms, %d carrier threads%n", players, seconds, thinkMillis,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("throughput   %12.0f ops/s  (%d ops)%n", ops / (double) seconds, ops);
+        System.out.printf("latency us   p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                total.percentile(0.50) / 1e3, total.percentile(0.90) / 1e3, total.percentile(0.99) / 1e3,
+                total.percentile(0.999) / 1e3, total.getMax() / 1e3);
+        if (allocatedBefore >= 0 && ops > 0) {
+            System.out.printf("allocation   %12.1f bytes/op%n", (allocatedAfter - allocatedBefore) / (double) ops);
+        } else {
+            System.out.println("allocation   not available in this JVM");
+        }
+    }
+
+    /**
+     * Plays one simulated session until the end of the measurement.
+     *
+     * @param seed The seed of the player's move stream.
+     * @param thinkMillis The pause between moves in milliseconds (0 = none).
+     * @param measureStart When to start recording latencies ({@link System#nanoTime()}).
+     * @param measureEnd When to stop.
+     * @return The latencies of the measured moves.
+     * @throws InterruptedException if the thread is interrupted while thinking.
+     */
+    private static LatencyHistogram play(long seed, int thinkMillis, long measureStart, long measureEnd)
+            throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        SudokuGUIController controller = new SudokuGUIController(new SudokuGame("player" + seed), new NoOpGUIUpdater());
+        LatencyHistogram histogram = new LatencyHistogram();
+        try {
+            controller.startNewGame(DIFFICULTY);
+            while (true) {
+                long start = System.nanoTime();
+                if (start >= measureEnd) break;
+                move(controller, random);
+                long end = System.nanoTime();
+                if (start >= measureStart) histogram.record(end - start);
+                if (thinkMillis > 0) Thread.sleep(thinkMillis);
+            }
+        } finally {
+            controller.dispose();
+        }
+        return histogram;
+    }
+
+    /**
+     * Makes one random move with the mix of a typical session.
+     *
+     * @param controller The player's controller.
+     * @param random The player's random source.
+     */
+    private static void move(SudokuGUIController controller, SplittableRandom random) {
+        if (random.nextInt(NEW_GAME_EVERY) == 0) {
+            controller.startNewGame(DIFFICULTY);
+            return;
+        }
+        int row = random.nextInt(9);
+        int col = random.nextInt(9);
+        int kind = random.nextInt(100);
+        if (kind < 60) {
+            controller.handleCellInput(row, col, DIGITS[1 + random.nextInt(9)]);
+        } else if (kind < 75) {
+            controller.clearSelectedCell(row, col);
+        } else if (kind < 90) {
+            controller.undoLastMove();
+        } else if (kind < 95) {
+            controller.handleCellInput(row, col, "0");
+        } else {
+            controller.handleCellClick(row, col);
+        }
+    }
+
+    /**
+     * Sleeps until a point in time.
+     *
+     * @param deadline The time to wake up ({@link System#nanoTime()}).
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long left;
+        while ((left = deadline - System.nanoTime()) > 0) {
+            Thread.sleep(left / 1_000_000, (int) (left % 1_000_000));
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by all threads. Virtual threads allocate on their carrier threads,
+     * so the total covers the players.
+     *
+     * @return The allocated bytes, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Histogram of latencies with logarithmic buckets of 1/16 of a power of two, i.e. about 6% precision,
+     * so that recording a latency never allocates.
+     */
+    private static final class LatencyHistogram {
+        /** Sub-buckets per power of two, as a number of bits. */
+        private static final int SUB_BITS = 4;
+        /** Number of buckets: enough for any positive long. */
+        private static final int BUCKETS = (64 - SUB_BITS + 1) << SUB_BITS;
+
+        /** The counts per bucket. */
+        private final long[] counts = new long[BUCKETS];
+        /** The number of recorded values. */
+        private long count;
+        /** The largest recorded value. */
+        private long max;
+
+        /**
+         * Records one latency.
+         *
+         * @param nanos The latency in nanoseconds.
+         */
+        void record(long nanos) {
+            counts[bucketOf(Math.max(nanos, 0))]++;
+            count++;
+            if (nanos > max) max = nanos;
+        }
+
+        /**
+         * Adds all values of another histogram.
+         *
+         * @param other The other histogram.
+         */
+        void add(LatencyHistogram other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * Gets the number of recorded values.
+         *
+         * @return The count.
+         */
+        long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the largest recorded value.
+         *
+         * @return The maximum in nanoseconds.
+         */
+        long getMax() {
+            return max;
+        }
+
+        /**
+         * Estimates a percentile as the upper bound of the bucket that contains it.
+         *
+         * @param fraction The percentile as a fraction (e.g. 0.99).
+         * @return The latency in nanoseconds, or 0 if nothing was recorded.
+         */
+        long percentile(double fraction) {
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) return Math.min(upperBound(i), max);
+            }
+            return 0;
+        }
+
+        /**
+         * Finds the bucket of a value: values below 16 have their own buckets, larger ones are split by their
+         * highest bit and the next four bits.
+         *
+         * @param value The non-negative value.
+         * @return The bucket index.
+         */
+        private static int bucketOf(long value) {
+            if (value < (1 << SUB_BITS)) return (int) value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & ((1 << SUB_BITS) - 1));
+        }
+
+        /**
+         * Gets the largest value that falls into a bucket.
+         *
+         * @param bucket The bucket index.
+         * @return The upper bound.
+         */
+        private static long upperBound(int bucket) {
+            if (bucket < (1 << SUB_BITS)) return bucket;
+            int shift = (bucket >>> SUB_BITS) - 1;
+            long mantissa = (1 << SUB_BITS) + (bucket & ((1 << SUB_BITS) - 1));
+            return ((mantissa + 1) << shift) - 1;
+        }
+    }
+}
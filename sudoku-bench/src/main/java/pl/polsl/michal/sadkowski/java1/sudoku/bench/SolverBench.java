@@ -0,0 +1,107 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.bench.SolverBench.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.bench;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.DlxSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.LogicSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolverStrategy;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SudokuSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantRules;
+import pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantSolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput benchmark of the solving strategies of the engine.
+ * Every strategy solves all puzzles of a file for a number of rounds; the first rounds warm up the JIT
+ * and are not reported. Usage: {@code SolverBench <puzzle file> [rounds]}, one 81-character puzzle per line.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class SolverBench {
+    /** Number of rounds run before measuring. */
+    private static final int WARMUP_ROUNDS = 3;
+
+    /** Utility class, no instances. */
+    private SolverBench() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The puzzle file and an optional number of measured rounds (default 5).
+     * @throws IOException if the puzzle file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("How to use: SolverBench <puzzle file> [rounds]");
+            System.exit(2);
+        }
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<byte[]> puzzles = readPuzzles(args[0]);
+        SolverStrategy[] strategies = {
+            new SudokuSolver(), new DlxSolver(), new LogicSolver(), new VariantSolver(VariantRules.classic())
+        };
+        System.out.printf("%d puzzles, %d rounds%n", puzzles.size(), rounds);
+        for (SolverStrategy strategy : strategies) {
+            long checksum = 0;
+            for (int r = 0; r < WARMUP_ROUNDS; r++) {
+                checksum += solveAll(strategy, puzzles);
+            }
+            long start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                checksum += solveAll(strategy, puzzles);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-16s %10.0f puzzles/s %8.2f us/puzzle  (checksum %d)%n", strategy.getName(),
+                    rounds * puzzles.size() / seconds, seconds * 1e6 / (rounds * puzzles.size()), checksum);
+        }
+    }
+
+    /**
+     * Solves every puzzle once.
+     *
+     * @param strategy The strategy.
+     * @param puzzles The puzzles.
+     * @return The number of solved puzzles, so that the work cannot be optimized away.
+     */
+    private static long solveAll(SolverStrategy strategy, List<byte[]> puzzles) {
+        long solved = 0;
+        for (byte[] puzzle : puzzles) {
+            if (strategy.solve(puzzle).isSolved()) solved++;
+        }
+        return solved;
+    }
+
+    /**
+     * Reads one puzzle per non-empty line; digits 1-9 are values, anything else is an empty cell.
+     *
+     * @param file The file name.
+     * @return The puzzles.
+     * @throws IOException if the file cannot be read.
+     */
+    private static List<byte[]> readPuzzles(String file) throws IOException {
+        List<byte[]> puzzles = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                byte[] cells = new byte[GridGeometry.CELLS];
+                for (int i = 0; i < Math.min(line.length(), GridGeometry.CELLS); i++) {
+                    char ch = line.charAt(i);
+                    cells[i] = (byte) (ch >= '1' && ch <= '9' ? ch - '0' : 0);
+                }
+                puzzles.add(cells);
+            }
+        }
+        return puzzles;
+    }
+}
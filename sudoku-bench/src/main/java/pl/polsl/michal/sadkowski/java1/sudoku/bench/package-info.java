@@ -0,0 +1,6 @@
+/**
+ * Contains the benchmarks, such as {@link pl.polsl.michal.sadkowski.java1.sudoku.bench.SolverBench} for the engine
+ * and {@link pl.polsl.michal.sadkowski.java1.sudoku.bench.ControllerLoadTest} for the game controller.
+ * The module depends on {@code sudoku-core} and {@code sudoku-cli}, never on the Swing view.
+ */
+package pl.polsl.michal.sadkowski.java1.sudoku.bench;
@@ -0,0 +1,58 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.StartupStats.java
+package pl.polsl.michal.sadkowski.java1.sudoku;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how long a launcher subcommand takes to start.
+ * Three points are recorded: the start of the JVM process, the entry to {@code main} and the moment
+ * the subcommand is ready (window built, server bound, console ready, batch finished).
+ * When enabled, one line is printed on standard error:
+ * <pre>startup[repl]: jvm-&gt;main 41 ms, main-&gt;ready 12 ms, total 53 ms, classes 712, cds on</pre>
+ * The process start time comes from the operating system with a resolution of about 10 ms.
+ * Disabled statistics cost nothing, and management classes are loaded only when the line is printed.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+final class StartupStats {
+    /** Whether the statistics are printed. */
+    private final boolean enabled;
+    /** The subcommand being measured. */
+    private final String command;
+    /** Time of entering {@code main}. */
+    private final long mainNanos = System.nanoTime();
+    /** Wall-clock time of entering {@code main}. */
+    private final long mainMillis = System.currentTimeMillis();
+    /** Whether {@link #ready()} was already reported. */
+    private boolean reported;
+
+    /**
+     * Starts measuring a subcommand.
+     *
+     * @param command The subcommand name.
+     * @param enabled Whether to print the statistics.
+     */
+    StartupStats(String command, boolean enabled) {
+        this.command = command;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Reports that the subcommand is ready. Only the first call prints.
+     */
+    synchronized void ready() {
+        if (!enabled || reported) return;
+        reported = true;
+        long readyMillis = (System.nanoTime() - mainNanos) / 1_000_000;
+        long jvmMillis = ProcessHandle.current().info().startInstant()
+                .map(start -> mainMillis - start.toEpochMilli())
+                .orElse(-1L);
+        int classes = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+        String cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")) ? "on" : "default";
+        System.err.println("startup[" + command + "]: jvm->main " + jvmMillis + " ms, main->ready " + readyMillis
+                + " ms, total " + (jvmMillis < 0 ? "?" : String.valueOf(jvmMillis + readyMillis)) + " ms, classes "
+                + classes + ", cds " + cds);
+    }
+}
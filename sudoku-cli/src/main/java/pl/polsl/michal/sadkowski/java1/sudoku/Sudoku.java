@@ -0,0 +1,121 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.Sudoku.java
+package pl.polsl.michal.sadkowski.java1.sudoku;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.AppController;
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuServer;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+/**
+ * Main class for the Sudoku application: a launcher with subcommands.
+ * <ul>
+ * <li>{@code gui} (the default) - the graphical game,</li>
+ * <li>{@code repl [command...]} - the console editor, or one console command,</li>
+ * <li>{@code solve-batch <puzzle file> [solution file]} - solves a file of puzzles and exits,</li>
+ * <li>{@code serve [port]} - a TCP server speaking the script command language (default port 9099).</li>
+ * </ul>
+ * Only {@code gui} loads AWT and Swing: the GUI is started by name from the {@code sudoku-gui} module,
+ * so the console and server subcommands start quickly and run without that module and without {@code java.desktop}.
+ * The option {@code --startup-stats} before the subcommand prints how long the start took.
+ * For many short-lived JVMs, build the class data sharing archive with {@code mvn -Pappcds package}
+ * in {@code sudoku-cli} and run its jar with {@code -XX:SharedArchiveFile=target/sudoku.jsa}.
+ *
+ * @author Michał Sadkowski
+ * @version 1.3
+ */
+public class Sudoku {
+    /** The class in the {@code sudoku-gui} module that builds the window. */
+    private static final String GUI_LAUNCHER = "pl.polsl.michal.sadkowski.java1.sudoku.view.GuiLauncher";
+    /** Default port of the {@code serve} subcommand. */
+    private static final int DEFAULT_PORT = 9099;
+
+    /**
+     * The main entry point of the Sudoku application.
+     *
+     * @param args {@code [--startup-stats] [gui | repl | solve-batch | serve] [arguments...]}.
+     */
+    public static void main(String[] args) {
+        int first = 0;
+        boolean statsEnabled = false;
+        if (args.length > 0 && args[0].equals("--startup-stats")) {
+            statsEnabled = true;
+            first = 1;
+        }
+        String command = args.length > first ? args[first].toLowerCase() : "gui";
+        String[] rest = args.length > first ? Arrays.copyOfRange(args, first + 1, args.length) : new String[0];
+        StartupStats stats = new StartupStats(command, statsEnabled);
+
+        switch (command) {
+            case "gui" -> launchGui(stats);
+            case "repl" -> {
+                AppController controller = new AppController();
+                stats.ready();
+                controller.run(rest);
+            }
+            case "solve-batch" -> {
+                if (rest.length < 1) {
+                    System.err.println("How to use: solve-batch <puzzle file> [solution file]");
+                    System.exit(2);
+                }
+                String[] batch = new String[rest.length + 1];
+                batch[0] = "batch";
+                System.arraycopy(rest, 0, batch, 1, rest.length);
+                new AppController().run(batch);
+                stats.ready();
+            }
+            case "serve" -> serve(rest, stats);
+            default -> {
+                System.err.println("Unknown subcommand. Use: [--startup-stats] gui | repl [command] | "
+                        + "solve-batch <file> [out] | serve [port]");
+                System.exit(2);
+            }
+        }
+    }
+
+    /**
+     * Starts the GUI from the {@code sudoku-gui} module, which is looked up by name.
+     *
+     * @param stats The startup statistics; the GUI is reported ready once the window is built.
+     */
+    private static void launchGui(StartupStats stats) {
+        try {
+            Class.forName(GUI_LAUNCHER).getMethod("launch", Runnable.class).invoke(null, (Runnable) stats::ready);
+        } catch (ClassNotFoundException e) {
+            System.err.println("The GUI is not installed (sudoku-gui is missing). Use: repl, solve-batch or serve.");
+            System.exit(2);
+        } catch (ReflectiveOperationException e) {
+            Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+            System.err.println("Cannot start the GUI: " + cause);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the TCP server until the process is stopped.
+     *
+     * @param rest The arguments after the subcommand: an optional port.
+     * @param stats The startup statistics; the server is ready once the port is bound.
+     */
+    private static void serve(String[] rest, StartupStats stats) {
+        int port = DEFAULT_PORT;
+        if (rest.length > 0) {
+            try {
+                port = Integer.parseInt(rest[0]);
+            } catch (NumberFormatException e) {
+                System.err.println("Not a correct port: " + rest[0]);
+                System.exit(2);
+            }
+        }
+        try {
+            SudokuServer server = new SudokuServer(port);
+            System.err.println("Listening on port " + server.getPort());
+            stats.ready();
+            server.serve();
+        } catch (IOException e) {
+            System.err.println("Server error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
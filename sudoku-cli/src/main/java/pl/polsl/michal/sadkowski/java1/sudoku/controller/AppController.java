@@ -0,0 +1,993 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.AppController.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.Board;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.Difficulty;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.SudokuGame;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.BulkValidator;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.MultiPuzzleSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.PortfolioSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.PuzzleGenerator;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolutionCounter;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveBudget;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveOutcome;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveResult;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SudokuSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleArchive;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleImporter;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleLibrary;
+import pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantRules;
+import pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+import pl.polsl.michal.sadkowski.java1.sudoku.view.ConsoleView;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Simple controller for the console-based Sudoku application.
+ * It provides two modes:
+ * <ul>
+ * <li>If arguments are provided: execute a single command and exit.</li>
+ * <li>If no arguments are provided: start an interactive REPL (Read-Eval-Print Loop).</li>
+ * <li>If the first argument is {@code script}: execute commands from a file (or standard input) without prompts.</li>
+ * </ul>
+ *
+ * @author Michał Sadkowski
+ * @version 1.3 (scripted mode)
+ */
+public class AppController {
+    /** Size of the output buffer used in script mode. */
+    private static final int SCRIPT_BUFFER_SIZE = 1 << 16;
+
+    /** The Sudoku game state. */
+    private final SudokuGame game = new SudokuGame("guest");
+    /** The console view for showing output and taking input. */
+    private final ConsoleView view;
+
+    /**
+     * Creates a controller working on the interactive system console.
+     */
+    public AppController() {
+        this(new ConsoleView());
+    }
+
+    /**
+     * Creates a controller that uses the given view.
+     *
+     * @param view The console view for output (and input in REPL mode).
+     */
+    public AppController(ConsoleView view) {
+        this.view = view;
+    }
+
+    /**
+     * Runs the application logic.
+     *
+     * @param args Command-line arguments to perform one task, or an empty/null array for REPL mode.
+     */
+    public void run(String[] args) {
+        if (args != null && args.length > 0 && args[0].equalsIgnoreCase("script")) {
+            runScript(args.length > 1 ? args[1] : "-");
+        } else if (args != null && args.length > 0) {
+            handleCommand(args);
+        } else {
+            repl();
+        }
+    }
+
+    /**
+     * Runs a command script in non-interactive mode. Output goes through one buffered writer on
+     * standard output that is flushed only by {@code print} and at the end of the script.
+     *
+     * @param source The script file name, or {@code "-"} for standard input.
+     */
+    private void runScript(String source) {
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), SCRIPT_BUFFER_SIZE);
+        AppController scripted = new AppController(new ConsoleView(out));
+        try (Reader in = source.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            scripted.runScript(in);
+        } catch (IOException e) {
+            view.display("Error: cannot read script " + source + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executes every command of a script on this controller's game and view.
+     * Supported commands: {@code print}, {@code set r c v}, {@code get r c}, {@code load <board>}, {@code export},
+     * {@code clear}, {@code solve} and {@code exit}, which stops the script. Lines starting with {@code #} are comments.
+     * The view is flushed after each {@code print} and when the script ends.
+     *
+     * @param in The script source.
+     * @throws IOException if reading the script fails.
+     */
+    public void runScript(Reader in) throws IOException {
+        ScriptReader script = new ScriptReader(in);
+        try {
+            while (script.nextLine()) {
+                if (!executeScriptLine(script)) break;
+            }
+        } finally {
+            view.flush();
+        }
+    }
+
+    /**
+     * Executes the current line of a script.
+     *
+     * @param script The script reader positioned on a command line.
+     * @return {@code false} if the script should stop ({@code exit}).
+     */
+    boolean executeScriptLine(ScriptReader script) {
+        try {
+            if (script.tokenIs(0, "print")) {
+                view.display(game.getBoard());
+                view.flush();
+            } else if (script.tokenIs(0, "set")) {
+                int r = script.intToken(1), c = script.intToken(2), v = script.intToken(3);
+                if (r < 1 || r > 9 || c < 1 || c > 9 || v < 0 || v > 9) {
+                    view.display("Error at line " + script.lineNumber() + ": set needs r, c in 1-9 and v in 0-9.");
+                } else {
+                    game.getBoard().setCell(r - 1, c - 1, v);
+                }
+            } else if (script.tokenIs(0, "get")) {
+                int r = script.intToken(1), c = script.intToken(2);
+                if (r < 1 || r > 9 || c < 1 || c > 9) {
+                    view.display("Error at line " + script.lineNumber() + ": get needs r, c in 1-9.");
+                } else {
+                    view.display("Cell (" + r + "," + c + ") = " + game.getBoard().getCell(r - 1, c - 1));
+                }
+            } else if (script.tokenIs(0, "clear")) {
+                game.getBoard().clear();
+            } else if (script.tokenIs(0, "load")) {
+                if (script.tokenCount() < 2) {
+                    view.display("Error at line " + script.lineNumber() + ": load needs an 81-character board.");
+                } else {
+                    game.getBoard().loadFrom(script.token(1));
+                }
+            } else if (script.tokenIs(0, "export")) {
+                view.display(formatLine(game.getBoard().snapshot()));
+            } else if (script.tokenIs(0, "solve")) {
+                solveBoard();
+            } else if (script.tokenIs(0, "exit")) {
+                return false;
+            } else {
+                view.display("Error at line " + script.lineNumber() + ": unknown command " + script.token(0));
+            }
+        } catch (SudokuException e) {
+            view.display("Error at line " + script.lineNumber() + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Executes a single command based on command-line arguments.
+     *
+     * @param parts Array of command parts (command, row, column, value).
+     * @throws SudokuException if a Sudoku rule is broken during a 'set' operation.
+     * @throws Exception for any other unexpected error.
+     */
+    private void handleCommand(String[] parts) {
+        String cmd = parts[0].toLowerCase();
+
+        try {
+            if (cmd.equals("print")) {
+                view.display(game.getBoard());
+                return;
+            }
+            if (cmd.equals("clear")) {
+                game.getBoard().clear();
+                view.display("Board cleaned.");
+                return;
+            }
+            if (cmd.equals("solve")) {
+                if (parts.length < 2) {
+                    solveBoard();
+                    return;
+                }
+                Integer maxNodes = view.tryParse(parts[1]);
+                Integer maxMillis = parts.length > 2 ? view.tryParse(parts[2]) : null;
+                if (maxNodes == null || maxNodes < 1 || (parts.length > 2 && (maxMillis == null || maxMillis < 0))) {
+                    view.display("How to use: solve [max nodes] [max ms]");
+                    return;
+                }
+                solveBoard(new SudokuSolver(), new SolveBudget(maxNodes, maxMillis == null ? null : Duration.ofMillis(maxMillis)));
+                return;
+            }
+            if (cmd.equals("validate")) {
+                if (parts.length < 2) {
+                    view.display("How to use: validate <file with one 81-digit board per line>");
+                    return;
+                }
+                validateBoards(parts[1]);
+                return;
+            }
+            if (cmd.equals("batch")) {
+                if (parts.length < 2) {
+                    view.display("How to use: batch <puzzle file> [solution file]");
+                    return;
+                }
+                solveBatch(parts[1], parts.length > 2 ? parts[2] : null);
+                return;
+            }
+            if (cmd.equals("count")) {
+                if (parts.length < 2) {
+                    view.display("How to use: count <81-char puzzle> [split depth] [checkpoint file]");
+                    return;
+                }
+                Integer depth = parts.length > 2 ? view.tryParse(parts[2]) : Integer.valueOf(6);
+                if (depth == null || depth < 0 || depth > 81) {
+                    view.display("Not a correct split depth for count (must be 0-81).");
+                    return;
+                }
+                countSolutions(parts[1], depth, parts.length > 3 ? parts[3] : null);
+                return;
+            }
+            if (cmd.equals("race")) {
+                if (parts.length < 2) {
+                    view.display("How to use: race <81-char puzzle> [deadline ms]");
+                    return;
+                }
+                Integer deadline = parts.length > 2 ? view.tryParse(parts[2]) : Integer.valueOf(10_000);
+                if (deadline == null || deadline < 1) {
+                    view.display("Not a correct deadline for race (must be at least 1 ms).");
+                    return;
+                }
+                raceStrategies(parts[1], deadline);
+                return;
+            }
+            if (cmd.equals("variant")) {
+                if (parts.length < 3) {
+                    view.display("How to use: variant <classic|x|windoku|jigsaw|killer> <81-char puzzle> [region or cage map] [cage sums]");
+                    return;
+                }
+                solveVariant(parts);
+                return;
+            }
+            if (cmd.equals("import")) {
+                if (parts.length < 2) {
+                    view.display("How to use: import <puzzle file in 81-char, SDM, SDK or CSV format> [output file, .sarc for an archive]");
+                    return;
+                }
+                importPuzzles(parts[1], parts.length > 2 ? parts[2] : null);
+                return;
+            }
+            if (cmd.equals("generate")) {
+                if (parts.length < 3) {
+                    view.display("How to use: generate <count> <output file, .sarc for an archive> [seed] [threads]");
+                    return;
+                }
+                Integer count = view.tryParse(parts[1]);
+                Long seed;
+                try {
+                    seed = parts.length > 3 ? Long.valueOf(parts[3]) : Long.valueOf(0);
+                } catch (NumberFormatException e) {
+                    seed = null;
+                }
+                Integer threads = parts.length > 4 ? view.tryParse(parts[4])
+                        : Integer.valueOf(Runtime.getRuntime().availableProcessors());
+                if (count == null || count < 0 || seed == null || threads == null || threads < 1) {
+                    view.display("Not a correct count, seed or number of threads for generate.");
+                    return;
+                }
+                generatePuzzles(count, parts[2], seed, threads);
+                return;
+            }
+            if (cmd.equals("pack") || cmd.equals("unpack")) {
+                if (parts.length < 3) {
+                    view.display(cmd.equals("pack") ? "How to use: pack <puzzle file> <archive file> [block size]"
+                            : "How to use: unpack <archive file> <puzzle file>");
+                    return;
+                }
+                if (cmd.equals("unpack")) {
+                    unpackArchive(parts[1], parts[2]);
+                    return;
+                }
+                Integer blockSize = parts.length > 3 ? view.tryParse(parts[3]) : Integer.valueOf(PuzzleArchive.DEFAULT_BLOCK_SIZE);
+                if (blockSize == null || blockSize < 1 || blockSize > 1 << 20) {
+                    view.display("Not a correct block size for pack (must be 1-1048576).");
+                    return;
+                }
+                packArchive(parts[1], parts[2], blockSize);
+                return;
+            }
+            if (cmd.equals("library")) {
+                if (parts.length < 4 || !(parts[1].equalsIgnoreCase("build") || parts[1].equalsIgnoreCase("pick"))) {
+                    view.display("How to use: library build <puzzle file> <library file> | library pick <library file> <easy|medium|hard> [min clues] [max clues]");
+                    return;
+                }
+                if (parts[1].equalsIgnoreCase("build")) {
+                    buildLibrary(parts[2], parts[3]);
+                    return;
+                }
+                Difficulty level = Difficulty.fromName(parts[3]);
+                Integer min = parts.length > 4 ? view.tryParse(parts[4]) : Integer.valueOf(0);
+                Integer max = parts.length > 5 ? view.tryParse(parts[5]) : Integer.valueOf(GridGeometry.CELLS);
+                if (level == null || min == null || max == null) {
+                    view.display("Not a correct difficulty or clue count for library pick.");
+                    return;
+                }
+                pickFromLibrary(parts[2], level, min, max);
+                return;
+            }
+            if (cmd.equals("replay")) {
+                if (parts.length < 2) {
+                    view.display("How to use: replay <journal file> [runs]");
+                    return;
+                }
+                Integer runs = parts.length > 2 ? view.tryParse(parts[2]) : Integer.valueOf(1);
+                if (runs == null || runs < 1) {
+                    view.display("Not a correct number of runs for replay (must be at least 1).");
+                    return;
+                }
+                replayJournal(parts[1], runs);
+                return;
+            }
+            if (cmd.equals("get")) {
+                if (parts.length < 3) {
+                    view.display("How to use: get <row 1-9> <col 1-9>");
+                    return;
+                }
+                Integer r = view.tryParse(parts[1]), c = view.tryParse(parts[2]);
+                if (r == null || c == null || r < 1 || r > 9 || c < 1 || c > 9) {
+                    view.display("Not a correct number argument for get (must be 1-9).");
+                    return;
+                }
+                int val = game.getBoard().getCell(r - 1, c - 1); 
+                view.display(String.format("Cell (%d,%d) = %d", r, c, val));
+                return;
+            }
+            if (cmd.equals("set")) {
+                if (parts.length < 4) {
+                    view.display("How to use: set <row 1-9> <col 1-9> <value 0-9>");
+                    return;
+                }
+                Integer r = view.tryParse(parts[1]), c = view.tryParse(parts[2]), v = view.tryParse(parts[3]);
+                if (r == null || c == null || v == null || r < 1 || r > 9 || c < 1 || c > 9 || v < 0 || v > 9) {
+                    view.display("Not a correct number value for set (r, c must be 1-9; v must be 0-9).");
+                    return;
+                }
+                game.getBoard().setCell(r - 1, c - 1, v);
+                view.display("OK");
+                return;
+            }
+            view.display("Unknown command. Use: print, set, get, clear, solve [max nodes] [max ms], script [file], replay <file> [runs], validate <file>, batch <file> [out], count <puzzle> [depth] [checkpoint], race <puzzle> [ms], import <file> [out], generate <count> <file> [seed] [threads], pack <file> <archive> [block], unpack <archive> <file>, library build|pick ..., variant <type> <puzzle> [map] [sums]");
+
+        } catch (SudokuException e) {
+            view.display("Error: " + e.getMessage());
+        } catch (Exception e) {
+            view.display("An bad error happen: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the interactive Read-Eval-Print Loop (REPL) for console play.
+     */
+    private void repl() {
+        view.display("Simple console sudoku editor 9x9");
+        view.display("Commands: print | set r c v | get r c | load <board> | export | clear | solve | exit");
+
+        while (true) {
+            String line = view.prompt("cmd>");
+            if (line.isEmpty()) continue;
+            String[] parts = line.split("\\s+");
+            String cmd = parts[0].toLowerCase();
+
+            try {
+                if (cmd.equals("exit")) {
+                    view.display("Finish.");
+                    return;
+                } else if (cmd.equals("print")) {
+                    view.display(game.getBoard());
+                } else if (cmd.equals("clear")) {
+                    game.getBoard().clear();
+                    view.display("Board cleaned.");
+                } else if (cmd.equals("solve")) {
+                    solveBoard();
+                } else if (cmd.equals("load")) {
+                    if (parts.length < 2) {
+                        view.display("How to use: load <81 characters, 1-9 or 0/. for empty>");
+                        continue;
+                    }
+                    game.getBoard().loadFrom(parts[1]);
+                    view.display("OK");
+                } else if (cmd.equals("export")) {
+                    view.display(formatLine(game.getBoard().snapshot()));
+                } else if (cmd.equals("get")) {
+                    int r, c;
+                    if (parts.length >= 3) {
+                        r = Integer.parseInt(parts[1]);
+                        c = Integer.parseInt(parts[2]);
+                    } else {
+                        r = view.askInt("Enter row 1-9:");
+                        c = view.askInt("Enter column 1-9:");
+                    }
+                    if (r < 1 || r > 9 || c < 1 || c > 9) {
+                        view.display("Error: Row/column must be 1-9.");
+                        continue;
+                    }
+                    int val = game.getBoard().getCell(r - 1, c - 1); 
+                    view.display(String.format("Cell (%d,%d) = %d", r, c, val));
+                } else if (cmd.equals("set")) {
+                    int r, c, v;
+                    if (parts.length >= 4) {
+                        r = Integer.parseInt(parts[1]);
+                        c = Integer.parseInt(parts[2]);
+                        v = Integer.parseInt(parts[3]);
+                    } else {
+                        r = view.askInt("Enter row 1-9:");
+                        c = view.askInt("Enter column 1-9:");
+                        v = view.askIntAllowZero("Enter value 0-9 (0 = empty):");
+                    }
+                    if (r < 1 || r > 9 || c < 1 || c > 9) {
+                        view.display("Error: Row/column must be 1-9.");
+                        continue;
+                    }
+                    game.getBoard().setCell(r - 1, c - 1, v);
+                    view.display("OK");
+                } else {
+                    view.display("Unknown command. Use: print, set, get, load, export, clear, solve, exit");
+                }
+            } catch (NumberFormatException e) {
+                view.display("Error: Input is not a correct number value.");
+            } catch (SudokuException e) {
+                view.display("Error: " + e.getMessage());
+            } catch (Exception e) {
+                view.display("An bad error happen: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Solves the current board with the shared (cached) solver within {@link SudokuGame#SOLUTION_TIME_LIMIT}
+     * and shows how the search ended, the solution if one was found, and the cache statistics.
+     * The deadline keeps an unsolvable grid from holding a script or server thread.
+     * The board itself is not changed.
+     *
+     * @throws SudokuException if a board cell cannot be read or written.
+     */
+    private void solveBoard() throws SudokuException {
+        SudokuSolver solver = SudokuSolver.shared();
+        solveBoard(solver, SolveBudget.ofTime(SudokuGame.SOLUTION_TIME_LIMIT));
+        view.display(String.valueOf(solver.getCache()));
+    }
+
+    /**
+     * Solves the current board within a budget and shows how the search ended,
+     * the solution if one was found, and the search statistics. The board itself is not changed.
+     *
+     * @param solver The solver to use.
+     * @param budget The node limit and deadline of the search.
+     * @throws SudokuException if a board cell cannot be read or written.
+     */
+    private void solveBoard(SudokuSolver solver, SolveBudget budget) throws SudokuException {
+        SolveOutcome outcome = solver.solve(game.getBoard().snapshot(), budget);
+        SolveResult result = outcome.getResult();
+        if (result.isSolved()) {
+            Board solved = new Board();
+            solved.loadFrom(result.getSolution());
+            view.display(solved);
+        }
+        switch (outcome.getStatus()) {
+            case SOLVED -> view.display(result.isUnique() ? "Unique solution." : "Multiple solutions.");
+            case UNSOLVABLE -> view.display("No solution.");
+            case NODE_LIMIT -> view.display("Stopped: node limit of " + budget.getMaxNodes() + " reached.");
+            case TIME_LIMIT -> view.display("Stopped: time limit reached.");
+            case CANCELLED -> view.display("Stopped: cancelled.");
+        }
+        view.display(String.format("%d nodes in %.3f ms.", outcome.getNodes(), outcome.getElapsedNanos() / 1e6));
+    }
+
+    /**
+     * Replays a recorded move journal headlessly and shows the throughput and latency report of every run.
+     * The first runs also warm up the JVM, so the last report is the most representative one.
+     *
+     * @param file The journal file name.
+     * @param runs How many times to replay the journal.
+     */
+    private void replayJournal(String file, int runs) {
+        JournalReplayer replayer;
+        try (InputStream in = Files.newInputStream(Paths.get(file))) {
+            replayer = new JournalReplayer(in);
+        } catch (IOException e) {
+            view.display("Error: cannot read journal " + file + ": " + e.getMessage());
+            return;
+        }
+        for (int run = 1; run <= runs; run++) {
+            view.display("Run " + run + "/" + runs + ":");
+            view.display(replayer.replay().toString());
+        }
+    }
+
+    /**
+     * Reads a puzzle collection in any supported text format with the {@link PuzzleImporter} and reports the
+     * detected format, the number of puzzles, the skipped malformed records and the throughput. The puzzles are
+     * optionally written as 81-character lines or, for a file name ending in {@code .sarc}, as a {@link PuzzleArchive}.
+     *
+     * @param file The puzzle file name.
+     * @param outFile The output file name, or {@code null} to only check the file.
+     */
+    private void importPuzzles(String file, String outFile) {
+        int batch = 1024;
+        byte[] boards = new byte[batch * GridGeometry.CELLS];
+        byte[] cells = new byte[GridGeometry.CELLS];
+        long start = System.nanoTime();
+        PuzzleImporter importer;
+        try (InputStream in = Files.newInputStream(Paths.get(file));
+             PuzzleImporter source = new PuzzleImporter(in);
+             OutputStream out = outFile == null ? OutputStream.nullOutputStream() : Files.newOutputStream(Paths.get(outFile));
+             PuzzleArchive.Writer archive = outFile != null && outFile.endsWith(".sarc") ? new PuzzleArchive.Writer(out) : null;
+             BufferedWriter lines = outFile != null && archive == null
+                     ? new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII)) : null) {
+            importer = source;
+            int n;
+            while ((n = source.read(boards, batch)) > 0) {
+                for (int b = 0; b < n && outFile != null; b++) {
+                    System.arraycopy(boards, b * GridGeometry.CELLS, cells, 0, GridGeometry.CELLS);
+                    if (archive != null) {
+                        archive.write(cells);
+                    } else {
+                        lines.write(formatLine(cells));
+                        lines.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            view.display("Error: cannot import " + file + ": " + e.getMessage());
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        view.display(String.format("Imported %d puzzles (%s format), skipped %d malformed, %.3f ms (%.1f MB/s).",
+                importer.getRecordCount(), importer.getFormat(), importer.getMalformedCount(), elapsed / 1e6,
+                elapsed == 0 ? 0.0 : importer.getBytesRead() * 1e3 / elapsed));
+        int shown = 0;
+        for (long line : importer.getMalformedLines()) {
+            if (shown++ == 20) break;
+            view.display("Malformed record at line " + line);
+        }
+    }
+
+    /**
+     * Generates a pack of puzzles with the {@link PuzzleGenerator} and writes them in seed order, as 81-character
+     * lines or, for a file name ending in {@code .sarc}, as a {@link PuzzleArchive}. The file is the same for any
+     * number of threads.
+     *
+     * @param count The number of puzzles.
+     * @param file The output file name.
+     * @param seed The seed of the first puzzle.
+     * @param threads The number of worker threads.
+     */
+    private void generatePuzzles(int count, String file, long seed, int threads) {
+        long start = System.nanoTime();
+        long[] clues = new long[1];
+        try (OutputStream out = Files.newOutputStream(Paths.get(file))) {
+            if (file.endsWith(".sarc")) {
+                try (PuzzleArchive.Writer writer = new PuzzleArchive.Writer(out)) {
+                    PuzzleGenerator.generateAll(seed, count, threads, (index, puzzle, rating) -> {
+                        clues[0] += countClues(puzzle);
+                        writer.write(puzzle);
+                    });
+                }
+            } else {
+                try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII))) {
+                    PuzzleGenerator.generateAll(seed, count, threads, (index, puzzle, rating) -> {
+                        clues[0] += countClues(puzzle);
+                        writer.write(formatLine(puzzle));
+                        writer.newLine();
+                    });
+                }
+            }
+        } catch (IOException e) {
+            view.display("Error: cannot write puzzles " + file + ": " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.display("Generating interrupted.");
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        view.display(String.format("Generated %d puzzles on %d threads in %.3f ms (%.0f puzzles/s, %.1f clues on average).",
+                count, threads, elapsed / 1e6, elapsed == 0 ? 0.0 : count * 1e9 / elapsed,
+                count == 0 ? 0.0 : (double) clues[0] / count));
+    }
+
+    /**
+     * Counts the givens of a grid.
+     *
+     * @param cells 81 cell values.
+     * @return The number of non-empty cells.
+     */
+    private static int countClues(byte[] cells) {
+        int clues = 0;
+        for (byte cell : cells) {
+            if (cell != 0) clues++;
+        }
+        return clues;
+    }
+
+    /**
+     * Converts a puzzle file into a compressed {@link PuzzleArchive}, one line at a time, and reports
+     * the sizes of both files. Lines are read like {@link #readBoards(String)} reads them.
+     *
+     * @param file The puzzle file name, one 81-character puzzle per line.
+     * @param archiveFile The archive file name.
+     * @param blockSize Puzzles per compressed block.
+     */
+    private void packArchive(String file, String archiveFile, int blockSize) {
+        long start = System.nanoTime();
+        long count;
+        byte[] cells = new byte[GridGeometry.CELLS];
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.US_ASCII);
+             OutputStream out = Files.newOutputStream(Paths.get(archiveFile));
+             PuzzleArchive.Writer writer = new PuzzleArchive.Writer(out, blockSize)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Arrays.fill(cells, (byte) 0);
+                int length = Math.min(line.length(), GridGeometry.CELLS);
+                for (int i = 0; i < length; i++) {
+                    char ch = line.charAt(i);
+                    if (ch >= '1' && ch <= '9') cells[i] = (byte) (ch - '0');
+                }
+                writer.write(cells);
+            }
+            count = writer.size();
+        } catch (IOException e) {
+            view.display("Error: cannot pack " + file + " into " + archiveFile + ": " + e.getMessage());
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        try {
+            long textSize = Files.size(Paths.get(file));
+            long archiveSize = Files.size(Paths.get(archiveFile));
+            view.display(String.format("Packed %d puzzles into %d bytes (%.2f bytes per puzzle, %.1fx smaller) in %.3f ms.",
+                    count, archiveSize, count == 0 ? 0.0 : (double) archiveSize / count,
+                    archiveSize == 0 ? 0.0 : (double) textSize / archiveSize, elapsed / 1e6));
+        } catch (IOException e) {
+            view.display("Packed " + count + " puzzles.");
+        }
+    }
+
+    /**
+     * Converts a {@link PuzzleArchive} back into a puzzle file with one 81-character line per puzzle
+     * ({@code .} for empty cells), one block at a time.
+     *
+     * @param archiveFile The archive file name.
+     * @param file The puzzle file name.
+     */
+    private void unpackArchive(String archiveFile, String file) {
+        long start = System.nanoTime();
+        long count = 0;
+        byte[] cells = new byte[GridGeometry.CELLS];
+        try (InputStream in = Files.newInputStream(Paths.get(archiveFile));
+             PuzzleArchive.Reader reader = new PuzzleArchive.Reader(in);
+             BufferedWriter out = Files.newBufferedWriter(Paths.get(file), StandardCharsets.US_ASCII)) {
+            while (reader.next(cells)) {
+                out.write(formatLine(cells));
+                out.newLine();
+                count++;
+            }
+        } catch (IOException e) {
+            view.display("Error: cannot unpack " + archiveFile + " into " + file + ": " + e.getMessage());
+            return;
+        }
+        view.display(String.format("Unpacked %d puzzles in %.3f ms.", count, (System.nanoTime() - start) / 1e6));
+    }
+
+    /**
+     * Builds a {@link PuzzleLibrary} from a puzzle file. Every puzzle is rated by an uncached solver and
+     * puzzles without exactly one solution are skipped. Reports the number of puzzles per difficulty.
+     *
+     * @param file The puzzle file name, one 81-character puzzle per line.
+     * @param libraryFile The library file name; the index is written next to it.
+     */
+    private void buildLibrary(String file, String libraryFile) {
+        byte[] puzzles;
+        try {
+            puzzles = readBoards(file);
+        } catch (IOException e) {
+            view.display("Error: cannot read puzzles " + file + ": " + e.getMessage());
+            return;
+        }
+        int count = puzzles.length / GridGeometry.CELLS;
+        SudokuSolver solver = new SudokuSolver();
+        PuzzleLibrary.Builder builder = new PuzzleLibrary.Builder();
+        byte[] cells = new byte[GridGeometry.CELLS];
+        for (int p = 0; p < count; p++) {
+            System.arraycopy(puzzles, p * GridGeometry.CELLS, cells, 0, GridGeometry.CELLS);
+            SolveResult result = solver.solve(cells);
+            if (result.isUnique()) builder.add(cells, result.getRating());
+        }
+        try {
+            builder.write(Paths.get(libraryFile));
+            PuzzleLibrary library = PuzzleLibrary.open(Paths.get(libraryFile));
+            view.display(String.format("Library %s: %d of %d puzzles (%d easy, %d medium, %d hard).", libraryFile,
+                    library.size(), count, library.count(Difficulty.EASY), library.count(Difficulty.MEDIUM),
+                    library.count(Difficulty.HARD)));
+        } catch (IOException e) {
+            view.display("Error: cannot write library " + libraryFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Picks a random puzzle of a difficulty and clue range from a {@link PuzzleLibrary} and shows it
+     * as one line of 81 characters with its id, clue count and rating.
+     *
+     * @param libraryFile The library file name.
+     * @param level The difficulty.
+     * @param minClues The smallest clue count.
+     * @param maxClues The largest clue count.
+     */
+    private void pickFromLibrary(String libraryFile, Difficulty level, int minClues, int maxClues) {
+        PuzzleLibrary library;
+        try {
+            library = PuzzleLibrary.open(Paths.get(libraryFile));
+        } catch (IOException e) {
+            view.display("Error: cannot open library " + libraryFile + ": " + e.getMessage());
+            return;
+        }
+        int id = library.pick(level, minClues, maxClues, ThreadLocalRandom.current());
+        if (id < 0) {
+            view.display("No " + level.name().toLowerCase() + " puzzle with " + minClues + "-" + maxClues + " clues.");
+            return;
+        }
+        view.display(formatLine(library.get(id)));
+        view.display(String.format("Puzzle #%d: %s, %d clues, rating %d (%d matching).", id,
+                level.name().toLowerCase(), library.getClues(id), library.getRating(id),
+                library.count(level, minClues, maxClues)));
+    }
+
+    /**
+     * Validates all completed boards of a file with the {@link BulkValidator} and reports
+     * how many are correct, the line numbers of the first incorrect ones and the throughput.
+     * Every non-empty line is one board of 81 digits.
+     *
+     * @param file The file name.
+     */
+    private void validateBoards(String file) {
+        byte[] boards;
+        try {
+            boards = readBoards(file);
+        } catch (IOException e) {
+            view.display("Error: cannot read boards " + file + ": " + e.getMessage());
+            return;
+        }
+        int count = boards.length / GridGeometry.CELLS;
+        long start = System.nanoTime();
+        BitSet valid = BulkValidator.validate(boards, count);
+        long elapsed = System.nanoTime() - start;
+        int correct = valid.cardinality();
+        view.display(String.format("%d of %d boards are valid (%s, %.3f ms, %.0f boards/s).", correct, count,
+                BulkValidator.isVectorized() ? "vectorized" : "scalar", elapsed / 1e6,
+                elapsed == 0 ? 0.0 : count * 1e9 / elapsed));
+        int shown = 0;
+        for (int i = valid.nextClearBit(0); i < count && shown < 20; i = valid.nextClearBit(i + 1), shown++) {
+            view.display("Invalid board #" + (i + 1));
+        }
+    }
+
+    /**
+     * Solves all puzzles of a file with the {@link MultiPuzzleSolver} and reports the throughput
+     * and how many puzzles were finished by lane propagation alone. Solutions are optionally written
+     * to a file, one 81-digit line per puzzle ({@code "unsolvable"} if there is none).
+     *
+     * @param file The puzzle file name, one 81-character puzzle per line.
+     * @param outFile The solution file name, or {@code null}.
+     */
+    private void solveBatch(String file, String outFile) {
+        byte[] puzzles;
+        try {
+            puzzles = readBoards(file);
+        } catch (IOException e) {
+            view.display("Error: cannot read puzzles " + file + ": " + e.getMessage());
+            return;
+        }
+        int count = puzzles.length / GridGeometry.CELLS;
+        MultiPuzzleSolver solver = new MultiPuzzleSolver(SudokuSolver.shared());
+        long start = System.nanoTime();
+        SolveResult[] results = solver.solveAll(puzzles, count);
+        long elapsed = System.nanoTime() - start;
+        view.display(String.format("Solved %d puzzles in %.3f ms (%.0f puzzles/s, %s): %d by propagation, %d by search, %d unsolvable.",
+                count, elapsed / 1e6, elapsed == 0 ? 0.0 : count * 1e9 / elapsed,
+                MultiPuzzleSolver.isVectorized() ? "vectorized" : "scalar",
+                solver.getPropagatedCount(), solver.getSearchedCount(), solver.getContradictionCount()));
+        if (outFile == null) return;
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(outFile), StandardCharsets.US_ASCII)) {
+            char[] line = new char[GridGeometry.CELLS];
+            for (SolveResult result : results) {
+                if (!result.isSolved()) {
+                    out.write("unsolvable");
+                } else {
+                    byte[] solution = result.getSolution();
+                    for (int i = 0; i < GridGeometry.CELLS; i++) line[i] = (char) ('0' + solution[i]);
+                    out.write(line);
+                }
+                out.newLine();
+            }
+        } catch (IOException e) {
+            view.display("Error: cannot write solutions " + outFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a file of boards, one per non-empty line. Digits 1-9 are values; any other character
+     * (such as {@code 0} or {@code .}) is an empty cell. Short lines are padded with empty cells.
+     *
+     * @param file The file name.
+     * @return The packed boards, 81 bytes each.
+     * @throws IOException if the file cannot be read.
+     */
+    private static byte[] readBoards(String file) throws IOException {
+        byte[] boards = new byte[GridGeometry.CELLS * 1024];
+        int count = 0;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if ((count + 1) * GridGeometry.CELLS > boards.length) {
+                    boards = Arrays.copyOf(boards, boards.length * 2);
+                }
+                int base = count * GridGeometry.CELLS;
+                int length = Math.min(line.length(), GridGeometry.CELLS);
+                for (int i = 0; i < length; i++) {
+                    char ch = line.charAt(i);
+                    boards[base + i] = (byte) (ch >= '1' && ch <= '9' ? ch - '0' : 0);
+                }
+                count++;
+            }
+        }
+        return Arrays.copyOf(boards, count * GridGeometry.CELLS);
+    }
+
+    /**
+     * Counts all solutions of a puzzle on all processor cores with the {@link SolutionCounter}.
+     * With a checkpoint file the job writes its progress every 30 seconds and resumes from it after a restart.
+     *
+     * @param puzzle The puzzle as 81 characters (digits 1-9, anything else is empty).
+     * @param depth The split depth.
+     * @param checkpointFile The checkpoint file name, or {@code null}.
+     */
+    private void countSolutions(String puzzle, int depth, String checkpointFile) {
+        if (puzzle.length() != GridGeometry.CELLS) {
+            view.display("Error: a puzzle must have exactly 81 characters.");
+            return;
+        }
+        byte[] cells = parsePuzzle(puzzle);
+        SolutionCounter counter = new SolutionCounter(depth, Runtime.getRuntime().availableProcessors(),
+                checkpointFile == null ? null : Paths.get(checkpointFile), 30_000);
+        try {
+            view.display(counter.count(cells).toString());
+        } catch (IOException e) {
+            view.display("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.display("Counting interrupted; progress is kept in the checkpoint.");
+        }
+    }
+
+    /**
+     * Races the default solver portfolio on a puzzle and shows the winner, its result and time.
+     *
+     * @param puzzle The puzzle as 81 characters.
+     * @param deadlineMillis The deadline of the race in milliseconds.
+     */
+    private void raceStrategies(String puzzle, int deadlineMillis) {
+        if (puzzle.length() != GridGeometry.CELLS) {
+            view.display("Error: a puzzle must have exactly 81 characters.");
+            return;
+        }
+        PortfolioSolver portfolio = PortfolioSolver.withDefaultStrategies(Duration.ofMillis(deadlineMillis));
+        try {
+            PortfolioSolver.Outcome outcome = portfolio.solve(parsePuzzle(puzzle));
+            view.display(String.format("Winner: %s in %.3f ms, %s", outcome.getStrategy(),
+                    outcome.getElapsedNanos() / 1e6, outcome.getResult()));
+        } catch (TimeoutException e) {
+            view.display("No strategy finished within " + deadlineMillis + " ms.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.display("Race interrupted.");
+        }
+    }
+
+    /**
+     * Solves a puzzle of a Sudoku variant and shows the solution as one line of 81 digits.
+     * Jigsaw needs a region map, Killer a cage map and the cage sums separated by commas.
+     *
+     * @param parts The command and its arguments: type, puzzle, map, sums.
+     */
+    private void solveVariant(String[] parts) {
+        String puzzle = parts[2];
+        if (puzzle.length() != GridGeometry.CELLS) {
+            view.display("Error: a puzzle must have exactly 81 characters.");
+            return;
+        }
+        String map = parts.length > 3 ? parts[3] : null;
+        VariantRules rules;
+        try {
+            switch (parts[1].toLowerCase()) {
+                case "classic" -> rules = VariantRules.classic();
+                case "x" -> rules = VariantRules.diagonal();
+                case "windoku" -> rules = VariantRules.windoku();
+                case "jigsaw" -> rules = VariantRules.jigsaw(map);
+                case "killer" -> {
+                    if (parts.length < 5) {
+                        view.display("Error: killer needs a cage map and the cage sums.");
+                        return;
+                    }
+                    String[] items = parts[4].split(",");
+                    int[] sums = new int[items.length];
+                    for (int k = 0; k < items.length; k++) {
+                        Integer sum = view.tryParse(items[k]);
+                        if (sum == null) {
+                            view.display("Error: not a correct cage sum: " + items[k]);
+                            return;
+                        }
+                        sums[k] = sum;
+                    }
+                    rules = VariantRules.killer(map, sums);
+                }
+                default -> {
+                    view.display("Unknown variant. Use: classic, x, windoku, jigsaw, killer");
+                    return;
+                }
+            }
+        } catch (SudokuException e) {
+            view.display("Error: " + e.getMessage());
+            return;
+        }
+        SolveResult result = new VariantSolver(rules).solve(parsePuzzle(puzzle));
+        if (!result.isSolved()) {
+            view.display("The puzzle has no solution.");
+            return;
+        }
+        view.display(formatLine(result.getSolution()));
+        view.display(result.isUnique() ? "The solution is unique." : "The puzzle has more than one solution.");
+    }
+
+    /**
+     * Formats cells as one line of 81 characters, digits for values and {@code .} for empty cells.
+     *
+     * @param cells 81 cell values.
+     * @return The line.
+     */
+    private static String formatLine(byte[] cells) {
+        char[] line = new char[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            line[i] = cells[i] == 0 ? '.' : (char) ('0' + cells[i]);
+        }
+        return new String(line);
+    }
+
+    /**
+     * Converts an 81-character puzzle string into cells. Digits 1-9 are values, anything else is empty.
+     *
+     * @param puzzle The puzzle string of exactly 81 characters.
+     * @return The 81 cell values.
+     */
+    private static byte[] parsePuzzle(String puzzle) {
+        byte[] cells = new byte[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            char ch = puzzle.charAt(i);
+            cells[i] = (byte) (ch >= '1' && ch <= '9' ? ch - '0' : 0);
+        }
+        return cells;
+    }
+}
\ No newline at end of file
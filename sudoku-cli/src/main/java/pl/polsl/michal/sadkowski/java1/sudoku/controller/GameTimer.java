@@ -0,0 +1,112 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.GameTimer.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.GUIUpdater;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timer logic for the Sudoku game.
+ * Responsible only for counting time and updating the view through the {@link GUIUpdater} interface.
+ * The timer does not depend on Swing: all timers tick on one shared daemon thread, so the
+ * {@link GUIUpdater#setTimerText(String)} callback comes from that thread and a Swing view has to pass it on
+ * to the Event Dispatch Thread.
+ *
+ * @author Michał Sadkowski
+ * @version 1.2
+ */
+public class GameTimer {
+    /** The single thread that drives all game timers. */
+    private static final ScheduledExecutorService TICKER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "sudoku-game-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GUIUpdater gui;
+    private final AtomicInteger timeElapsed = new AtomicInteger();
+    /** The scheduled tick, or {@code null} when the timer is stopped. */
+    private ScheduledFuture<?> tick;
+
+    /**
+     * Initializes the timer service.
+     *
+     * @param gui The interface to communicate back to the view (to update the timer text).
+     */
+    public GameTimer(GUIUpdater gui) {
+        this.gui = gui;
+    }
+    
+    /**
+     * Handles the tick event every second. Increases the elapsed time and updates the timer display in the GUI.
+     */
+    private void handleTimerTick() {
+        int elapsed = timeElapsed.incrementAndGet();
+        int minutes = elapsed / 60;
+        int seconds = elapsed % 60;
+        gui.setTimerText(String.format("Czas: %02d:%02d", minutes, seconds));
+    }
+
+    /**
+     * Starts the timer if it is not already running. The first tick comes after one second.
+     */
+    public synchronized void start() {
+        if (tick == null) {
+            tick = TICKER.scheduleAtFixedRate(this::handleTimerTick, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops the timer if it is running.
+     */
+    public synchronized void stop() {
+        if (tick != null) {
+            tick.cancel(false);
+            tick = null;
+        }
+    }
+
+    /**
+     * Resets the time count to zero and updates the view with the initial time display.
+     */
+    public void reset() {
+        timeElapsed.set(0);
+        gui.setTimerText("Czas: 00:00");
+    }
+
+    /**
+     * Sets the time count, e.g. when a saved game is continued, and updates the view.
+     *
+     * @param seconds The elapsed seconds.
+     */
+    public void setElapsedSeconds(int seconds) {
+        timeElapsed.set(seconds);
+        gui.setTimerText(String.format("Czas: %02d:%02d", seconds / 60, seconds % 60));
+    }
+
+    /**
+     * Gets the elapsed time.
+     *
+     * @return The number of seconds counted since the last reset.
+     */
+    public int getElapsedSeconds() {
+        return timeElapsed.get();
+    }
+
+    /**
+     * Gets the current elapsed time in minutes and seconds as a formatted string (e.g., "05:30").
+     *
+     * @return The formatted time string.
+     */
+    public String getCurrentFormattedTime() {
+        int elapsed = timeElapsed.get();
+        int minutes = elapsed / 60;
+        int seconds = elapsed % 60;
+        return String.format("%02d:%02d", minutes, seconds);
+    }
+}
\ No newline at end of file
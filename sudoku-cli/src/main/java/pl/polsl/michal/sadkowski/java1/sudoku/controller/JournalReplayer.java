@@ -0,0 +1,254 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.JournalReplayer.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.SudokuGame;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Headless replayer of a {@link MoveJournal}.
+ * The whole journal is decoded into flat arrays first, then the calls are executed against a fresh
+ * {@link SudokuGUIController} with a {@link NoOpGUIUpdater} as fast as possible, ignoring the recorded pauses.
+ * Every call is timed, so a recorded player session becomes a repeatable load and regression workload.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (grid paste)
+ */
+public class JournalReplayer {
+    /** Names of the operation codes, indexed by code. */
+    private static final String[] OP_NAMES = {"?", "input", "clear", "undo", "newGame", "restart", "save", "restore", "paste",
+            "load"};
+    /** Shared digit strings, so replaying does not allocate. */
+    private static final String[] DIGITS = {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
+
+    private final byte[] ops;
+    private final byte[] cells;
+    private final byte[] values;
+    private final String[] texts;
+    private final int count;
+    private final long recordedNanos;
+
+    /**
+     * Result of a replay: throughput and latency statistics per operation type.
+     */
+    public static class Report {
+        private final int operations;
+        private final long elapsedNanos;
+        private final long recordedNanos;
+        private final long[][] latencies;
+
+        /**
+         * Creates a report.
+         *
+         * @param operations The number of replayed calls.
+         * @param elapsedNanos The total replay time.
+         * @param recordedNanos The duration of the original session.
+         * @param latencies Sorted call latencies in nanoseconds, indexed by operation code.
+         */
+        Report(int operations, long elapsedNanos, long recordedNanos, long[][] latencies) {
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+            this.recordedNanos = recordedNanos;
+            this.latencies = latencies;
+        }
+
+        /**
+         * Gets the replay throughput.
+         *
+         * @return Replayed calls per second.
+         */
+        public double getOpsPerSecond() {
+            return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Gets a latency percentile of one operation type.
+         *
+         * @param op The operation code (see {@link MoveJournal}).
+         * @param percentile The percentile (0-100).
+         * @return The latency in nanoseconds, or 0 if the operation never occurred.
+         */
+        public long getLatency(byte op, double percentile) {
+            long[] sorted = latencies[op];
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        /**
+         * Formats the report as a table with one line per operation type.
+         *
+         * @return The report text.
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Replayed %d calls in %.3f ms (%.0f ops/s); recorded session took %.1f s%n",
+                    operations, elapsedNanos / 1e6, getOpsPerSecond(), recordedNanos / 1e9));
+            sb.append(String.format("%-8s %9s %10s %10s %10s %10s%n", "op", "count", "mean ns", "p50 ns", "p99 ns", "max ns"));
+            for (byte op = 1; op < OP_NAMES.length; op++) {
+                long[] sorted = latencies[op];
+                if (sorted.length == 0) continue;
+                long sum = 0;
+                for (long l : sorted) sum += l;
+                sb.append(String.format("%-8s %9d %10d %10d %10d %10d%n", OP_NAMES[op], sorted.length,
+                        sum / sorted.length, getLatency(op, 50), getLatency(op, 99), sorted[sorted.length - 1]));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Decodes a journal into memory.
+     *
+     * @param stream The journal data.
+     * @throws IOException if the data cannot be read or is not a journal.
+     */
+    public JournalReplayer(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        if (in.readInt() != MoveJournal.MAGIC) {
+            throw new IOException("Not a move journal.");
+        }
+        int version = in.readUnsignedShort();
+        if (version != MoveJournal.VERSION) {
+            throw new IOException("Unsupported journal version " + version + ".");
+        }
+        in.readLong(); // start time, informational only
+
+        byte[] o = new byte[1024], c = new byte[1024], v = new byte[1024];
+        String[] d = new String[1024];
+        int n = 0;
+        long total = 0;
+        while (true) {
+            int op = in.read();
+            if (op < 0) break;
+            if (n == o.length) {
+                o = Arrays.copyOf(o, n * 2);
+                c = Arrays.copyOf(c, n * 2);
+                v = Arrays.copyOf(v, n * 2);
+                d = Arrays.copyOf(d, n * 2);
+            }
+            if (op < 1 || op >= OP_NAMES.length) {
+                throw new IOException("Corrupt journal: unknown operation " + op + " in record " + n + ".");
+            }
+            o[n] = (byte) op;
+            c[n] = in.readByte();
+            v[n] = in.readByte();
+            total += readVarLong(in);
+            if (MoveJournal.hasText(op)) d[n] = in.readUTF();
+            n++;
+        }
+        this.ops = o;
+        this.cells = c;
+        this.values = v;
+        this.texts = d;
+        this.count = n;
+        this.recordedNanos = total;
+    }
+
+    /**
+     * Gets the number of recorded calls.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Replays the journal against a new headless controller.
+     *
+     * @return Throughput and latency statistics.
+     */
+    public Report replay() {
+        SudokuGUIController controller = new SudokuGUIController(new SudokuGame("replay"), new NoOpGUIUpdater());
+        long[] latency = new long[count];
+        int[] perOp = new int[OP_NAMES.length];
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < count; i++) {
+                long t0 = System.nanoTime();
+                execute(controller, i);
+                latency[i] = System.nanoTime() - t0;
+                perOp[ops[i]]++;
+            }
+        } finally {
+            controller.dispose();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[][] byOp = new long[OP_NAMES.length][];
+        int[] fill = new int[OP_NAMES.length];
+        for (int op = 0; op < OP_NAMES.length; op++) byOp[op] = new long[perOp[op]];
+        for (int i = 0; i < count; i++) byOp[ops[i]][fill[ops[i]]++] = latency[i];
+        for (long[] l : byOp) Arrays.sort(l);
+        return new Report(count, elapsed, recordedNanos, byOp);
+    }
+
+    /**
+     * Executes one recorded call.
+     *
+     * @param controller The controller under test.
+     * @param i The record index.
+     */
+    private void execute(SudokuGUIController controller, int i) {
+        int cell = cells[i] & 0xFF;
+        int row = cell == MoveJournal.NO_CELL ? -1 : cell / 9;
+        int col = cell == MoveJournal.NO_CELL ? -1 : cell % 9;
+        switch (ops[i]) {
+            case MoveJournal.OP_INPUT:
+                controller.handleCellInput(row, col, values[i] == MoveJournal.INVALID_VALUE ? "" : DIGITS[values[i]]);
+                break;
+            case MoveJournal.OP_CLEAR:
+                controller.clearSelectedCell(row, col);
+                break;
+            case MoveJournal.OP_UNDO:
+                controller.undoLastMove();
+                break;
+            case MoveJournal.OP_NEW_GAME:
+                controller.startNewGame(texts[i]);
+                break;
+            case MoveJournal.OP_RESTART:
+                controller.restartGame();
+                break;
+            case MoveJournal.OP_SAVE_CHECKPOINT:
+                controller.saveCheckpoint(texts[i]);
+                break;
+            case MoveJournal.OP_RESTORE_CHECKPOINT:
+                controller.restoreCheckpoint(texts[i]);
+                break;
+            case MoveJournal.OP_PASTE:
+                controller.pasteBoard(texts[i]);
+                break;
+            case MoveJournal.OP_LOAD:
+                controller.loadGame(texts[i]);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Reads a number written by {@link MoveJournal}.
+     *
+     * @param in The input.
+     * @return The number.
+     * @throws IOException if the data ends early.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("Truncated journal record.");
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Corrupt journal: number too long.");
+    }
+}
@@ -0,0 +1,223 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.MoveJournal.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Recorder of every state-changing call made on a {@link SudokuGUIController}.
+ * <p>
+ * The journal is a compact binary log: a header ({@link #MAGIC}, {@link #VERSION}, start time in epoch
+ * milliseconds) followed by one record per call: operation code, cell index (row * 9 + col),
+ * value, and the time since the previous record in nanoseconds as a variable-length number.
+ * A new-game record additionally carries the difficulty name, a checkpoint record the checkpoint name,
+ * a paste record the pasted grid as 81 characters and a load record the givens and the board as 81 characters
+ * each (see {@link #hasText(int)}). A new game is followed by a load record of the puzzle it drew, so a replay
+ * starts from the same givens. Typical records take 4-7 bytes.
+ * <p>
+ * Recording never interrupts the game: the first I/O error stops the recorder and is kept in {@link #getError()}.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (grid paste)
+ */
+public class MoveJournal implements Closeable {
+    /** File signature ("SJRN"). */
+    public static final int MAGIC = 0x534A524E;
+    /** Format version. */
+    public static final int VERSION = 1;
+
+    /** Operation code: digit entered ({@code handleCellInput}). */
+    public static final byte OP_INPUT = 1;
+    /** Operation code: cell cleared ({@code clearSelectedCell}). */
+    public static final byte OP_CLEAR = 2;
+    /** Operation code: last move undone ({@code undoLastMove}). */
+    public static final byte OP_UNDO = 3;
+    /** Operation code: new game started ({@code startNewGame}). */
+    public static final byte OP_NEW_GAME = 4;
+    /** Operation code: game restarted ({@code restartGame}). */
+    public static final byte OP_RESTART = 5;
+    /** Operation code: named checkpoint saved ({@code saveCheckpoint}). */
+    public static final byte OP_SAVE_CHECKPOINT = 6;
+    /** Operation code: named checkpoint restored ({@code restoreCheckpoint}). */
+    public static final byte OP_RESTORE_CHECKPOINT = 7;
+    /** Operation code: whole grid pasted ({@code pasteBoard}). */
+    public static final byte OP_PASTE = 8;
+    /** Operation code: puzzle and position loaded ({@code loadGame}). */
+    public static final byte OP_LOAD = 9;
+    /** Cell index stored when the controller was called without a valid cell. */
+    public static final int NO_CELL = 0xFF;
+    /** Value stored for an input that is not a single digit. */
+    public static final byte INVALID_VALUE = -1;
+
+    private final DataOutputStream out;
+    private long lastNanos;
+    private IOException error;
+
+    /**
+     * Creates a journal writing to the given stream and writes the header.
+     *
+     * @param stream The destination of the journal. It is buffered internally.
+     * @throws IOException if the header cannot be written.
+     */
+    public MoveJournal(OutputStream stream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        this.lastNanos = System.nanoTime();
+    }
+
+    /**
+     * Records a digit input.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     * @param value The value passed to the controller.
+     */
+    public void recordInput(int row, int col, String value) {
+        byte v = value.length() == 1 && value.charAt(0) >= '0' && value.charAt(0) <= '9'
+                ? (byte) (value.charAt(0) - '0') : INVALID_VALUE;
+        record(OP_INPUT, row, col, v, null);
+    }
+
+    /**
+     * Records clearing a cell.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     */
+    public void recordClear(int row, int col) {
+        record(OP_CLEAR, row, col, (byte) 0, null);
+    }
+
+    /**
+     * Records an undo.
+     */
+    public void recordUndo() {
+        record(OP_UNDO, 0, 0, (byte) 0, null);
+    }
+
+    /**
+     * Records a restart of the game.
+     */
+    public void recordRestart() {
+        record(OP_RESTART, 0, 0, (byte) 0, null);
+    }
+
+    /**
+     * Records the start of a new game.
+     *
+     * @param difficulty The selected difficulty.
+     */
+    public void recordNewGame(String difficulty) {
+        record(OP_NEW_GAME, 0, 0, (byte) 0, difficulty);
+    }
+
+    /**
+     * Records saving a named checkpoint.
+     *
+     * @param name The checkpoint name.
+     */
+    public void recordSaveCheckpoint(String name) {
+        record(OP_SAVE_CHECKPOINT, 0, 0, (byte) 0, name);
+    }
+
+    /**
+     * Records restoring a named checkpoint.
+     *
+     * @param name The checkpoint name.
+     */
+    public void recordRestoreCheckpoint(String name) {
+        record(OP_RESTORE_CHECKPOINT, 0, 0, (byte) 0, name);
+    }
+
+    /**
+     * Records pasting a whole grid.
+     *
+     * @param grid The pasted grid as 81 characters.
+     */
+    public void recordPaste(String grid) {
+        record(OP_PASTE, 0, 0, (byte) 0, grid);
+    }
+
+    /**
+     * Records loading a puzzle and a position.
+     *
+     * @param grids The givens as 81 characters followed by the board as 81 characters.
+     */
+    public void recordLoad(String grids) {
+        record(OP_LOAD, 0, 0, (byte) 0, grids);
+    }
+
+    /**
+     * Tells whether records of an operation end with a text (difficulty, checkpoint name or grids).
+     *
+     * @param op The operation code.
+     * @return {@code true} for new-game, checkpoint, paste and load records.
+     */
+    public static boolean hasText(int op) {
+        return op == OP_NEW_GAME || op == OP_SAVE_CHECKPOINT || op == OP_RESTORE_CHECKPOINT || op == OP_PASTE
+                || op == OP_LOAD;
+    }
+
+    /**
+     * Gets the error that stopped the recorder.
+     *
+     * @return The I/O error, or {@code null} if recording works.
+     */
+    public synchronized IOException getError() {
+        return error;
+    }
+
+    /**
+     * Flushes and closes the journal.
+     *
+     * @throws IOException if the remaining data cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes one record.
+     *
+     * @param op The operation code.
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     * @param value The value byte.
+     * @param text The text of operations that carry one, otherwise {@code null}.
+     */
+    private synchronized void record(byte op, int row, int col, byte value, String text) {
+        if (error != null) return;
+        long now = System.nanoTime();
+        try {
+            out.writeByte(op);
+            out.writeByte(row >= 0 && row < 9 && col >= 0 && col < 9 ? row * 9 + col : NO_CELL);
+            out.writeByte(value);
+            writeVarLong(now - lastNanos);
+            if (text != null) out.writeUTF(text);
+        } catch (IOException e) {
+            error = e;
+        }
+        lastNanos = now;
+    }
+
+    /**
+     * Writes a non-negative number in 7-bit groups, low bits first.
+     *
+     * @param value The number.
+     * @throws IOException if writing fails.
+     */
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,77 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.NoOpGUIUpdater.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+/**
+ * {@link SudokuGUIController.GUIUpdater} that ignores every callback.
+ * Used to drive a controller headlessly, e.g. when replaying a journal or measuring throughput.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public class NoOpGUIUpdater implements SudokuGUIController.GUIUpdater {
+
+    /**
+     * Ignores the timer text.
+     *
+     * @param text The new timer text.
+     */
+    @Override
+    public void setTimerText(String text) {
+    }
+
+    /**
+     * Ignores the cell value.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     * @param value The text value.
+     */
+    @Override
+    public void setCellValue(int row, int col, String value) {
+    }
+
+    /**
+     * Ignores the selection change.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     */
+    @Override
+    public void updateCellBorder(int row, int col) {
+    }
+
+    /**
+     * Ignores the board reset.
+     */
+    @Override
+    public void clearBoardGUI() {
+    }
+
+    /**
+     * Ignores the win message.
+     *
+     * @param time The formatted game time.
+     */
+    @Override
+    public void showWinMessage(String time) {
+    }
+
+    /**
+     * Ignores the information message.
+     *
+     * @param message The message.
+     */
+    @Override
+    public void showInfoMessage(String message) {
+    }
+
+    /**
+     * Ignores the error message.
+     *
+     * @param message The message.
+     */
+    @Override
+    public void showErrorMessage(String message) {
+    }
+}
@@ -0,0 +1,196 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.ScriptReader.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Fast line and token reader for command scripts.
+ * Characters are read in large blocks into one reusable buffer and every line is split into
+ * whitespace-separated tokens by plain index arithmetic - no regular expressions, no {@code String}
+ * per line and no {@code String} per token unless the caller asks for one.
+ * Empty lines and lines starting with {@code #} are skipped.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+final class ScriptReader {
+    /** Maximum number of tokens kept per line; further tokens are ignored. */
+    private static final int MAX_TOKENS = 8;
+    /** Value returned by {@link #intToken(int)} when the token is not a number. */
+    static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+    private final Reader in;
+    private char[] buf = new char[1 << 16];
+    private int limit;
+    private int next;
+    private boolean eof;
+    private long lineNumber;
+
+    private final int[] tokenStart = new int[MAX_TOKENS];
+    private final int[] tokenEnd = new int[MAX_TOKENS];
+    private int tokens;
+
+    /**
+     * Creates a reader over a character stream.
+     *
+     * @param in The script source. It is read in blocks, so it does not need to be buffered.
+     */
+    ScriptReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Advances to the next non-empty, non-comment line and splits it into tokens.
+     *
+     * @return {@code false} at the end of the script.
+     * @throws IOException if reading the script fails.
+     */
+    boolean nextLine() throws IOException {
+        while (true) {
+            int end = findLineEnd();
+            if (end < 0) return false;
+            int start = next;
+            next = end + 1;
+            lineNumber++;
+            tokenize(start, end);
+            if (tokens > 0 && buf[tokenStart[0]] != '#') return true;
+        }
+    }
+
+    /**
+     * Gets the number of tokens on the current line.
+     *
+     * @return The token count (at most 8).
+     */
+    int tokenCount() {
+        return tokens;
+    }
+
+    /**
+     * Gets the 1-based number of the current line in the script.
+     *
+     * @return The line number.
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Checks, ignoring case, whether a token equals a given word.
+     *
+     * @param index The token index.
+     * @param word The lower-case word to compare with.
+     * @return {@code true} if the token matches.
+     */
+    boolean tokenIs(int index, String word) {
+        int start = tokenStart[index];
+        int length = tokenEnd[index] - start;
+        if (length != word.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(buf[start + i]) != word.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses a token as a non-negative decimal number.
+     *
+     * @param index The token index.
+     * @return The number, or {@link #NOT_A_NUMBER} if the token is missing, not a number or too long.
+     */
+    int intToken(int index) {
+        if (index >= tokens) return NOT_A_NUMBER;
+        int start = tokenStart[index];
+        int end = tokenEnd[index];
+        if (end - start > 9) return NOT_A_NUMBER;
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) return NOT_A_NUMBER;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Creates a string from a token, for arguments such as file names.
+     *
+     * @param index The token index.
+     * @return The token text.
+     */
+    String token(int index) {
+        return new String(buf, tokenStart[index], tokenEnd[index] - tokenStart[index]);
+    }
+
+    /**
+     * Finds the end of the next line, refilling the buffer as needed.
+     * The last line of the script does not need a terminating newline.
+     *
+     * @return The index of the line terminator (or of the end of data), or -1 if no data is left.
+     * @throws IOException if reading fails.
+     */
+    private int findLineEnd() throws IOException {
+        int scan = next;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                if (buf[i] == '\n') return i;
+            }
+            if (eof) {
+                if (next >= limit) return -1;
+                // Pretend there is a newline after the last line.
+                if (limit == buf.length) grow();
+                buf[limit] = '\n';
+                return limit++;
+            }
+            scan = limit - next;
+            fill();
+        }
+    }
+
+    /**
+     * Moves the unread part of the buffer to the front and reads more characters.
+     *
+     * @throws IOException if reading fails.
+     */
+    private void fill() throws IOException {
+        int remaining = limit - next;
+        if (next > 0) {
+            System.arraycopy(buf, next, buf, 0, remaining);
+            next = 0;
+            limit = remaining;
+        }
+        if (limit == buf.length) grow();
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) eof = true;
+        else limit += n;
+    }
+
+    /**
+     * Doubles the buffer when a single line does not fit.
+     */
+    private void grow() {
+        char[] bigger = new char[buf.length * 2];
+        System.arraycopy(buf, 0, bigger, 0, limit);
+        buf = bigger;
+    }
+
+    /**
+     * Splits the characters of one line into tokens separated by whitespace or control characters.
+     *
+     * @param start The index of the first character of the line.
+     * @param end The index of the line terminator.
+     */
+    private void tokenize(int start, int end) {
+        tokens = 0;
+        int i = start;
+        while (i < end && tokens < MAX_TOKENS) {
+            while (i < end && buf[i] <= ' ') i++;
+            if (i >= end) break;
+            tokenStart[tokens] = i;
+            while (i < end && buf[i] > ' ') i++;
+            tokenEnd[tokens++] = i;
+        }
+    }
+}
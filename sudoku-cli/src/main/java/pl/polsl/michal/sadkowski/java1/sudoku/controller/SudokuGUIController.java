@@ -0,0 +1,969 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.BoardVersion;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.ConflictTracker;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.Difficulty;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.SudokuGame;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.User;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.LogicSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.Solvability;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.LeaderboardStore;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleImporter;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleLibrary;
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.InvalidInputException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Controller class for the Sudoku GUI application.
+ * Manages game flow, user input, model updates, and view synchronization.
+ * It follows the Model-View-Controller (MVC) pattern.
+ * The current position is also kept as a persistent {@link BoardVersion}, so named checkpoints are saved
+ * in O(1) and restored by updating only the cells that differ. A {@link ConflictTracker} follows every edit,
+ * so cells that repeat a digit in their row, column or box are reported to the view after each keystroke.
+ * With a {@link PuzzleLibrary} attached, a new game starts from a random library puzzle of the selected difficulty.
+ * With the dead-end check on, every change of the board is followed by a bounded solvability check on a
+ * background thread, so a wrong entry is reported long before the board is full.
+ * A whole puzzle can be pasted from text in any format read by {@link PuzzleImporter}; the paste loads it as the
+ * new puzzle in one compound move, undone in one step, and the view receives all changed cells as one batch.
+ *
+ * @author Michał Sadkowski
+ * @version 1.8 (grid paste)
+ */
+public class SudokuGUIController {
+    /** Node budget of a dead-end check; typical positions need one node, hard ones stay within a frame. */
+    private static final long DEAD_END_NODE_LIMIT = 2_000;
+    /** The search used by dead-end checks; it is thread-safe. */
+    private static final LogicSolver DEAD_END_SOLVER = new LogicSolver();
+
+    private final SudokuGame game;
+    private final GUIUpdater gui;
+    private final GameTimer gameTimer; 
+
+    private final Stack<Move> moveHistory;
+    /** Optional recorder of all state-changing calls, or {@code null}. */
+    private MoveJournal journal;
+    /** Optional store of finished games, or {@code null}. */
+    private LeaderboardStore leaderboard;
+    /** Optional source of new puzzles, or {@code null}. */
+    private PuzzleLibrary library;
+    /** The difficulty of the current game (empty before the first new game). */
+    private String difficulty = "";
+    /** Whether the current game was won; a won game is not kept as a game in progress. */
+    private boolean finished;
+    /** The current position as a persistent version, kept in step with the board. */
+    private BoardVersion version;
+    /** Named checkpoints of the current game, in the order they were saved. */
+    private final Map<String, BoardVersion> checkpoints = new LinkedHashMap<>();
+    /** Buffer for the cells changed by a restore. */
+    private final int[] changedCells = new int[GridGeometry.CELLS];
+    /** Buffer for the values of the board after a restore. */
+    private final byte[] changedValues = new byte[GridGeometry.CELLS];
+    /** The cells that break a Sudoku rule, updated incrementally. */
+    private final ConflictTracker conflicts = new ConflictTracker();
+    /** Runs dead-end checks, or {@code null} if the check is off. */
+    private ExecutorService deadEndChecker;
+    /** The newest board waiting for a dead-end check, or {@code null}. */
+    private final AtomicReference<byte[]> pendingCheck = new AtomicReference<>();
+
+    /**
+     * Represents a single move made by the user, storing the cell coordinates and its previous value for undo functionality.
+     * A compound move, such as a pasted puzzle, stores the whole previous position and puzzle instead.
+     */
+    public static class Move {
+        final int row; 
+        final int col;
+        final String previousValue;
+        /** The position before a compound move, or {@code null} for a move of one cell. */
+        final BoardVersion previousVersion;
+        /** The givens before a compound move, or {@code null}. */
+        final byte[] previousGivens;
+        /** Whether the game was won before a compound move. */
+        final boolean previousFinished;
+        /** The difficulty before a compound move, or {@code null}. */
+        final String previousDifficulty;
+        /** The timer reading before a compound move, in seconds. */
+        final int previousSeconds;
+
+        /**
+         * Creates a new Move instance.
+         *
+         * @param row The 0-based row index (0-8).
+         * @param col The 0-based column index (0-8).
+         * @param previousValue The value in the cell before the move (empty string for 0).
+         */
+        Move(int row, int col, String previousValue) {
+            this.row = row;
+            this.col = col;
+            this.previousValue = previousValue;
+            this.previousVersion = null;
+            this.previousGivens = null;
+            this.previousFinished = false;
+            this.previousDifficulty = null;
+            this.previousSeconds = 0;
+        }
+
+        /**
+         * Creates a compound move that replaces the puzzle and changes many cells at once.
+         *
+         * @param previousVersion The position before the move.
+         * @param previousGivens The givens before the move.
+         * @param previousFinished Whether the game was won before the move.
+         * @param previousDifficulty The difficulty before the move.
+         * @param previousSeconds The timer reading before the move, in seconds.
+         */
+        Move(BoardVersion previousVersion, byte[] previousGivens, boolean previousFinished, String previousDifficulty,
+                int previousSeconds) {
+            this.row = -1;
+            this.col = -1;
+            this.previousValue = "";
+            this.previousVersion = previousVersion;
+            this.previousGivens = previousGivens;
+            this.previousFinished = previousFinished;
+            this.previousDifficulty = previousDifficulty;
+            this.previousSeconds = previousSeconds;
+        }
+    }
+
+    /** * Interface for callback communication with the View (Observer pattern implementation).
+     * This decouples the Controller from the concrete View implementation (like SudokuGUI).
+     */
+    public interface GUIUpdater {
+        /**
+         * Sets the text displayed by the timer.
+         * @param text The new text for the timer display.
+         */
+        void setTimerText(String text);
+        
+        /**
+         * Sets the value in a specific cell of the Sudoku board display.
+         * @param row The 0-based row index (0-8).
+         * @param col The 0-based column index (0-8).
+         * @param value The value to set (empty string for empty cell).
+         */
+        void setCellValue(int row, int col, String value);
+        
+        /**
+         * Updates the visual border/selection state of a specific cell.
+         * @param row The 0-based row index (0-8).
+         * @param col The 0-based column index (0-8).
+         */
+        void updateCellBorder(int row, int col);
+        
+        /** Clears the entire GUI representation of the board. */
+        void clearBoardGUI();
+        
+        /**
+         * Shows a message congratulating the user on winning the game.
+         * @param time The total time taken to complete the Sudoku board.
+         */
+        void showWinMessage(String time);
+        
+        /**
+         * Shows a general informational message to the user.
+         * @param message The message to display.
+         */
+        void showInfoMessage(String message);
+        
+        /**
+         * Shows an error message to the user.
+         * @param message The error message to display.
+         */
+        void showErrorMessage(String message);
+
+        /**
+         * Shows which cells repeat a digit in their row, column or box. Called only when the set changes.
+         * The default implementation ignores the information.
+         * @param conflicts The conflicted cells as flat indices (row * 9 + col); the set is owned by the
+         *                  controller and must be copied if it is kept.
+         */
+        default void showConflicts(BitSet conflicts) {
+        }
+
+        /**
+         * Shows whether the board can still be completed. Called from a background thread after changes of the
+         * board while the dead-end check is on; only the newest result is reported when the board changes faster
+         * than it is checked. The default implementation ignores the information.
+         * @param state {@link Solvability#DEAD_END} if some entry is wrong, {@link Solvability#UNKNOWN} if the check
+         *              ran out of budget.
+         */
+        default void showSolvability(Solvability state) {
+        }
+
+        /**
+         * Shows new values of several cells at once, e.g. after a checkpoint was restored. A view can apply
+         * them in one pass with a single repaint; the default implementation calls
+         * {@link #setCellValue(int, int, String)} for every cell.
+         * @param cells The flat indices (row * 9 + col) of the changed cells.
+         * @param count The number of entries of {@code cells} to use.
+         * @param values The values of the whole board in row-major order (0 = empty); only the listed cells are read.
+         *               Both arrays are reused by the controller and must be copied by a view that applies them later.
+         */
+        default void applyBoardDiff(int[] cells, int count, byte[] values) {
+            for (int i = 0; i < count; i++) {
+                int cell = cells[i];
+                int value = values[cell];
+                setCellValue(GridGeometry.ROW_OF[cell], GridGeometry.COL_OF[cell], value == 0 ? "" : String.valueOf(value));
+            }
+        }
+    }
+
+    /**
+     * Creates a new Sudoku GUI Controller instance.
+     *
+     * @param game The Sudoku game model.
+     * @param gui The GUI updater interface for view communication.
+     */
+    public SudokuGUIController(SudokuGame game, GUIUpdater gui) {
+        this.game = game;
+        this.gui = gui;
+        this.moveHistory = new Stack<>();
+        this.version = BoardVersion.of(game.getBoard());
+        this.conflicts.reset(game.getBoard().snapshot());
+        
+        this.gameTimer = new GameTimer(gui); 
+        this.gameTimer.start();
+    }
+
+    /**
+     * Attaches a journal that records every state-changing call of this controller.
+     *
+     * @param journal The recorder, or {@code null} to stop recording.
+     */
+    public void setJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Attaches a leaderboard; every won game is recorded there with the puzzle, difficulty, player and time.
+     *
+     * @param leaderboard The store, or {@code null} to stop recording results.
+     */
+    public void setLeaderboard(LeaderboardStore leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Attaches a puzzle library; every new game then starts from a random puzzle of the selected difficulty.
+     *
+     * @param library The library, or {@code null} to start new games on an empty board.
+     */
+    public void setPuzzleLibrary(PuzzleLibrary library) {
+        this.library = library;
+    }
+
+    /**
+     * Turns the dead-end check on or off. While it is on, every change of the board is checked on a background
+     * thread by propagation and, if needed, a search limited to {@value #DEAD_END_NODE_LIMIT} nodes, and the result
+     * is reported through {@link GUIUpdater#showSolvability(Solvability)}. The calling thread never waits.
+     *
+     * @param enabled {@code true} to check the board after every change.
+     */
+    public void setDeadEndCheck(boolean enabled) {
+        if (enabled == (deadEndChecker != null)) return;
+        if (enabled) {
+            deadEndChecker = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "dead-end-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduleDeadEndCheck();
+        } else {
+            deadEndChecker.shutdownNow();
+            deadEndChecker = null;
+            pendingCheck.set(null);
+        }
+    }
+
+    /**
+     * Stops the game timer and the dead-end check. Used when a controller is discarded, e.g. after a headless replay.
+     */
+    public void dispose() {
+        gameTimer.stop();
+        setDeadEndCheck(false);
+    }
+    
+    /**
+     * Handles user input (a digit or clearing the cell) for a specific cell.
+     * Updates the model and view, and checks for a win condition.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     * @param value The string value to input (a digit "1"-"9" or an empty string for 0).
+     */
+    public void handleCellInput(int row, int col, String value) {
+        if (journal != null) journal.recordInput(row, col, value);
+        String previousValue = getBoardCell(row, col);
+        if (isGivenCell(row, col)) {
+            gui.showErrorMessage("Nie można zmienić pola podanego w łamigłówce.");
+            gui.setCellValue(row, col, previousValue);
+            return;
+        }
+        
+        // Zmieniona logika: akceptuje tylko cyfry 1-9
+        if (value.length() == 1 && value.charAt(0) >= '1' && value.charAt(0) <= '9') {
+            if (!previousValue.equals(value)) {
+                recordMove(row, col, previousValue, value);
+            }
+            
+            try {
+                int modelValue = value.charAt(0) - '0';
+                game.getBoard().setCell(row, col, modelValue);
+                trackCell(GridGeometry.index(row, col), modelValue);
+            } catch (SudokuException e) {
+                gui.showErrorMessage("Błąd Sudoku: " + e.getMessage());
+                gui.setCellValue(row, col, previousValue); 
+                return;
+            }
+            
+            gui.setCellValue(row, col, value);
+            
+            checkWinCondition();
+        } else {
+            // W przypadku niepoprawnej wartości (np. "0"), przywróć poprzedni stan wizualny
+            gui.setCellValue(row, col, previousValue);
+        }
+    }
+    
+    /**
+     * Clears the currently selected cell.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     */
+    public void clearSelectedCell(int row, int col) {
+        if (journal != null) journal.recordClear(row, col);
+        String previousValue = getBoardCell(row, col);
+        if (isGivenCell(row, col)) {
+            gui.showErrorMessage("Nie można wyczyścić pola podanego w łamigłówce.");
+            return;
+        }
+        
+        if (!previousValue.isEmpty()) {
+            recordMove(row, col, previousValue, "");
+            
+            try {
+                game.getBoard().setCell(row, col, 0); // 0 oznacza puste pole
+                trackCell(GridGeometry.index(row, col), 0);
+            } catch (SudokuException e) {
+                gui.showErrorMessage("Błąd Sudoku podczas czyszczenia pola: " + e.getMessage());
+                gui.setCellValue(row, col, previousValue); 
+                return;
+            }
+            
+            gui.setCellValue(row, col, "");
+            checkWinCondition();
+        }
+    }
+    
+    /**
+     * Handles validation errors reported by the View (e.g., when the user enters a non-digit character).
+     * This acts as the exception handler for the View's input.
+     *
+     * @param errorMessage The detailed message about the validation error.
+     */
+    public void handleInputValidationError(String errorMessage) {
+        gui.showErrorMessage(errorMessage);
+    }
+    
+    /**
+     * Handles a click or focus event on a cell, updating the visual border/selection.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     */
+    public void handleCellClick(int row, int col) {
+         gui.updateCellBorder(row, col);
+    }
+    
+    /**
+     * Undoes the last recorded move by restoring the previous cell value in the model and view.
+     * A compound move restores the previous puzzle, its timer and the whole previous position in one batch.
+     */
+    public void undoLastMove() {
+       if (journal != null) journal.recordUndo();
+       if (!moveHistory.isEmpty()) {
+            Move lastMove = moveHistory.pop();
+            if (lastMove.previousVersion != null) {
+                try {
+                    game.loadPuzzle(lastMove.previousGivens);
+                } catch (SudokuException e) {
+                    gui.showErrorMessage("Błąd podczas cofania ruchu: " + e.getMessage());
+                    return;
+                }
+                finished = lastMove.previousFinished;
+                difficulty = lastMove.previousDifficulty;
+                restartTimer(lastMove.previousSeconds);
+                moveTo(lastMove.previousVersion);
+                checkWinCondition();
+                return;
+            }
+            
+            try {
+                 int modelValue = lastMove.previousValue.isEmpty() ? 0 : Integer.parseInt(lastMove.previousValue);
+                 game.getBoard().setCell(lastMove.row, lastMove.col, modelValue); 
+                 trackCell(GridGeometry.index(lastMove.row, lastMove.col), modelValue);
+            } catch (SudokuException e) {
+                 gui.showErrorMessage("Błąd podczas cofania ruchu: " + e.getMessage());
+                 return;
+            }
+            
+            gui.setCellValue(lastMove.row, lastMove.col, lastMove.previousValue);
+            checkWinCondition();
+        }
+    }
+    
+    /**
+     * Restarts the current game: the board goes back to the givens of the puzzle, the move history and checkpoints
+     * are cleared, the timer is stopped and reset, and the view shows the givens again.
+     */
+    public void restartGame() {
+        if (journal != null) journal.recordRestart();
+        try {
+            game.getBoard().loadFrom(game.getGivens());
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Nie można przywrócić łamigłówki: " + e.getMessage());
+            return;
+        }
+        moveHistory.clear();
+        version = BoardVersion.of(game.getBoard());
+        checkpoints.clear();
+        resetConflicts();
+        finished = false;
+        gameTimer.stop();
+        gameTimer.reset();
+        gui.clearBoardGUI();
+        showBoard();
+        gui.showInfoMessage("Plansza zresetowana.");
+    }
+    
+    /**
+     * Starts a new game with a selected difficulty.
+     * Resets the board, history, checkpoints and timer, loads a random puzzle of that difficulty from the attached
+     * library (or an empty puzzle if there is none), so the givens and solution of the game always belong to the
+     * board, and starts the timer.
+     *
+     * @param selectedDifficulty The selected difficulty level (e.g., "Łatwy", "Średni", "Trudny").
+     */
+    public void startNewGame(String selectedDifficulty) {
+        if (journal != null) journal.recordNewGame(selectedDifficulty);
+        difficulty = selectedDifficulty;
+        gameTimer.stop();
+        game.getBoard().clear();
+        moveHistory.clear();
+        version = BoardVersion.EMPTY;
+        checkpoints.clear();
+        finished = false;
+        gameTimer.reset();
+        
+        gui.clearBoardGUI();
+        if (!loadLibraryPuzzle(Difficulty.fromName(selectedDifficulty))) {
+            try {
+                game.loadPuzzle(new byte[GridGeometry.CELLS]);
+            } catch (SudokuException e) {
+                gui.showErrorMessage("Nie można wczytać łamigłówki: " + e.getMessage());
+            }
+        }
+        version = BoardVersion.of(game.getBoard());
+        if (journal != null) journal.recordLoad(formatLine(game.getGivens()) + formatLine(game.getBoard().snapshot()));
+        showBoard();
+        resetConflicts();
+        gameTimer.start();
+        gui.showInfoMessage("Rozpoczynanie nowej gry - poziom: " + selectedDifficulty);
+    }
+
+    /**
+     * Loads a puzzle and a position as written to the journal by a load record: the givens as 81 characters
+     * followed by the board as 81 characters. The history and checkpoints are dropped and the timer starts
+     * from zero; the difficulty is kept.
+     *
+     * @param grids The givens and the board, with any character other than 1-9 for an empty cell.
+     * @return {@code true} if the puzzle was loaded.
+     */
+    public boolean loadGame(String grids) {
+        byte[] givens = parseLine(grids, 0);
+        byte[] board = parseLine(grids, GridGeometry.CELLS);
+        if (givens == null || board == null) {
+            gui.showErrorMessage("Zapis gry jest niepełny.");
+            return false;
+        }
+        return loadGame(givens, board, 0);
+    }
+
+    /**
+     * Loads a puzzle and a position, records the load in the journal and shows the whole board in one batch.
+     *
+     * @param givens 81 given values (0 = empty).
+     * @param board 81 cell values of the position (0 = empty).
+     * @param seconds The timer reading to start from.
+     * @return {@code true} if the puzzle was loaded.
+     */
+    private boolean loadGame(byte[] givens, byte[] board, int seconds) {
+        if (journal != null) journal.recordLoad(formatLine(givens) + formatLine(board));
+        try {
+            game.loadPuzzle(givens);
+            game.getBoard().loadFrom(board);
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Nie można wczytać gry: " + e.getMessage());
+            return false;
+        }
+        moveHistory.clear();
+        checkpoints.clear();
+        finished = false;
+        version = BoardVersion.of(game.getBoard());
+        gui.clearBoardGUI();
+        showBoard();
+        resetConflicts();
+        restartTimer(seconds);
+        return true;
+    }
+
+    /**
+     * Loads a random library puzzle of a difficulty into the game.
+     *
+     * @param level The difficulty, or {@code null} if the selection names none.
+     * @return {@code true} if a puzzle was loaded.
+     */
+    private boolean loadLibraryPuzzle(Difficulty level) {
+        if (library == null || level == null) return false;
+        int id = library.pick(level, ThreadLocalRandom.current());
+        if (id < 0) {
+            gui.showErrorMessage("Brak łamigłówek na poziomie: " + level.getLabel());
+            return false;
+        }
+        try {
+            game.loadPuzzle(library.get(id));
+            return true;
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Nie można wczytać łamigłówki: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Shows every filled cell of the board in the view as one batch. The view must have been cleared before.
+     */
+    private void showBoard() {
+        game.getBoard().copyTo(changedValues);
+        int filled = 0;
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if (changedValues[i] != 0) changedCells[filled++] = i;
+        }
+        gui.applyBoardDiff(changedCells, filled, changedValues);
+    }
+    
+    /**
+     * Follows a change of one model cell: advances the persistent version and updates the conflicts
+     * of the cell and its peers, notifying the view if the conflicted cells changed.
+     *
+     * @param cell The flat cell index.
+     * @param value The new value (0 = empty).
+     */
+    private void trackCell(int cell, int value) {
+        version = version.with(cell, value);
+        if (conflicts.set(cell, value)) {
+            gui.showConflicts(conflicts.getConflicts());
+        }
+        scheduleDeadEndCheck();
+    }
+
+    /**
+     * Recomputes the conflicts of the whole board after it was replaced and notifies the view.
+     */
+    private void resetConflicts() {
+        conflicts.reset(game.getBoard().snapshot());
+        gui.showConflicts(conflicts.getConflicts());
+        scheduleDeadEndCheck();
+    }
+
+    /**
+     * Hands the current board to the dead-end check, if it is on. A board still waiting is replaced, and only
+     * the first waiting board starts a task, so fast typing never queues up stale checks.
+     */
+    private void scheduleDeadEndCheck() {
+        ExecutorService checker = deadEndChecker;
+        if (checker == null) return;
+        if (pendingCheck.getAndSet(game.getBoard().snapshot()) == null) {
+            checker.execute(this::runDeadEndCheck);
+        }
+    }
+
+    /**
+     * Checks the newest waiting board and reports the result unless a newer board is already waiting,
+     * whose own check will report instead. Runs on the dead-end check thread.
+     */
+    private void runDeadEndCheck() {
+        byte[] cells = pendingCheck.getAndSet(null);
+        if (cells == null) return;
+        Solvability state = DEAD_END_SOLVER.checkSolvable(cells, DEAD_END_NODE_LIMIT);
+        if (pendingCheck.get() == null) gui.showSolvability(state);
+    }
+
+    /**
+     * Gets the number of cells that currently repeat a digit in their row, column or box.
+     *
+     * @return The number of conflicted cells.
+     */
+    public int getConflictCount() {
+        return conflicts.getConflictCount();
+    }
+
+    /**
+     * Reveals the digit of the solution in a cell as a hint. The hint is entered like a normal move,
+     * so it can be undone. The solution is precomputed by the model, so no search runs and the caller never
+     * waits; right after a puzzle is loaded the player is asked to try again in a moment.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     */
+    public void revealCell(int row, int col) {
+        try {
+            if (!game.isSolutionReady()) {
+                gui.showInfoMessage("Rozwiązanie nie jest jeszcze gotowe, spróbuj za chwilę.");
+                return;
+            }
+            if (!game.hasUniqueSolution()) {
+                gui.showErrorMessage("Ta łamigłówka nie ma jednoznacznego rozwiązania.");
+                return;
+            }
+            if (game.isCorrect(row, col)) {
+                gui.showInfoMessage("To pole jest już poprawnie wypełnione.");
+                return;
+            }
+            handleCellInput(row, col, String.valueOf(game.getSolutionValue(row, col)));
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Błąd Sudoku: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tells the player whether the entry of a cell agrees with the solution, or that the solution is not ready yet.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     */
+    public void checkCell(int row, int col) {
+        try {
+            if (!game.isSolutionReady()) {
+                gui.showInfoMessage("Rozwiązanie nie jest jeszcze gotowe, spróbuj za chwilę.");
+            } else if (!game.hasUniqueSolution()) {
+                gui.showErrorMessage("Ta łamigłówka nie ma jednoznacznego rozwiązania.");
+            } else if (game.getBoard().getCell(row, col) == 0) {
+                gui.showInfoMessage("To pole jest puste.");
+            } else {
+                gui.showInfoMessage(game.isCorrect(row, col) ? "Wpis jest poprawny." : "Wpis jest błędny.");
+            }
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Błąd Sudoku: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the current position as a named checkpoint, replacing an older checkpoint of the same name.
+     * The position is shared, not copied, so saving costs O(1).
+     *
+     * @param name The checkpoint name.
+     */
+    public void saveCheckpoint(String name) {
+        if (journal != null) journal.recordSaveCheckpoint(name);
+        checkpoints.remove(name);
+        checkpoints.put(name, version);
+        gui.showInfoMessage("Zapisano punkt kontrolny: " + name);
+    }
+
+    /**
+     * Goes back to a named checkpoint. Only the cells that differ from the current position are updated
+     * in the model and the view, which receives them as one {@link GUIUpdater#applyBoardDiff batch}. The move history is cleared, because the moves no longer lead to the position;
+     * the checkpoint itself is kept, so the same branch point can be restored again.
+     *
+     * @param name The checkpoint name.
+     * @return {@code true} if the checkpoint exists and was restored.
+     */
+    public boolean restoreCheckpoint(String name) {
+        if (journal != null) journal.recordRestoreCheckpoint(name);
+        BoardVersion target = checkpoints.get(name);
+        if (target == null) {
+            gui.showErrorMessage("Nie ma punktu kontrolnego: " + name);
+            return false;
+        }
+        moveTo(target);
+        moveHistory.clear();
+        checkWinCondition();
+        return true;
+    }
+
+    /**
+     * Pastes a whole puzzle, e.g. from the clipboard. The text may hold a grid in any format read by
+     * {@link PuzzleImporter} (81 cells on one line, 9 lines of 9 cells, or CSV); the first grid found is used.
+     * The grid is loaded as a new puzzle: its digits become the givens, its solution is computed in the background,
+     * the timer starts from zero and the checkpoints of the previous puzzle are dropped. This is one compound move:
+     * a single undo entry brings back the previous puzzle, board and timer, and only the cells that change are
+     * updated in the model and sent to the view as one {@link GUIUpdater#applyBoardDiff batch}.
+     *
+     * @param text The pasted text.
+     * @return {@code true} if the text held a grid.
+     */
+    public boolean pasteBoard(String text) {
+        byte[] cells = parseGrid(text);
+        if (cells == null) {
+            gui.showErrorMessage("Schowek nie zawiera planszy Sudoku.");
+            return false;
+        }
+        if (journal != null) journal.recordPaste(formatLine(cells));
+        byte[] previousGivens = game.getGivens();
+        try {
+            game.loadPuzzle(cells);
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Nie można wczytać łamigłówki: " + e.getMessage());
+            return false;
+        }
+        moveHistory.push(new Move(version, previousGivens, finished, difficulty, gameTimer.getElapsedSeconds()));
+        checkpoints.clear();
+        finished = false;
+        difficulty = "";
+        restartTimer(0);
+        moveTo(BoardVersion.of(cells));
+        return true;
+    }
+
+    /**
+     * Restarts the game timer from a reading. The timer stays stopped for a game that is already won.
+     *
+     * @param seconds The reading to start from.
+     */
+    private void restartTimer(int seconds) {
+        gameTimer.stop();
+        gameTimer.setElapsedSeconds(seconds);
+        if (!finished) gameTimer.start();
+    }
+
+    /**
+     * Exports the board as text for the clipboard, with {@code .} for empty cells.
+     *
+     * @param format {@link PuzzleImporter.Format#SDK} for 9 lines of 9 cells; any other format gives one line
+     *               of 81 cells.
+     * @return The board in the requested format.
+     */
+    public String exportBoard(PuzzleImporter.Format format) {
+        String line = formatLine(game.getBoard().snapshot());
+        if (format != PuzzleImporter.Format.SDK) return line;
+        StringBuilder sb = new StringBuilder(GridGeometry.CELLS + GridGeometry.SIZE);
+        for (int row = 0; row < GridGeometry.SIZE; row++) {
+            sb.append(line, row * GridGeometry.SIZE, (row + 1) * GridGeometry.SIZE).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads the first grid of a text.
+     *
+     * @param text The text.
+     * @return 81 cell values (0 = empty), or {@code null} if the text holds no grid.
+     */
+    private static byte[] parseGrid(String text) {
+        if (text == null) return null;
+        byte[] cells = new byte[GridGeometry.CELLS];
+        try (PuzzleImporter importer = new PuzzleImporter(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))) {
+            return importer.next(cells) ? cells : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads 81 cells written by {@link #formatLine(byte[])}.
+     *
+     * @param text The text.
+     * @param from The index of the first cell.
+     * @return 81 cell values (0 = empty), or {@code null} if the text is too short.
+     */
+    private static byte[] parseLine(String text, int from) {
+        if (text == null || text.length() < from + GridGeometry.CELLS) return null;
+        byte[] cells = new byte[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            char ch = text.charAt(from + i);
+            cells[i] = ch >= '1' && ch <= '9' ? (byte) (ch - '0') : 0;
+        }
+        return cells;
+    }
+
+    /**
+     * Formats cells as one line of 81 characters.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @return The line, with {@code .} for empty cells.
+     */
+    private static String formatLine(byte[] cells) {
+        char[] line = new char[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            line[i] = cells[i] == 0 ? '.' : (char) ('0' + cells[i]);
+        }
+        return new String(line);
+    }
+
+    /**
+     * Moves the board to another position. Only the cells that differ from the current position are updated
+     * in the model and the conflict tracker, and the view receives them as one batch.
+     *
+     * @param target The new position.
+     */
+    private void moveTo(BoardVersion target) {
+        int changed = version.diff(target, changedCells);
+        game.getBoard().loadFrom(target);
+        version = target;
+        target.copyTo(changedValues);
+        boolean conflictsChanged = false;
+        for (int i = 0; i < changed; i++) {
+            conflictsChanged |= conflicts.set(changedCells[i], changedValues[changedCells[i]]);
+        }
+        gui.applyBoardDiff(changedCells, changed, changedValues);
+        if (conflictsChanged) gui.showConflicts(conflicts.getConflicts());
+        scheduleDeadEndCheck();
+    }
+
+    /**
+     * Keeps the current game in the player's profile, unless it is empty or already won, and saves the profile.
+     * Called when the window is closed, so that the game can be continued with {@link #resumeSavedGame()}.
+     */
+    public void saveProfile() {
+        User user = game.getUser();
+        byte[] cells = game.getBoard().snapshot();
+        boolean empty = true;
+        for (byte cell : cells) {
+            if (cell != 0) {
+                empty = false;
+                break;
+            }
+        }
+        if (!empty && !finished) {
+            user.saveGame(game.getGivens(), cells, gameTimer.getElapsedSeconds());
+        }
+        saveUserState();
+    }
+
+    /**
+     * Continues the game kept in the player's profile: loads its givens and board, shows all cells in one batch
+     * and starts the timer from the saved time. The load is recorded in the journal like any other load, so a
+     * replay of a resumed session starts from the same position.
+     *
+     * @return {@code true} if a saved game was continued.
+     */
+    public boolean resumeSavedGame() {
+        User user = game.getUser();
+        if (!user.hasSavedGame()) return false;
+        return loadGame(user.getSavedGivens(), user.getSavedBoard(), user.getSavedSeconds());
+    }
+
+    /**
+     * Saves the player's profile through its repository and reports a failure to the user.
+     */
+    private void saveUserState() {
+        try {
+            game.getUser().saveState();
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Nie można zapisać profilu: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the names of the checkpoints of the current game.
+     *
+     * @return The names, in the order the checkpoints were saved.
+     */
+    public List<String> getCheckpointNames() {
+        return new ArrayList<>(checkpoints.keySet());
+    }
+
+    /**
+     * Records a move to the history stack if the value is changing.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     * @param previousValue The cell's value before the new input.
+     * @param newValue The new value for the cell.
+     */
+    private void recordMove(int row, int col, String previousValue, String newValue) {
+        if (!previousValue.equals(newValue)) {
+            moveHistory.push(new Move(row, col, previousValue));
+        }
+    }
+
+    /**
+     * Checks whether a cell is a given of the current puzzle.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     * @return {@code true} for a given; {@code false} otherwise, also for coordinates outside the board,
+     *         which the caller reports itself.
+     */
+    private boolean isGivenCell(int row, int col) {
+        try {
+            return game.isGiven(row, col);
+        } catch (SudokuException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the value of a cell from the game board.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     * @return The cell value as a String ("1"-"9" or "" for 0), or an empty string on error.
+     */
+    private String getBoardCell(int row, int col) {
+         try {
+            int value = game.getBoard().getCell(row, col); 
+            return value == 0 ? "" : String.valueOf(value);
+        } catch (SudokuException e) {
+            gui.showErrorMessage("Błąd odczytu komórki: " + e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * Checks if the board is completely filled. If it is and {@link SudokuGame#checkWin()} confirms the solution,
+     * stops the timer, shows the win message, adds the game to the player's statistics and saves the profile,
+     * and records the result on the leaderboard, if one is attached; a full but wrong board is reported to the user.
+     * A game that is already won is not checked again, so later edits never record it twice.
+     */
+    private void checkWinCondition() {
+        if (finished) return;
+        if (game.getBoard().isFull()) {
+            if (!game.checkWin()) {
+                gui.showInfoMessage("Plansza jest wypełniona, ale rozwiązanie zawiera błędy.");
+                return;
+            }
+            gameTimer.stop();
+            finished = true;
+            String time = gameTimer.getCurrentFormattedTime();
+            gui.showWinMessage(time);
+            User user = game.getUser();
+            user.recordGame(true, gameTimer.getElapsedSeconds());
+            user.clearSavedGame();
+            saveUserState();
+            if (leaderboard != null) {
+                int rank = leaderboard.record(game.getGivens(), difficulty, game.getUser().getUsername(),
+                        gameTimer.getElapsedSeconds());
+                gui.showInfoMessage("Miejsce w rankingu: " + rank);
+            }
+        }
+    }
+}
\ No newline at end of file
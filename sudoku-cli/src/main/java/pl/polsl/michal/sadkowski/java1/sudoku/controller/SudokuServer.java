@@ -0,0 +1,98 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuServer.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.controller;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.view.ConsoleView;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless TCP server speaking the script command language, one command per line.
+ * Every connection gets its own game and {@link AppController} and is served by its own virtual thread,
+ * so thousands of idle clients cost almost nothing. The answer to a command is flushed when the command is done;
+ * {@code exit} closes the connection.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public class SudokuServer {
+    /** The listening socket. */
+    private final ServerSocket socket;
+
+    /**
+     * Opens the server socket.
+     *
+     * @param port The TCP port, or 0 for any free port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public SudokuServer(int port) throws IOException {
+        this.socket = new ServerSocket(port);
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The local port.
+     */
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server socket is closed.
+     *
+     * @throws IOException if accepting fails for a reason other than {@link #close()}.
+     */
+    public void serve() throws IOException {
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!socket.isClosed()) {
+                Socket client;
+                try {
+                    client = socket.accept();
+                } catch (IOException e) {
+                    if (socket.isClosed()) break;
+                    throw e;
+                }
+                sessions.execute(() -> session(client));
+            }
+        }
+    }
+
+    /**
+     * Runs one client session.
+     *
+     * @param client The connected client socket.
+     */
+    private static void session(Socket client) {
+        try (client) {
+            ConsoleView view = new ConsoleView(new BufferedWriter(
+                    new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8)));
+            AppController controller = new AppController(view);
+            ScriptReader script = new ScriptReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+            while (script.nextLine()) {
+                boolean more = controller.executeScriptLine(script);
+                view.flush();
+                if (!more) break;
+            }
+        } catch (IOException e) {
+            System.err.println("Session with " + client.getRemoteSocketAddress() + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops accepting connections. Sessions already running finish on their own.
+     *
+     * @throws IOException if closing the socket fails.
+     */
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -3,6 +3,9 @@
 package pl.polsl.michal.sadkowski.java1.sudoku.view;
 
 import pl.polsl.michal.sadkowski.java1.sudoku.model.Board;
+
+import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.Scanner;
 
 /**
@@ -10,17 +13,31 @@ import java.util.Scanner;
  * from the console.
  *
  * @author Michał Sadkowski
- * @version 1.2 (try Parse refactor)
+ * @version 1.3 (buffered output for scripts)
  */
 public class ConsoleView {
-    /** Scanner object for reading user input from the console. */
+    /** Scanner object for reading user input from the console, or {@code null} for an output-only view. */
     private final Scanner sc;
+    /** The writer all output goes through. */
+    private final PrintWriter out;
 
     /**
-     * Creates a ConsoleView instance and initializes the Scanner object.
+     * Creates an interactive ConsoleView on the system console. Every line is flushed immediately.
      */
     public ConsoleView() {
         this.sc = new Scanner(System.in);
+        this.out = new PrintWriter(System.out, true);
+    }
+
+    /**
+     * Creates an output-only ConsoleView that writes to the given writer without automatic flushing.
+     * Output is sent only when {@link #flush()} is called, which makes long scripted runs cheap.
+     *
+     * @param writer The destination of the output.
+     */
+    public ConsoleView(Writer writer) {
+        this.sc = null;
+        this.out = new PrintWriter(writer, false);
     }
 
     /**
@@ -29,7 +46,7 @@ public class ConsoleView {
      * @param board The Board object to display.
      */
     public void display(Board board) {
-        System.out.println(board.toString());
+        out.println(board.toString());
     }
 
     /**
@@ -38,7 +55,14 @@ public class ConsoleView {
      * @param line The string content to show.
      */
     public void display(String line) {
-        System.out.println(line);
+        out.println(line);
+    }
+
+    /**
+     * Sends all buffered output to the destination.
+     */
+    public void flush() {
+        out.flush();
     }
 
     /**
@@ -46,9 +70,14 @@ public class ConsoleView {
      *
      * @param text The prompt message to show the user.
      * @return The trimmed line of text entered by the user, or an empty string if null.
+     * @throws IllegalStateException if this view is output-only.
      */
     public String prompt(String text) {
-        System.out.print(text + " ");
+        if (sc == null) {
+            throw new IllegalStateException("This console view has no input.");
+        }
+        out.print(text + " ");
+        out.flush();
         String line = sc.nextLine();
         return line != null ? line.trim() : "";
     }
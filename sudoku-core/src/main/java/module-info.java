@@ -0,0 +1,14 @@
+/**
+ * The Sudoku engine: the model, the solvers, the variant engine and the persistent stores.
+ * The module depends on {@code java.base} only; the SIMD bulk tools use {@code jdk.incubator.vector}
+ * when it is added to the boot layer and fall back to scalar code otherwise.
+ */
+module pl.polsl.michal.sadkowski.java1.sudoku.core {
+    requires static jdk.incubator.vector;
+
+    exports pl.polsl.michal.sadkowski.java1.sudoku.exceptions;
+    exports pl.polsl.michal.sadkowski.java1.sudoku.model;
+    exports pl.polsl.michal.sadkowski.java1.sudoku.solver;
+    exports pl.polsl.michal.sadkowski.java1.sudoku.store;
+    exports pl.polsl.michal.sadkowski.java1.sudoku.variant;
+}
@@ -18,4 +18,14 @@ public class SudokuException extends Exception {
     public SudokuException(String message) {
         super(message);
     }
+
+    /**
+     * Creates a new exception with a specific error message and the error that caused it.
+     *
+     * @param message The detailed error message.
+     * @param cause The underlying error, e.g. an I/O error of a store.
+     */
+    public SudokuException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.model.Board.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+
+import java.util.Arrays;
+
+/**
+ * Class representing a standard 9x9 Sudoku board.
+ * This class stores the board state and manages setting and clearing cell values.
+ * The cells are kept in one flat array indexed {@code row * 9 + col}. Besides the single-cell accessors the board
+ * offers bulk operations ({@link #loadFrom(CharSequence)}, {@link #loadFrom(byte[])}, {@link #copyTo(byte[])},
+ * {@link #snapshot()}, {@link #copyFrom(Board)}) that validate their input once and then copy without exceptions.
+ * Immutable versions of a board for branching and rollback are kept as {@link BoardVersion}s.
+ *
+ * @author Michał Sadkowski
+ * @version 1.3 (flat grid, bulk operations)
+ */
+public class Board {
+    /** The board size is 9x9. */
+    private static final int N = 9;
+    /** The cells in row-major order (0-80), 0 = empty. */
+    private final byte[] grid;
+
+    /**
+     * Creates a new empty 9x9 Sudoku board, filling all cells with 0.
+     */
+    public Board() {
+        grid = new byte[GridGeometry.CELLS];
+    }
+
+    /**
+     * Sets the value of a specific cell.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     * @param value The value to set (0-9, where 0 is an empty cell).
+     * @throws SudokuException If the row, column, or value is outside the allowed range.
+     */
+    public void setCell(int row, int col, int value) throws SudokuException {
+        if (row < 0 || row >= N || col < 0 || col >= N) {
+            throw new SudokuException("Row/col out of range (0-8).");
+        }
+        if (value < 0 || value > 9) {
+            throw new SudokuException("Value must be 0..9 (0 = empty).");
+        }
+        grid[row * N + col] = (byte) value;
+    }
+
+    /**
+     * Gets the value from a specific cell.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     * @return The value in the cell (0-9).
+     * @throws SudokuException If the row or column is outside the allowed range.
+     */
+    public int getCell(int row, int col) throws SudokuException {
+        if (row < 0 || row >= N || col < 0 || col >= N) {
+            throw new SudokuException("Row/col out of range (0-8).");
+        }
+        return grid[row * N + col];
+    }
+
+    /**
+     * Replaces the whole board with cells given as text, one character per cell in row-major order.
+     * Digits 1-9 are values; {@code 0} and {@code .} are empty cells. The text is checked before anything is
+     * changed, so a rejected text leaves the board as it was.
+     *
+     * @param text Exactly 81 characters.
+     * @throws SudokuException If the text does not have 81 characters or holds another character.
+     */
+    public void loadFrom(CharSequence text) throws SudokuException {
+        if (text.length() != GridGeometry.CELLS) {
+            throw new SudokuException("A board must have exactly 81 characters.");
+        }
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            char ch = text.charAt(i);
+            if ((ch < '0' || ch > '9') && ch != '.') {
+                throw new SudokuException("Not a cell value at position " + (i + 1) + ": '" + ch + "'.");
+            }
+        }
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            char ch = text.charAt(i);
+            grid[i] = (byte) (ch == '.' ? 0 : ch - '0');
+        }
+    }
+
+    /**
+     * Replaces the whole board with the given cells. The cells are checked before anything is changed,
+     * so rejected cells leave the board as it was.
+     *
+     * @param cells 81 cell values in row-major order (0 = empty).
+     * @throws SudokuException If the array does not have 81 cells or holds a value outside 0-9.
+     */
+    public void loadFrom(byte[] cells) throws SudokuException {
+        if (cells.length != GridGeometry.CELLS) {
+            throw new SudokuException("A board must have exactly 81 cells.");
+        }
+        int invalid = 0;
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            invalid |= (cells[i] & 0xFF) > 9 ? 1 : 0;
+        }
+        if (invalid != 0) {
+            throw new SudokuException("Value must be 0..9 (0 = empty).");
+        }
+        System.arraycopy(cells, 0, grid, 0, GridGeometry.CELLS);
+    }
+
+    /**
+     * Replaces the whole board with the cells of a persistent version. No checks are needed,
+     * a version only holds values created through its own checked methods or copied from a board.
+     *
+     * @param version The version to load.
+     */
+    public void loadFrom(BoardVersion version) {
+        version.copyTo(grid);
+    }
+
+    /**
+     * Copies all cells into an array.
+     *
+     * @param dest The destination; its first 81 elements receive the cells in row-major order.
+     * @throws IndexOutOfBoundsException If the destination has fewer than 81 elements.
+     */
+    public void copyTo(byte[] dest) {
+        System.arraycopy(grid, 0, dest, 0, GridGeometry.CELLS);
+    }
+
+    /**
+     * Returns a copy of all cells.
+     *
+     * @return 81 cell values in row-major order (0 = empty).
+     */
+    public byte[] snapshot() {
+        return grid.clone();
+    }
+
+    /**
+     * Makes this board an exact copy of another board. No checks are needed, every board holds valid cells.
+     *
+     * @param other The board to copy.
+     */
+    public void copyFrom(Board other) {
+        System.arraycopy(other.grid, 0, grid, 0, GridGeometry.CELLS);
+    }
+
+    /**
+     * Checks whether every cell holds a value.
+     *
+     * @return {@code true} if the board has no empty cell.
+     */
+    public boolean isFull() {
+        for (byte v : grid) {
+            if (v == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Clears the entire board by setting all cell values to 0 (empty).
+     */
+    public void clear() {
+        Arrays.fill(grid, (byte) 0);
+    }
+
+    /**
+     * Generates a string representation of the board for console display.
+     *
+     * @return A well-formatted string of the board.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < N; r++) {
+            if (r % 3 == 0 && r != 0) sb.append("------+-------+------\n");
+            for (int c = 0; c < N; c++) {
+                if (c % 3 == 0 && c != 0) sb.append("| ");
+                int v = grid[r * N + c];
+                sb.append(v == 0 ? ". " : (v + " "));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.model.BoardVersion.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, persistent version of a board.
+ * The 81 cells are split into nine chunks of nine cells, one per row. Changing a cell creates a new version
+ * that copies only the array of chunk references and the one changed chunk; all other chunks are shared
+ * with the previous version. Keeping a version is therefore O(1), a branch that changes {@code k} cells
+ * costs about {@code k} small copies, and two versions are compared chunk by chunk, skipping shared chunks
+ * without looking at their cells.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class BoardVersion {
+    /** Cells per chunk. */
+    private static final int CHUNK = GridGeometry.SIZE;
+    /** The version with all cells empty. */
+    public static final BoardVersion EMPTY = new BoardVersion(emptyChunks());
+
+    /** The chunks (rows); never modified after construction. */
+    private final byte[][] chunks;
+
+    /**
+     * Creates a version over the given chunks, which become owned by the version.
+     *
+     * @param chunks Nine chunks of nine cells.
+     */
+    private BoardVersion(byte[][] chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * Creates the chunks of the empty version; all nine rows share one empty chunk.
+     *
+     * @return The chunk references.
+     */
+    private static byte[][] emptyChunks() {
+        byte[] empty = new byte[CHUNK];
+        byte[][] chunks = new byte[GridGeometry.SIZE][];
+        Arrays.fill(chunks, empty);
+        return chunks;
+    }
+
+    /**
+     * Creates a version holding the given cells.
+     *
+     * @param cells 81 cell values in row-major order; the values are not checked.
+     * @return The new version.
+     */
+    public static BoardVersion of(byte[] cells) {
+        byte[][] chunks = new byte[GridGeometry.SIZE][];
+        for (int k = 0; k < GridGeometry.SIZE; k++) {
+            chunks[k] = Arrays.copyOfRange(cells, k * CHUNK, (k + 1) * CHUNK);
+        }
+        return new BoardVersion(chunks);
+    }
+
+    /**
+     * Creates a version holding the current cells of a board.
+     *
+     * @param board The board.
+     * @return The new version.
+     */
+    public static BoardVersion of(Board board) {
+        return of(board.snapshot());
+    }
+
+    /**
+     * Gets the value of a cell.
+     *
+     * @param cell The flat cell index (0-80).
+     * @return The value (0 = empty).
+     */
+    public int get(int cell) {
+        return chunks[cell / CHUNK][cell % CHUNK];
+    }
+
+    /**
+     * Returns a version in which one cell has a new value. This version is not changed.
+     *
+     * @param cell The flat cell index (0-80).
+     * @param value The new value (0-9, 0 = empty).
+     * @return The new version, or this version if the cell already has the value.
+     * @throws IllegalArgumentException if the value is outside 0-9.
+     */
+    public BoardVersion with(int cell, int value) {
+        if (value < 0 || value > 9) {
+            throw new IllegalArgumentException("Value must be 0..9 (0 = empty).");
+        }
+        int k = cell / CHUNK;
+        if (chunks[k][cell % CHUNK] == value) return this;
+        byte[][] next = chunks.clone();
+        next[k] = chunks[k].clone();
+        next[k][cell % CHUNK] = (byte) value;
+        return new BoardVersion(next);
+    }
+
+    /**
+     * Copies all cells into an array.
+     *
+     * @param dest The destination; its first 81 elements receive the cells in row-major order.
+     */
+    public void copyTo(byte[] dest) {
+        for (int k = 0; k < GridGeometry.SIZE; k++) {
+            System.arraycopy(chunks[k], 0, dest, k * CHUNK, CHUNK);
+        }
+    }
+
+    /**
+     * Finds the cells whose values differ between this version and another one.
+     * Chunks shared by both versions are skipped without comparing their cells.
+     *
+     * @param other The other version.
+     * @param out Receives the indices of the differing cells in increasing order; must hold 81 elements.
+     * @return The number of differing cells.
+     */
+    public int diff(BoardVersion other, int[] out) {
+        int n = 0;
+        for (int k = 0; k < GridGeometry.SIZE; k++) {
+            byte[] a = chunks[k];
+            byte[] b = other.chunks[k];
+            if (a == b) continue;
+            for (int j = 0; j < CHUNK; j++) {
+                if (a[j] != b[j]) out[n++] = k * CHUNK + j;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Counts the chunks this version shares with another one, as a measure of structural sharing.
+     *
+     * @param other The other version.
+     * @return The number of shared chunks (0-9).
+     */
+    public int sharedChunks(BoardVersion other) {
+        int shared = 0;
+        for (int k = 0; k < GridGeometry.SIZE; k++) {
+            if (chunks[k] == other.chunks[k]) shared++;
+        }
+        return shared;
+    }
+}
@@ -0,0 +1,147 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.model.ConflictTracker.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Incremental detection of cells that break a Sudoku rule.
+ * For every unit (row, column, box) the tracker counts how often each digit occurs. A filled cell is in conflict
+ * when one of its three units holds its digit more than once. Changing a cell updates six counters and then
+ * re-evaluates only the cell and its 20 peers, so every edit costs O(1) instead of a full board validation.
+ * <p>
+ * One instance is not thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class ConflictTracker {
+    /** Units a cell belongs to. */
+    private static final int UNITS_PER_CELL = 3;
+    /** The units of every cell: row, column and box, as indices of {@link GridGeometry#UNIT_CELLS}. */
+    private static final int[] UNITS_OF = new int[GridGeometry.CELLS * UNITS_PER_CELL];
+
+    static {
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            UNITS_OF[i * UNITS_PER_CELL] = GridGeometry.ROW_OF[i];
+            UNITS_OF[i * UNITS_PER_CELL + 1] = GridGeometry.SIZE + GridGeometry.COL_OF[i];
+            UNITS_OF[i * UNITS_PER_CELL + 2] = 2 * GridGeometry.SIZE + GridGeometry.BOX_OF[i];
+        }
+    }
+
+    /** The value of every cell (0 = empty). */
+    private final byte[] cells = new byte[GridGeometry.CELLS];
+    /** How often each digit occurs in each unit: {@code counts[unit * 10 + digit]}. */
+    private final byte[] counts = new byte[GridGeometry.UNITS * 10];
+    /** The cells currently in conflict. */
+    private final BitSet conflicts = new BitSet(GridGeometry.CELLS);
+
+    /**
+     * Creates a tracker for an empty board.
+     */
+    public ConflictTracker() {
+    }
+
+    /**
+     * Replaces the whole position, e.g. after a new game or a restored checkpoint. This is the only
+     * operation that looks at every cell.
+     *
+     * @param values 81 cell values in row-major order (0 = empty).
+     */
+    public void reset(byte[] values) {
+        Arrays.fill(counts, (byte) 0);
+        System.arraycopy(values, 0, cells, 0, GridGeometry.CELLS);
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int v = cells[i];
+            if (v == 0) continue;
+            for (int k = i * UNITS_PER_CELL; k < (i + 1) * UNITS_PER_CELL; k++) {
+                counts[UNITS_OF[k] * 10 + v]++;
+            }
+        }
+        conflicts.clear();
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if (isInConflict(i)) conflicts.set(i);
+        }
+    }
+
+    /**
+     * Changes one cell and updates the conflicts of the cell and its peers.
+     *
+     * @param cell The flat cell index (0-80).
+     * @param value The new value (0-9, 0 = empty).
+     * @return {@code true} if the set of conflicted cells changed.
+     */
+    public boolean set(int cell, int value) {
+        int old = cells[cell];
+        if (old == value) return false;
+        for (int k = cell * UNITS_PER_CELL; k < (cell + 1) * UNITS_PER_CELL; k++) {
+            int unit = UNITS_OF[k] * 10;
+            if (old != 0) counts[unit + old]--;
+            if (value != 0) counts[unit + value]++;
+        }
+        cells[cell] = (byte) value;
+        boolean changed = update(cell);
+        for (int peer : GridGeometry.PEERS[cell]) {
+            changed |= update(peer);
+        }
+        return changed;
+    }
+
+    /**
+     * Re-evaluates one cell.
+     *
+     * @param cell The cell index.
+     * @return {@code true} if its conflict state changed.
+     */
+    private boolean update(int cell) {
+        boolean now = isInConflict(cell);
+        if (now == conflicts.get(cell)) return false;
+        conflicts.set(cell, now);
+        return true;
+    }
+
+    /**
+     * Checks the counters of the three units of a cell.
+     *
+     * @param cell The cell index.
+     * @return {@code true} if the cell is filled and its digit repeats in one of its units.
+     */
+    private boolean isInConflict(int cell) {
+        int v = cells[cell];
+        if (v == 0) return false;
+        for (int k = cell * UNITS_PER_CELL; k < (cell + 1) * UNITS_PER_CELL; k++) {
+            if (counts[UNITS_OF[k] * 10 + v] > 1) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a cell is in conflict.
+     *
+     * @param cell The flat cell index (0-80).
+     * @return {@code true} if the cell's digit repeats in its row, column or box.
+     */
+    public boolean isConflicted(int cell) {
+        return conflicts.get(cell);
+    }
+
+    /**
+     * Gets the cells in conflict. The returned set is the tracker's own and changes with it;
+     * callers must not modify it and should copy it if they keep it.
+     *
+     * @return The conflicted cells.
+     */
+    public BitSet getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Gets the number of cells in conflict.
+     *
+     * @return The number of conflicted cells.
+     */
+    public int getConflictCount() {
+        return conflicts.cardinality();
+    }
+}
@@ -0,0 +1,89 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.model.Difficulty.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+/**
+ * Difficulty levels of a puzzle.
+ * A level is derived from the solver rating (the number of search nodes needed to solve the puzzle and prove
+ * it unique) and has a label shown in the graphical interface.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public enum Difficulty {
+    /** Solved with very little search. */
+    EASY("Łatwy", 200),
+    /** Needs some search. */
+    MEDIUM("Średni", 2000),
+    /** Needs a lot of search. */
+    HARD("Trudny", Long.MAX_VALUE);
+
+    /** All levels, in order. */
+    private static final Difficulty[] LEVELS = values();
+
+    /** The label shown to the player. */
+    private final String label;
+    /** The largest rating of this level. */
+    private final long maxRating;
+
+    /**
+     * Creates a level.
+     *
+     * @param label The label shown to the player.
+     * @param maxRating The largest rating of this level.
+     */
+    Difficulty(String label, long maxRating) {
+        this.label = label;
+        this.maxRating = maxRating;
+    }
+
+    /**
+     * Gets the label shown to the player.
+     *
+     * @return The label, e.g. "Trudny".
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Finds the level of a solver rating.
+     *
+     * @param rating The number of search nodes.
+     * @return The easiest level whose largest rating is not exceeded.
+     */
+    public static Difficulty fromRating(long rating) {
+        for (Difficulty level : LEVELS) {
+            if (rating <= level.maxRating) return level;
+        }
+        return HARD;
+    }
+
+    /**
+     * Finds a level by its label or its name, ignoring case.
+     *
+     * @param name The label ("Trudny") or the name ("hard").
+     * @return The level, or {@code null} if none matches.
+     */
+    public static Difficulty fromName(String name) {
+        if (name == null) return null;
+        for (Difficulty level : LEVELS) {
+            if (level.label.equalsIgnoreCase(name) || level.name().equalsIgnoreCase(name)) return level;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the level with an ordinal number.
+     *
+     * @param ordinal The ordinal (0 = easy).
+     * @return The level.
+     * @throws IllegalArgumentException if there is no such level.
+     */
+    public static Difficulty of(int ordinal) {
+        if (ordinal < 0 || ordinal >= LEVELS.length) {
+            throw new IllegalArgumentException("No difficulty with ordinal " + ordinal + ".");
+        }
+        return LEVELS[ordinal];
+    }
+}
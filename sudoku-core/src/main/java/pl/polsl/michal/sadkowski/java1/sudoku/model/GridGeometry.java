@@ -0,0 +1,94 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+/**
+ * Precomputed index tables describing the geometry of a classic 9x9 Sudoku grid.
+ * Cells are addressed by a flat 0-based index {@code row * 9 + col} (0-80).
+ * The tables are built once and shared by the model and the solvers, so the hot loops
+ * never have to compute rows, columns, boxes or peers on the fly.
+ * <p>
+ * The arrays are exposed directly for speed and must be treated as read-only.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class GridGeometry {
+    /** Number of rows, columns, boxes and digits. */
+    public static final int SIZE = 9;
+    /** Number of cells on the board. */
+    public static final int CELLS = SIZE * SIZE;
+    /** Number of units (9 rows, 9 columns, 9 boxes). */
+    public static final int UNITS = 3 * SIZE;
+    /** Number of peers of every cell (cells sharing a row, column or box). */
+    public static final int PEER_COUNT = 20;
+    /** Bit mask with bits 1-9 set, one bit per digit. */
+    public static final int ALL_DIGITS = 0x3FE;
+
+    /** Row index of every cell. */
+    public static final int[] ROW_OF = new int[CELLS];
+    /** Column index of every cell. */
+    public static final int[] COL_OF = new int[CELLS];
+    /** Box index (0-8, row-major) of every cell. */
+    public static final int[] BOX_OF = new int[CELLS];
+    /** Cell indices of every unit: rows 0-8, columns 9-17, boxes 18-26. */
+    public static final int[][] UNIT_CELLS = new int[UNITS][SIZE];
+    /** The 20 peers of every cell. */
+    public static final int[][] PEERS = new int[CELLS][PEER_COUNT];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            int r = i / SIZE;
+            int c = i % SIZE;
+            int b = (r / 3) * 3 + c / 3;
+            ROW_OF[i] = r;
+            COL_OF[i] = c;
+            BOX_OF[i] = b;
+            UNIT_CELLS[r][c] = i;
+            UNIT_CELLS[SIZE + c][r] = i;
+            UNIT_CELLS[2 * SIZE + b][(r % 3) * 3 + c % 3] = i;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            int n = 0;
+            for (int j = 0; j < CELLS; j++) {
+                if (j != i && (ROW_OF[j] == ROW_OF[i] || COL_OF[j] == COL_OF[i] || BOX_OF[j] == BOX_OF[i])) {
+                    PEERS[i][n++] = j;
+                }
+            }
+        }
+    }
+
+    /** Utility class, no instances. */
+    private GridGeometry() {
+    }
+
+    /**
+     * Converts a row and column into a flat cell index.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     * @return The flat cell index (0-80).
+     */
+    public static int index(int row, int col) {
+        return row * SIZE + col;
+    }
+
+    /**
+     * Checks whether a completely filled grid satisfies all row, column and box constraints.
+     *
+     * @param cells 81 cell values in row-major order.
+     * @return {@code true} if every unit contains each digit 1-9 exactly once.
+     */
+    public static boolean isValidSolution(byte[] cells) {
+        for (int[] unit : UNIT_CELLS) {
+            int seen = 0;
+            for (int cell : unit) {
+                seen |= 1 << cells[cell];
+            }
+            if (seen != ALL_DIGITS) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
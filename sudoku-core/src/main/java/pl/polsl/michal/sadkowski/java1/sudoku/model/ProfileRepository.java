@@ -0,0 +1,31 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.model.ProfileRepository.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+
+/**
+ * Storage of user profiles, used by {@link User#saveState()}.
+ * The model only depends on this interface; the persistent implementation lives in the store package.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public interface ProfileRepository {
+    /**
+     * Saves the current state of a user, replacing the previous one.
+     *
+     * @param user The user.
+     * @throws SudokuException if the profile cannot be stored.
+     */
+    void save(User user) throws SudokuException;
+
+    /**
+     * Loads the saved state of a user.
+     *
+     * @param username The user's name.
+     * @return The user with the saved state and this repository attached, or {@code null} if there is no profile.
+     * @throws SudokuException if the profile cannot be read.
+     */
+    User load(String username) throws SudokuException;
+}
@@ -0,0 +1,253 @@
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveBudget;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveOutcome;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SudokuSolver;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Class representing the entire Sudoku game session.
+ * It holds the board and user information, acting as the main entry point to the model layer.
+ * When a puzzle is loaded its solution is computed once on a background thread and kept packed two cells
+ * per byte, so the win check, the check of a single entry and hints are lookups instead of searches.
+ * No method ever waits for that computation: until it finishes, the solution is simply not known yet
+ * ({@link #isSolutionReady()}), and the win check falls back to the Sudoku rules.
+ * That search runs under a {@link SolveBudget}: it is cancelled when another puzzle is loaded and gives up after
+ * {@link #SOLUTION_TIME_LIMIT}, so a pathological grid cannot keep a thread busy.
+ *
+ * @author Michał Sadkowski
+ * @version 1.4 (solve budget)
+ */
+public class SudokuGame {
+    /** The longest time the solution of a loaded puzzle is searched for. */
+    public static final Duration SOLUTION_TIME_LIMIT = Duration.ofSeconds(5);
+
+    /** The main Sudoku board. */
+    private final Board board;
+    /** The player information. */
+    private final User user;
+    /** The solver that computes the solution of every loaded puzzle. */
+    private final SudokuSolver solver;
+    /** The givens of the current puzzle (0 = empty cell). */
+    private final byte[] givens = new byte[GridGeometry.CELLS];
+    /**
+     * The unique solution of the givens packed two cells per byte, computed in the background;
+     * completes with {@code null} if the givens have no unique solution.
+     */
+    private volatile CompletableFuture<byte[]> solution = CompletableFuture.completedFuture(null);
+    /** The budget of the search for the current solution; cancelled when the next puzzle is loaded. */
+    private volatile SolveBudget solutionBudget = SolveBudget.unlimited();
+
+    /**
+     * Creates a new Sudoku game session, initializing the board and user.
+     *
+     * @param username The name of the player.
+     */
+    public SudokuGame(String username) {
+        this(username, SudokuSolver.shared());
+    }
+
+    /**
+     * Creates a new Sudoku game session that uses the given solver.
+     *
+     * @param username The name of the player.
+     * @param solver The solver that computes the solution of loaded puzzles.
+     */
+    public SudokuGame(String username, SudokuSolver solver) {
+        this(new User(username), solver);
+    }
+
+    /**
+     * Creates a new Sudoku game session for an existing user, e.g. one loaded from a {@link ProfileRepository}.
+     *
+     * @param user The player.
+     * @param solver The solver that computes the solution of loaded puzzles.
+     */
+    public SudokuGame(User user, SudokuSolver solver) {
+        this.board = new Board();
+        this.user = user;
+        this.solver = solver;
+    }
+
+    /**
+     * Gets the board object to perform cell operations.
+     *
+     * @return The Sudoku board instance.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Gets the user object.
+     *
+     * @return The current user instance.
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Starts a new puzzle: stores its givens, copies them onto the board and starts computing the solution
+     * in the background, cancelling the search for the previous puzzle. An empty grid has no unique solution
+     * and is not solved; neither is a grid whose search runs out of time.
+     *
+     * @param cells 81 cell values in row-major order (0 = empty).
+     * @throws SudokuException If the array does not have 81 cells or holds a value outside 0-9.
+     */
+    public void loadPuzzle(byte[] cells) throws SudokuException {
+        board.loadFrom(cells);
+        System.arraycopy(cells, 0, givens, 0, GridGeometry.CELLS);
+        byte[] puzzle = givens.clone();
+        boolean empty = true;
+        for (byte cell : puzzle) {
+            if (cell != 0) {
+                empty = false;
+                break;
+            }
+        }
+        solutionBudget.cancel();
+        SolveBudget budget = SolveBudget.ofTime(SOLUTION_TIME_LIMIT);
+        solutionBudget = budget;
+        solution = empty ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.supplyAsync(() -> pack(solver.solve(puzzle, budget)));
+    }
+
+    /**
+     * Packs the solution of a search.
+     *
+     * @param outcome The solver outcome.
+     * @return The solution packed two cells per byte, or {@code null} if the search stopped or the solution
+     *         is not unique.
+     */
+    private static byte[] pack(SolveOutcome outcome) {
+        if (!outcome.isFinished() || !outcome.getResult().isUnique()) return null;
+        byte[] cells = outcome.getResult().getSolution();
+        byte[] packed = new byte[(GridGeometry.CELLS + 1) / 2];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            packed[i >> 1] |= (byte) (cells[i] << ((i & 1) << 2));
+        }
+        return packed;
+    }
+
+    /**
+     * Gets the packed solution without waiting for the background computation.
+     *
+     * @return The packed solution, or {@code null} if it is not computed yet or the givens have no unique solution.
+     */
+    private byte[] packedSolution() {
+        CompletableFuture<byte[]> current = solution;
+        return current.isDone() && !current.isCompletedExceptionally() ? current.getNow(null) : null;
+    }
+
+    /**
+     * Checks whether the background computation of the solution of the current puzzle has finished.
+     *
+     * @return {@code true} if {@link #hasUniqueSolution()} gives the final answer.
+     */
+    public boolean isSolutionReady() {
+        return solution.isDone();
+    }
+
+    /**
+     * Reads one cell of a packed solution.
+     *
+     * @param packed The packed solution.
+     * @param cell The flat cell index.
+     * @return The digit 1-9.
+     */
+    private static int valueAt(byte[] packed, int cell) {
+        return (packed[cell >> 1] >> ((cell & 1) << 2)) & 0xF;
+    }
+
+    /**
+     * Checks whether the givens of the current puzzle have exactly one solution.
+     *
+     * @return {@code true} if the solution is known, so hints and entry checks are available; {@code false} while
+     *         it is still being computed (see {@link #isSolutionReady()}).
+     */
+    public boolean hasUniqueSolution() {
+        return packedSolution() != null;
+    }
+
+    /**
+     * Gets the digit of the solution in a cell, e.g. to reveal it as a hint.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     * @return The digit 1-9, or 0 if the givens have no unique solution or it is not computed yet.
+     * @throws SudokuException If the row or column is outside the allowed range.
+     */
+    public int getSolutionValue(int row, int col) throws SudokuException {
+        if (row < 0 || row >= GridGeometry.SIZE || col < 0 || col >= GridGeometry.SIZE) {
+            throw new SudokuException("Row/col out of range (0-8).");
+        }
+        byte[] packed = packedSolution();
+        return packed == null ? 0 : valueAt(packed, GridGeometry.index(row, col));
+    }
+
+    /**
+     * Checks whether the entry of a cell agrees with the solution.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     * @return {@code true} if the cell is filled with the digit of the unique solution; {@code false} for an empty
+     *         cell, a wrong digit, or givens without a unique solution or whose solution is not computed yet.
+     * @throws SudokuException If the row or column is outside the allowed range.
+     */
+    public boolean isCorrect(int row, int col) throws SudokuException {
+        int value = board.getCell(row, col);
+        return value != 0 && value == getSolutionValue(row, col);
+    }
+
+    /**
+     * Checks whether a cell is a given of the current puzzle, which the player may not change.
+     *
+     * @param row The 0-based row index (0-8).
+     * @param col The 0-based column index (0-8).
+     * @return {@code true} if the puzzle fixes the digit of the cell.
+     * @throws SudokuException If the row or column is outside the allowed range.
+     */
+    public boolean isGiven(int row, int col) throws SudokuException {
+        if (row < 0 || row >= GridGeometry.SIZE || col < 0 || col >= GridGeometry.SIZE) {
+            throw new SudokuException("Row/col out of range (0-8).");
+        }
+        return givens[GridGeometry.index(row, col)] != 0;
+    }
+
+    /**
+     * Gets a copy of the givens of the current puzzle.
+     *
+     * @return 81 cell values (0 = empty).
+     */
+    public byte[] getGivens() {
+        return givens.clone();
+    }
+
+    /**
+     * Checks if the board is completely filled and correctly solved.
+     * If the unique solution of the givens is already known the board must match it, cell by cell;
+     * otherwise (no unique solution, or not computed yet) any full grid that keeps the givens and satisfies
+     * all Sudoku rules wins.
+     *
+     * @return {@code true} if the game is won, {@code false} otherwise.
+     */
+    public boolean checkWin() {
+        if (!board.isFull()) return false;
+        byte[] cells = board.snapshot();
+        byte[] packed = packedSolution();
+        if (packed != null) {
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                if (cells[i] != valueAt(packed, i)) return false;
+            }
+            return true;
+        }
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if (givens[i] != 0 && givens[i] != cells[i]) return false;
+        }
+        return GridGeometry.isValidSolution(cells);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,249 @@
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Simple user object representing the player.
+ * Besides the username it holds the player's profile: game statistics, settings and a game in progress.
+ * The profile is persisted by {@link #saveState()} through an attached {@link ProfileRepository}.
+ *
+ * @author Michał Sadkowski
+ * @version 1.2 (profiles)
+ */
+public class User {
+    /** The name of the player. */
+    private String username;
+    /** Number of games finished, won or not. */
+    private int gamesPlayed;
+    /** Number of games won. */
+    private int gamesWon;
+    /** Best winning time in seconds, or -1 if no game was won. */
+    private int bestSeconds = -1;
+    /** Total time of all finished games in seconds. */
+    private long totalSeconds;
+    /** Named settings, in insertion order. */
+    private final Map<String, String> settings = new LinkedHashMap<>();
+    /** The givens of the game in progress, or {@code null}. */
+    private byte[] savedGivens;
+    /** The board of the game in progress, or {@code null}. */
+    private byte[] savedBoard;
+    /** The elapsed seconds of the game in progress. */
+    private int savedSeconds;
+    /** Where {@link #saveState()} stores the profile, or {@code null}. */
+    private ProfileRepository repository;
+
+    /**
+     * Creates a User object. Sets the name to "guest" if the provided name is null or empty.
+     *
+     * @param username The desired name for the user.
+     */
+    public User(String username) {
+        if (username == null || username.isEmpty()) this.username = "guest";
+        else this.username = username;
+    }
+
+    /**
+     * Gets the current username.
+     *
+     * @return The current username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets a new username if the provided string is not null or empty.
+     *
+     * @param username The new username.
+     */
+    public void setUsername(String username) {
+        if (username == null || username.isEmpty()) return;
+        this.username = username;
+    }
+
+    /**
+     * Adds a finished game to the statistics.
+     *
+     * @param won {@code true} if the game was won.
+     * @param seconds The time of the game in seconds.
+     */
+    public void recordGame(boolean won, int seconds) {
+        gamesPlayed++;
+        totalSeconds += Math.max(seconds, 0);
+        if (won) {
+            gamesWon++;
+            if (bestSeconds < 0 || seconds < bestSeconds) bestSeconds = seconds;
+        }
+    }
+
+    /**
+     * Replaces the statistics, e.g. when a profile is loaded.
+     *
+     * @param gamesPlayed Number of finished games.
+     * @param gamesWon Number of won games.
+     * @param bestSeconds Best winning time in seconds, or -1.
+     * @param totalSeconds Total time of all finished games in seconds.
+     */
+    public void setStatistics(int gamesPlayed, int gamesWon, int bestSeconds, long totalSeconds) {
+        this.gamesPlayed = gamesPlayed;
+        this.gamesWon = gamesWon;
+        this.bestSeconds = bestSeconds;
+        this.totalSeconds = totalSeconds;
+    }
+
+    /**
+     * Gets the number of finished games.
+     *
+     * @return The number of games played to the end.
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Gets the number of won games.
+     *
+     * @return The number of wins.
+     */
+    public int getGamesWon() {
+        return gamesWon;
+    }
+
+    /**
+     * Gets the best winning time.
+     *
+     * @return The time in seconds, or -1 if no game was won.
+     */
+    public int getBestSeconds() {
+        return bestSeconds;
+    }
+
+    /**
+     * Gets the total time of all finished games.
+     *
+     * @return The time in seconds.
+     */
+    public long getTotalSeconds() {
+        return totalSeconds;
+    }
+
+    /**
+     * Gets a setting.
+     *
+     * @param name The setting name.
+     * @return The value, or {@code null} if it is not set.
+     */
+    public String getSetting(String name) {
+        return settings.get(name);
+    }
+
+    /**
+     * Sets or removes a setting.
+     *
+     * @param name The setting name.
+     * @param value The value, or {@code null} to remove the setting.
+     */
+    public void setSetting(String name, String value) {
+        if (value == null) settings.remove(name);
+        else settings.put(name, value);
+    }
+
+    /**
+     * Gets all settings.
+     *
+     * @return A read-only view of the settings.
+     */
+    public Map<String, String> getSettings() {
+        return Collections.unmodifiableMap(settings);
+    }
+
+    /**
+     * Keeps a game in progress so that it can be continued later.
+     *
+     * @param givens The 81 givens of the puzzle.
+     * @param board The 81 cells of the board.
+     * @param seconds The elapsed time in seconds.
+     */
+    public void saveGame(byte[] givens, byte[] board, int seconds) {
+        this.savedGivens = givens.clone();
+        this.savedBoard = board.clone();
+        this.savedSeconds = seconds;
+    }
+
+    /**
+     * Forgets the game in progress, e.g. after it was finished.
+     */
+    public void clearSavedGame() {
+        savedGivens = null;
+        savedBoard = null;
+        savedSeconds = 0;
+    }
+
+    /**
+     * Checks whether a game in progress is kept.
+     *
+     * @return {@code true} if there is a saved game.
+     */
+    public boolean hasSavedGame() {
+        return savedBoard != null;
+    }
+
+    /**
+     * Gets the givens of the game in progress.
+     *
+     * @return A copy of the 81 givens, or {@code null} if there is no saved game.
+     */
+    public byte[] getSavedGivens() {
+        return savedGivens == null ? null : savedGivens.clone();
+    }
+
+    /**
+     * Gets the board of the game in progress.
+     *
+     * @return A copy of the 81 cells, or {@code null} if there is no saved game.
+     */
+    public byte[] getSavedBoard() {
+        return savedBoard == null ? null : savedBoard.clone();
+    }
+
+    /**
+     * Gets the elapsed time of the game in progress.
+     *
+     * @return The time in seconds (0 if there is no saved game).
+     */
+    public int getSavedSeconds() {
+        return savedSeconds;
+    }
+
+    /**
+     * Attaches the repository used by {@link #saveState()}.
+     *
+     * @param repository The repository, or {@code null} to keep the profile in memory only.
+     */
+    public void setRepository(ProfileRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Saves the user's profile to the attached repository. Without a repository nothing happens.
+     *
+     * @throws SudokuException if the repository cannot store the profile.
+     */
+    public void saveState() throws SudokuException {
+        if (repository != null) repository.save(this);
+    }
+
+    /**
+     * Returns a string representation of the User object.
+     *
+     * @return A string containing the username.
+     */
+    @Override
+    public String toString() {
+        return "User{" + "username='" + username + '\'' + '}';
+    }
+}
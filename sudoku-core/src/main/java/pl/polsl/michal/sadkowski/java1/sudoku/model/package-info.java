@@ -0,0 +1,9 @@
+/**
+ * Contains the Model classes for the Sudoku application: {@link pl.polsl.michal.sadkowski.java1.sudoku.model.Board},
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.model.User}, and the main wrapper class {@link pl.polsl.michal.sadkowski.java1.sudoku.model.SudokuGame}.
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry} holds the precomputed cell, unit and peer tables.
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.model.ProfileRepository} is where {@code User.saveState()} stores the profile.
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.model.Difficulty} maps solver ratings to difficulty levels.
+ * These classes store the application state and business logic.
+ */
+package pl.polsl.michal.sadkowski.java1.sudoku.model;
\ No newline at end of file
@@ -0,0 +1,233 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.BacktrackingSearch.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bitmask backtracking search with the "minimum remaining values" heuristic.
+ * Used digits of every row, column and box are kept as 9-bit masks, so the candidates of a cell
+ * are computed with three OR operations. Every node is charged to a {@link SolveBudget}.
+ * One instance is not thread-safe, but it is cheap to create.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (solve budgets)
+ */
+final class BacktrackingSearch {
+    private final byte[] grid = new byte[GridGeometry.CELLS];
+    private final int[] rows = new int[GridGeometry.SIZE];
+    private final int[] cols = new int[GridGeometry.SIZE];
+    private final int[] boxes = new int[GridGeometry.SIZE];
+
+    private byte[] firstSolution;
+    private long count;
+    private long limit;
+    private long nodes;
+    private SolveBudget budget;
+    private List<byte[]> subtrees;
+
+    /**
+     * Solves a puzzle within a budget, counting solutions up to the given limit.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @param limit The number of solutions after which the search stops.
+     * @param budget The budget every node is charged to.
+     * @return The outcome of the search.
+     */
+    SolveOutcome run(byte[] cells, int limit, SolveBudget budget) {
+        long start = System.nanoTime();
+        this.firstSolution = null;
+        this.count = 0;
+        this.nodes = 0;
+        this.limit = limit;
+        this.budget = budget;
+        try {
+            if (load(cells)) {
+                search();
+            }
+        } catch (SolveBudget.Exhausted e) {
+            return SolveOutcome.stopped(e, new SolveResult(firstSolution, (int) count, nodes), start);
+        }
+        return SolveOutcome.finished(new SolveResult(firstSolution, (int) count, nodes), start);
+    }
+
+    /**
+     * Checks the givens of a puzzle before any search: every value must be 0-9, and no digit may repeat
+     * in a row, column or box.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @return {@code false} if the givens already break a Sudoku rule or hold an invalid value.
+     */
+    static boolean hasValidGivens(byte[] cells) {
+        int[] used = new int[3 * GridGeometry.SIZE];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int v = cells[i];
+            if (v == 0) continue;
+            if (v < 0 || v > 9) return false;
+            int bit = 1 << v;
+            int r = GridGeometry.ROW_OF[i];
+            int c = GridGeometry.SIZE + GridGeometry.COL_OF[i];
+            int b = 2 * GridGeometry.SIZE + GridGeometry.BOX_OF[i];
+            if (((used[r] | used[c] | used[b]) & bit) != 0) return false;
+            used[r] |= bit;
+            used[c] |= bit;
+            used[b] |= bit;
+        }
+        return true;
+    }
+
+    /**
+     * Counts all solutions of a puzzle.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @return The exact number of solutions.
+     * @throws java.util.concurrent.CancellationException if the thread was interrupted during the search.
+     */
+    long countAll(byte[] cells) {
+        this.firstSolution = null;
+        this.count = 0;
+        this.nodes = 0;
+        this.limit = Long.MAX_VALUE;
+        this.budget = SolveBudget.unlimited();
+        if (load(cells)) {
+            search();
+        }
+        return count;
+    }
+
+    /**
+     * Splits the search tree of a puzzle at a fixed depth.
+     * The branching order is the same as in the search, so the split is deterministic:
+     * the same puzzle and depth always give the same subtrees in the same order.
+     * Branches that fail before the depth is reached are dropped; solutions found earlier become subtrees of their own.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @param depth The number of branching levels to expand.
+     * @return The grids at the roots of the subtrees; together they cover every solution exactly once.
+     */
+    List<byte[]> split(byte[] cells, int depth) {
+        subtrees = new ArrayList<>();
+        if (load(cells)) {
+            split(depth);
+        }
+        List<byte[]> result = subtrees;
+        subtrees = null;
+        return result;
+    }
+
+    /**
+     * Recursive step of {@link #split(byte[], int)}.
+     *
+     * @param depth The remaining number of levels.
+     */
+    private void split(int depth) {
+        int best = mostConstrainedCell();
+        if (best == -1 || depth == 0) {
+            subtrees.add(grid.clone());
+            return;
+        }
+        int r = GridGeometry.ROW_OF[best], c = GridGeometry.COL_OF[best], b = GridGeometry.BOX_OF[best];
+        int mask = candidates(best);
+        while (mask != 0) {
+            int bit = mask & -mask;
+            mask ^= bit;
+            grid[best] = (byte) Integer.numberOfTrailingZeros(bit);
+            rows[r] |= bit;
+            cols[c] |= bit;
+            boxes[b] |= bit;
+            split(depth - 1);
+            rows[r] ^= bit;
+            cols[c] ^= bit;
+            boxes[b] ^= bit;
+        }
+        grid[best] = 0;
+    }
+
+    /**
+     * Finds the empty cell with the fewest candidates, preferring the lowest index on ties.
+     *
+     * @return The cell index, or -1 if the grid is full.
+     */
+    private int mostConstrainedCell() {
+        int best = -1;
+        int bestCount = 10;
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if (grid[i] != 0) continue;
+            int n = Integer.bitCount(candidates(i));
+            if (n < bestCount) {
+                best = i;
+                bestCount = n;
+                if (n <= 1) break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Computes the candidates of a cell from the unit masks.
+     *
+     * @param i The cell index.
+     * @return The candidate bit mask.
+     */
+    private int candidates(int i) {
+        return ~(rows[GridGeometry.ROW_OF[i]] | cols[GridGeometry.COL_OF[i]] | boxes[GridGeometry.BOX_OF[i]])
+                & GridGeometry.ALL_DIGITS;
+    }
+
+    /**
+     * Copies the givens into the working grid and builds the unit masks.
+     *
+     * @param cells 81 cell values.
+     * @return {@code false} if the givens already break a Sudoku rule or hold an invalid value.
+     */
+    private boolean load(byte[] cells) {
+        Arrays.fill(rows, 0);
+        Arrays.fill(cols, 0);
+        Arrays.fill(boxes, 0);
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int v = cells[i];
+            grid[i] = (byte) v;
+            if (v == 0) continue;
+            if (v < 0 || v > 9) return false;
+            int bit = 1 << v;
+            int r = GridGeometry.ROW_OF[i], c = GridGeometry.COL_OF[i], b = GridGeometry.BOX_OF[i];
+            if (((rows[r] | cols[c] | boxes[b]) & bit) != 0) return false;
+            rows[r] |= bit;
+            cols[c] |= bit;
+            boxes[b] |= bit;
+        }
+        return true;
+    }
+
+    /**
+     * Recursive search step: picks the empty cell with the fewest candidates and tries each of them.
+     */
+    private void search() {
+        budget.check(++nodes);
+        int best = mostConstrainedCell();
+        if (best == -1) {
+            count++;
+            if (firstSolution == null) firstSolution = grid.clone();
+            return;
+        }
+        int r = GridGeometry.ROW_OF[best], c = GridGeometry.COL_OF[best], b = GridGeometry.BOX_OF[best];
+        int bestMask = candidates(best);
+        while (bestMask != 0 && count < limit) {
+            int bit = bestMask & -bestMask;
+            bestMask ^= bit;
+            grid[best] = (byte) Integer.numberOfTrailingZeros(bit);
+            rows[r] |= bit;
+            cols[c] |= bit;
+            boxes[b] |= bit;
+            search();
+            rows[r] ^= bit;
+            cols[c] ^= bit;
+            boxes[b] ^= bit;
+        }
+        grid[best] = 0;
+    }
+}
@@ -0,0 +1,124 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.BulkValidator.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.util.BitSet;
+
+/**
+ * Validates large numbers of completed boards at once.
+ * Boards are packed one after another, 81 bytes each (values 1-9 in row-major order).
+ * A board is valid if every row, column and box contains each digit exactly once.
+ * <p>
+ * When the {@code jdk.incubator.vector} module is available (start the JVM with
+ * {@code --add-modules jdk.incubator.vector}) the boards are checked in SIMD lanes, one board per lane;
+ * otherwise a scalar loop is used. Both paths give identical results.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class BulkValidator {
+    /** Bit of every digit value; 0 for values outside 1-9, so such cells never validate. */
+    static final short[] DIGIT_BIT = new short[256];
+    /** {@code true} if the Vector API can be used in this JVM. */
+    private static final boolean VECTOR_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("sudoku.vector.disable");
+
+    static {
+        for (int v = 1; v <= 9; v++) {
+            DIGIT_BIT[v] = (short) (1 << v);
+        }
+    }
+
+    /** Utility class, no instances. */
+    private BulkValidator() {
+    }
+
+    /**
+     * Checks whether the vectorized path is used.
+     *
+     * @return {@code true} if boards are validated with the Vector API.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Validates packed boards, using SIMD lanes when available.
+     *
+     * @param boards The packed boards, 81 bytes each.
+     * @param count The number of boards to check.
+     * @return A bit set in which bit {@code i} is set if board {@code i} is valid.
+     * @throws IllegalArgumentException if the array holds fewer than {@code count} boards.
+     */
+    public static BitSet validate(byte[] boards, int count) {
+        checkSize(boards, count);
+        long[] words = new long[(count + 63) >>> 6];
+        int done = VECTOR_AVAILABLE ? VectorGridValidator.validate(boards, count, words) : 0;
+        validateScalar(boards, done, count, words);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Validates packed boards with the scalar loop only.
+     *
+     * @param boards The packed boards, 81 bytes each.
+     * @param count The number of boards to check.
+     * @return A bit set in which bit {@code i} is set if board {@code i} is valid.
+     * @throws IllegalArgumentException if the array holds fewer than {@code count} boards.
+     */
+    public static BitSet validateScalar(byte[] boards, int count) {
+        checkSize(boards, count);
+        long[] words = new long[(count + 63) >>> 6];
+        validateScalar(boards, 0, count, words);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Scalar validation of a range of boards.
+     *
+     * @param boards The packed boards.
+     * @param from The first board to check.
+     * @param to The board after the last one to check.
+     * @param words The result bits.
+     */
+    private static void validateScalar(byte[] boards, int from, int to, long[] words) {
+        for (int i = from; i < to; i++) {
+            if (isValid(boards, i * GridGeometry.CELLS)) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Validates one board.
+     *
+     * @param boards The packed boards.
+     * @param base The offset of the board.
+     * @return {@code true} if all 27 units contain the digits 1-9.
+     */
+    private static boolean isValid(byte[] boards, int base) {
+        for (int[] unit : GridGeometry.UNIT_CELLS) {
+            int seen = 0;
+            for (int cell : unit) {
+                seen |= DIGIT_BIT[boards[base + cell] & 0xFF];
+            }
+            if (seen != GridGeometry.ALL_DIGITS) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the array is large enough.
+     *
+     * @param boards The packed boards.
+     * @param count The number of boards.
+     */
+    private static void checkSize(byte[] boards, int count) {
+        if (count < 0 || (long) count * GridGeometry.CELLS > boards.length) {
+            throw new IllegalArgumentException("The array holds fewer than " + count + " boards.");
+        }
+    }
+}
@@ -0,0 +1,222 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.DlxSolver.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+/**
+ * Exact-cover solver using Knuth's Algorithm X with dancing links.
+ * Sudoku is encoded as 729 candidate rows (cell, digit) and 324 constraint columns
+ * (cell filled, digit in row, digit in column, digit in box). The links are kept in flat
+ * {@code int} arrays instead of node objects. Instances are thread-safe; every call builds its own matrix.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (solve budgets)
+ */
+public class DlxSolver implements SolverStrategy {
+    /** Number of constraint columns. */
+    private static final int COLUMNS = 4 * GridGeometry.CELLS;
+    /** Number of candidate rows. */
+    private static final int ROWS = GridGeometry.CELLS * GridGeometry.SIZE;
+    /** Index of the root header node. */
+    private static final int ROOT = 0;
+
+    /**
+     * Creates a dancing-links solver. It keeps no state between calls.
+     */
+    public DlxSolver() {
+    }
+
+    /**
+     * Gets the name of the strategy.
+     *
+     * @return {@code "dlx"}.
+     */
+    @Override
+    public String getName() {
+        return "dlx";
+    }
+
+    /**
+     * Solves a puzzle within a budget, counting solutions up to two.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @param budget The node limit, deadline and cancellation token of the call.
+     * @return The outcome; the rating of the result is the number of search nodes.
+     */
+    @Override
+    public SolveOutcome solve(byte[] cells, SolveBudget budget) {
+        long start = System.nanoTime();
+        Matrix matrix = new Matrix(budget);
+        try {
+            return SolveOutcome.finished(matrix.run(cells), start);
+        } catch (SolveBudget.Exhausted e) {
+            return SolveOutcome.stopped(e, new SolveResult(matrix.solution, matrix.count, matrix.nodes), start);
+        }
+    }
+
+    /**
+     * The dancing-links matrix of one solve call.
+     */
+    private static final class Matrix {
+        private final int[] left;
+        private final int[] right;
+        private final int[] up;
+        private final int[] down;
+        private final int[] column;
+        private final int[] rowOf;
+        private final int[] size = new int[COLUMNS + 1];
+        /** First node of every candidate row. */
+        private final int[] rowStart = new int[ROWS];
+        private final int[] chosen = new int[GridGeometry.CELLS];
+        private int depth;
+        private byte[] solution;
+        private int count;
+        private long nodes;
+        /** The budget every node is charged to. */
+        private final SolveBudget budget;
+
+        /**
+         * Builds the full 729 x 324 matrix.
+         *
+         * @param budget The budget every node is charged to.
+         */
+        Matrix(SolveBudget budget) {
+            this.budget = budget;
+            int total = 1 + COLUMNS + 4 * ROWS;
+            left = new int[total];
+            right = new int[total];
+            up = new int[total];
+            down = new int[total];
+            column = new int[total];
+            rowOf = new int[total];
+            for (int c = 0; c <= COLUMNS; c++) {
+                left[c] = c == 0 ? COLUMNS : c - 1;
+                right[c] = c == COLUMNS ? 0 : c + 1;
+                up[c] = c;
+                down[c] = c;
+                column[c] = c;
+            }
+            int node = COLUMNS + 1;
+            for (int cell = 0; cell < GridGeometry.CELLS; cell++) {
+                int r = GridGeometry.ROW_OF[cell], c = GridGeometry.COL_OF[cell], b = GridGeometry.BOX_OF[cell];
+                for (int d = 0; d < GridGeometry.SIZE; d++) {
+                    int row = cell * GridGeometry.SIZE + d;
+                    int[] cols = {
+                        1 + cell,
+                        1 + GridGeometry.CELLS + r * 9 + d,
+                        1 + 2 * GridGeometry.CELLS + c * 9 + d,
+                        1 + 3 * GridGeometry.CELLS + b * 9 + d
+                    };
+                    rowStart[row] = node;
+                    for (int k = 0; k < 4; k++) {
+                        int n = node + k;
+                        int col = cols[k];
+                        column[n] = col;
+                        rowOf[n] = row;
+                        up[n] = up[col];
+                        down[n] = col;
+                        down[up[col]] = n;
+                        up[col] = n;
+                        size[col]++;
+                        left[n] = node + (k + 3) % 4;
+                        right[n] = node + (k + 1) % 4;
+                    }
+                    node += 4;
+                }
+            }
+        }
+
+        /**
+         * Places the givens and runs the search.
+         *
+         * @param cells The puzzle.
+         * @return The result.
+         */
+        SolveResult run(byte[] cells) {
+            boolean[] covered = new boolean[COLUMNS + 1];
+            for (int cell = 0; cell < GridGeometry.CELLS; cell++) {
+                int v = cells[cell];
+                if (v == 0) continue;
+                if (v < 0 || v > 9) return new SolveResult(null, 0, 0);
+                int start = rowStart[cell * GridGeometry.SIZE + v - 1];
+                int n = start;
+                do {
+                    if (covered[column[n]]) return new SolveResult(null, 0, 0);
+                    covered[column[n]] = true;
+                    cover(column[n]);
+                    n = right[n];
+                } while (n != start);
+                chosen[depth++] = start;
+            }
+            search();
+            return new SolveResult(solution, count, nodes);
+        }
+
+        /**
+         * Algorithm X: picks the column with the fewest rows and tries each of them.
+         */
+        private void search() {
+            budget.check(++nodes);
+            if (right[ROOT] == ROOT) {
+                count++;
+                if (solution == null) {
+                    solution = new byte[GridGeometry.CELLS];
+                    for (int i = 0; i < depth; i++) {
+                        int row = rowOf[chosen[i]];
+                        solution[row / GridGeometry.SIZE] = (byte) (row % GridGeometry.SIZE + 1);
+                    }
+                }
+                return;
+            }
+            int best = right[ROOT];
+            for (int c = right[best]; c != ROOT; c = right[c]) {
+                if (size[c] < size[best]) best = c;
+            }
+            if (size[best] == 0) return;
+            cover(best);
+            for (int r = down[best]; r != best && count < 2; r = down[r]) {
+                chosen[depth++] = r;
+                for (int j = right[r]; j != r; j = right[j]) cover(column[j]);
+                search();
+                for (int j = left[r]; j != r; j = left[j]) uncover(column[j]);
+                depth--;
+            }
+            uncover(best);
+        }
+
+        /**
+         * Removes a column and all rows that intersect it.
+         *
+         * @param c The column header.
+         */
+        private void cover(int c) {
+            right[left[c]] = right[c];
+            left[right[c]] = left[c];
+            for (int i = down[c]; i != c; i = down[i]) {
+                for (int j = right[i]; j != i; j = right[j]) {
+                    down[up[j]] = down[j];
+                    up[down[j]] = up[j];
+                    size[column[j]]--;
+                }
+            }
+        }
+
+        /**
+         * Restores a column removed by {@link #cover(int)}.
+         *
+         * @param c The column header.
+         */
+        private void uncover(int c) {
+            for (int i = up[c]; i != c; i = up[i]) {
+                for (int j = left[i]; j != i; j = left[j]) {
+                    size[column[j]]++;
+                    down[up[j]] = j;
+                    up[down[j]] = j;
+                }
+            }
+            right[left[c]] = c;
+            left[right[c]] = c;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.FrequencySketch.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+/**
+ * Approximate access-frequency counter (a Count-Min sketch with small saturating counters).
+ * It is the "TinyLFU" admission filter of the {@link SolutionCache}: a new entry may only push out
+ * the least recently used one if it was requested more often. All counters are halved periodically,
+ * so old popularity fades away. Not thread-safe; the cache guards it with the segment lock.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+final class FrequencySketch {
+    /** Number of hash rows. */
+    private static final int DEPTH = 4;
+    /** Saturation value of a counter. */
+    private static final int MAX_COUNT = 15;
+    /** Per-row seeds for the hash functions. */
+    private static final long[] SEEDS = {
+        0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a sketch sized for the given cache capacity.
+     *
+     * @param capacity The maximum number of cached entries.
+     */
+    FrequencySketch(int capacity) {
+        int width = Integer.highestOneBit(Math.max(16, capacity * 4) - 1) << 1;
+        this.table = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = Math.max(160, capacity * 10);
+    }
+
+    /**
+     * Records one access of a key.
+     *
+     * @param hash The 64-bit hash of the key.
+     */
+    void increment(long hash) {
+        boolean added = false;
+        for (int d = 0; d < DEPTH; d++) {
+            int slot = slot(hash, d);
+            if (table[d][slot] < MAX_COUNT) {
+                table[d][slot]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Estimates how often a key was accessed recently.
+     *
+     * @param hash The 64-bit hash of the key.
+     * @return The estimated frequency (0-15).
+     */
+    int frequency(long hash) {
+        int min = MAX_COUNT;
+        for (int d = 0; d < DEPTH; d++) {
+            min = Math.min(min, table[d][slot(hash, d)]);
+        }
+        return min;
+    }
+
+    /**
+     * Computes the counter index of a key in one row.
+     *
+     * @param hash The key hash.
+     * @param row The row number.
+     * @return The counter index.
+     */
+    private int slot(long hash, int row) {
+        long h = (hash ^ SEEDS[row]) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    /**
+     * Halves all counters so that the sketch follows recent popularity.
+     */
+    private void reset() {
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+        additions /= 2;
+    }
+}
@@ -0,0 +1,86 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.GridKey.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.util.Arrays;
+
+/**
+ * Compact, immutable hash key of an 81-cell grid.
+ * Every cell is packed into 4 bits, so the whole grid fits into six {@code long} words
+ * and equality is a comparison of six numbers instead of 81 bytes.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class GridKey {
+    /** Number of cells stored in one 64-bit word. */
+    private static final int CELLS_PER_WORD = 16;
+    /** The packed cells. */
+    private final long[] words;
+    /** Cached hash code. */
+    private final int hash;
+
+    /**
+     * Creates a key from the given words.
+     *
+     * @param words The packed cells.
+     */
+    private GridKey(long[] words) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    /**
+     * Packs a grid into a key.
+     *
+     * @param cells 81 cell values (0-9).
+     * @return The key of the grid.
+     */
+    public static GridKey of(byte[] cells) {
+        long[] words = new long[(GridGeometry.CELLS + CELLS_PER_WORD - 1) / CELLS_PER_WORD];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            words[i >>> 4] |= (long) (cells[i] & 0xF) << ((i & 15) << 2);
+        }
+        return new GridKey(words);
+    }
+
+    /**
+     * Compares this key with another object.
+     *
+     * @param o The other object.
+     * @return {@code true} if the other object is a key of the same grid.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GridKey)) return false;
+        GridKey other = (GridKey) o;
+        return hash == other.hash && Arrays.equals(words, other.words);
+    }
+
+    /**
+     * Returns the cached hash code of the key.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Returns a 64-bit hash of the key, used by frequency sketches and file indexes.
+     *
+     * @return A well-mixed 64-bit hash.
+     */
+    public long longHash() {
+        long h = 0x9E3779B97F4A7C15L;
+        for (long w : words) {
+            h = (h ^ w) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,133 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.GridTransform.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+/**
+ * Cheap canonical form of a puzzle used as a cache key.
+ * Digits are relabelled in order of first appearance and the grid is optionally transposed,
+ * whichever of the two orientations gives the lexicographically smaller grid.
+ * This maps relabelled and mirrored copies of the same puzzle to one key, while the
+ * transformation can be reversed to map a canonical solution back to the original puzzle.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+final class GridTransform {
+    /** {@code true} if the canonical grid is the transposed original. */
+    private final boolean transposed;
+    /** Maps an original digit (index) to the canonical digit. */
+    private final byte[] forward;
+    /** Maps a canonical digit (index) back to the original digit. */
+    private final byte[] inverse;
+
+    /**
+     * Creates a transformation.
+     *
+     * @param transposed Whether the grid was transposed.
+     * @param inverse The canonical-to-original digit map.
+     */
+    private GridTransform(boolean transposed, byte[] inverse) {
+        this.transposed = transposed;
+        this.inverse = inverse;
+        this.forward = new byte[10];
+        for (int d = 1; d <= 9; d++) {
+            forward[inverse[d]] = (byte) d;
+        }
+    }
+
+    /**
+     * Computes the canonical form of a grid.
+     *
+     * @param cells The original 81 cells.
+     * @param out The array that receives the canonical 81 cells.
+     * @return The transformation that maps canonical grids back to the original orientation and digits.
+     */
+    static GridTransform canonicalize(byte[] cells, byte[] out) {
+        byte[] plain = new byte[GridGeometry.CELLS];
+        byte[] flipped = new byte[GridGeometry.CELLS];
+        byte[] plainInverse = relabel(cells, false, plain);
+        byte[] flippedInverse = relabel(cells, true, flipped);
+        boolean useFlipped = compare(flipped, plain) < 0;
+        System.arraycopy(useFlipped ? flipped : plain, 0, out, 0, GridGeometry.CELLS);
+        return new GridTransform(useFlipped, useFlipped ? flippedInverse : plainInverse);
+    }
+
+    /**
+     * Maps a grid in canonical form back to the original orientation and digits.
+     *
+     * @param canonical 81 canonical cells (typically a solution).
+     * @return A new array with the original cells.
+     */
+    byte[] toOriginal(byte[] canonical) {
+        byte[] result = new byte[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int target = transposed ? GridGeometry.COL_OF[i] * GridGeometry.SIZE + GridGeometry.ROW_OF[i] : i;
+            result[target] = inverse[canonical[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Applies the same transformation to another grid of the original puzzle (typically its solution).
+     *
+     * @param original 81 cells in the original orientation and digits.
+     * @return A new array with the canonical cells.
+     */
+    byte[] toCanonical(byte[] original) {
+        byte[] result = new byte[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int source = transposed ? GridGeometry.COL_OF[i] * GridGeometry.SIZE + GridGeometry.ROW_OF[i] : i;
+            result[i] = forward[original[source]];
+        }
+        return result;
+    }
+
+    /**
+     * Relabels digits in order of first appearance.
+     *
+     * @param cells The original cells.
+     * @param transpose Whether to read the grid column by column.
+     * @param out The array receiving the relabelled cells.
+     * @return The inverse digit map (canonical digit to original digit).
+     */
+    private static byte[] relabel(byte[] cells, boolean transpose, byte[] out) {
+        byte[] forward = new byte[10];
+        byte[] inverse = new byte[10];
+        int next = 1;
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int source = transpose ? GridGeometry.COL_OF[i] * GridGeometry.SIZE + GridGeometry.ROW_OF[i] : i;
+            int v = cells[source];
+            if (v != 0 && forward[v] == 0) {
+                forward[v] = (byte) next;
+                inverse[next] = (byte) v;
+                next++;
+            }
+            out[i] = forward[v];
+        }
+        // Digits missing from the puzzle get the remaining labels, so the map stays a permutation.
+        for (int v = 1; v <= 9; v++) {
+            if (forward[v] == 0) {
+                forward[v] = (byte) next;
+                inverse[next] = (byte) v;
+                next++;
+            }
+        }
+        return inverse;
+    }
+
+    /**
+     * Lexicographically compares two grids.
+     *
+     * @param a The first grid.
+     * @param b The second grid.
+     * @return A negative number, zero or a positive number as {@code a} is smaller, equal or greater.
+     */
+    private static int compare(byte[] a, byte[] b) {
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if (a[i] != b[i]) return a[i] - b[i];
+        }
+        return 0;
+    }
+}
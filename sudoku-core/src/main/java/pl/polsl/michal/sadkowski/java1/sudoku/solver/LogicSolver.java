@@ -0,0 +1,200 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.LogicSolver.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+/**
+ * Human-style solver: applies naked and hidden singles until nothing changes and only then guesses,
+ * on the cell with the fewest candidates. Puzzles that logic alone finishes need a single node.
+ * The same search, stopped at the first solution and at a node budget, answers whether a partly filled board
+ * can still be completed ({@link #checkSolvable(byte[], long)}).
+ * Instances are thread-safe; every call works on its own candidate arrays.
+ *
+ * @author Michał Sadkowski
+ * @version 1.2 (solve budgets)
+ */
+public class LogicSolver implements SolverStrategy {
+
+    /**
+     * Creates a logic solver. It keeps no state between calls.
+     */
+    public LogicSolver() {
+    }
+
+    /**
+     * Gets the name of the strategy.
+     *
+     * @return {@code "logic"}.
+     */
+    @Override
+    public String getName() {
+        return "logic";
+    }
+
+    /**
+     * Solves a puzzle within a budget, counting solutions up to two.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @param budget The node limit, deadline and cancellation token of the call.
+     * @return The outcome; the rating of the result is the number of guesses plus one.
+     */
+    @Override
+    public SolveOutcome solve(byte[] cells, SolveBudget budget) {
+        long start = System.nanoTime();
+        int[] cand = candidates(cells);
+        if (cand == null) return SolveOutcome.finished(new SolveResult(null, 0, 0), start);
+        Search search = new Search(2, budget);
+        try {
+            search.run(cand);
+        } catch (SolveBudget.Exhausted e) {
+            return SolveOutcome.stopped(e, new SolveResult(search.solution, search.count, search.nodes), start);
+        }
+        return SolveOutcome.finished(new SolveResult(search.solution, search.count, search.nodes), start);
+    }
+
+    /**
+     * Checks whether a board can still be completed. The first node is pure propagation, which settles most
+     * positions; only if it neither finishes the board nor finds a contradiction does the search guess, and it
+     * stops at the first solution or after {@code maxNodes} nodes.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @param maxNodes The node budget; at least one node is always visited.
+     * @return Whether a completion exists, or {@link Solvability#UNKNOWN} if the budget ran out first.
+     * @throws java.util.concurrent.CancellationException if the thread was interrupted during the search.
+     */
+    public Solvability checkSolvable(byte[] cells, long maxNodes) {
+        int[] cand = candidates(cells);
+        if (cand == null) return Solvability.DEAD_END;
+        Search search = new Search(1, SolveBudget.ofNodes(Math.max(maxNodes, 1)));
+        try {
+            search.run(cand);
+        } catch (SolveBudget.Exhausted e) {
+            if (e.getStatus() != SolveOutcome.Status.NODE_LIMIT) throw e;
+            return Solvability.UNKNOWN;
+        }
+        return search.count > 0 ? Solvability.SOLVABLE : Solvability.DEAD_END;
+    }
+
+    /**
+     * Builds the candidate masks of a board.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @return The masks, or {@code null} if a value is outside 0-9.
+     */
+    private static int[] candidates(byte[] cells) {
+        int[] cand = new int[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int v = cells[i];
+            if (v < 0 || v > 9) return null;
+            cand[i] = v == 0 ? GridGeometry.ALL_DIGITS : 1 << v;
+        }
+        return cand;
+    }
+
+    /**
+     * State of one solve call.
+     */
+    private static final class Search {
+        private byte[] solution;
+        private int count;
+        private long nodes;
+        /** Solutions after which the search stops. */
+        private final int wanted;
+        /** The budget every node is charged to. */
+        private final SolveBudget budget;
+
+        /**
+         * Creates the state of one call.
+         *
+         * @param wanted Solutions after which the search stops.
+         * @param budget The budget every node is charged to.
+         */
+        Search(int wanted, SolveBudget budget) {
+            this.wanted = wanted;
+            this.budget = budget;
+        }
+
+        /**
+         * Propagates, then guesses recursively.
+         *
+         * @param cand The candidate masks; modified in place.
+         */
+        void run(int[] cand) {
+            budget.check(++nodes);
+            if (!propagate(cand)) return;
+            int best = -1;
+            int bestCount = 10;
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                int n = Integer.bitCount(cand[i]);
+                if (n > 1 && n < bestCount) {
+                    best = i;
+                    bestCount = n;
+                    if (n == 2) break;
+                }
+            }
+            if (best == -1) {
+                count++;
+                if (solution == null) {
+                    solution = new byte[GridGeometry.CELLS];
+                    for (int i = 0; i < GridGeometry.CELLS; i++) {
+                        solution[i] = (byte) Integer.numberOfTrailingZeros(cand[i]);
+                    }
+                }
+                return;
+            }
+            int mask = cand[best];
+            while (mask != 0 && count < wanted) {
+                int bit = mask & -mask;
+                mask ^= bit;
+                int[] guess = cand.clone();
+                guess[best] = bit;
+                run(guess);
+            }
+        }
+
+        /**
+         * Applies naked and hidden singles until a fixed point is reached.
+         *
+         * @param cand The candidate masks.
+         * @return {@code false} if a contradiction was found.
+         */
+        private boolean propagate(int[] cand) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int i = 0; i < GridGeometry.CELLS; i++) {
+                    int c = cand[i];
+                    if (c == 0) return false;
+                    if ((c & (c - 1)) != 0) continue;
+                    for (int peer : GridGeometry.PEERS[i]) {
+                        if ((cand[peer] & c) != 0) {
+                            cand[peer] &= ~c;
+                            if (cand[peer] == 0) return false;
+                            changed = true;
+                        }
+                    }
+                }
+                for (int[] unit : GridGeometry.UNIT_CELLS) {
+                    int once = 0;
+                    int more = 0;
+                    for (int cell : unit) {
+                        more |= once & cand[cell];
+                        once |= cand[cell];
+                    }
+                    if (once != GridGeometry.ALL_DIGITS) return false;
+                    int hidden = once & ~more;
+                    if (hidden == 0) continue;
+                    for (int cell : unit) {
+                        int h = cand[cell] & hidden;
+                        if (h == 0 || h == cand[cell]) continue;
+                        if ((h & (h - 1)) != 0) return false;
+                        cand[cell] = h;
+                        changed = true;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.MultiPuzzleSolver.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+/**
+ * Batch solver for large sets of puzzles that are mostly solvable by propagation.
+ * <p>
+ * Puzzles are propagated in blocks, one puzzle per SIMD lane, by the bit-sliced {@link VectorPropagator}.
+ * Lanes finished by propagation are unique solutions and lanes with a contradiction have no solution;
+ * only puzzles that need branching are handed, already reduced, to the scalar {@link SudokuSolver}.
+ * Without the {@code jdk.incubator.vector} module every puzzle goes to the scalar solver.
+ * One instance is not thread-safe; use one per thread.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public class MultiPuzzleSolver {
+    /** Solver for puzzles that propagation alone cannot finish. */
+    private final SudokuSolver fallback;
+    /** Lane propagator, or {@code null} without the Vector API. */
+    private final VectorPropagator propagator;
+
+    private long propagated;
+    private long contradictions;
+    private long searched;
+
+    /**
+     * Creates a batch solver.
+     *
+     * @param fallback The scalar solver used for puzzles that need search.
+     */
+    public MultiPuzzleSolver(SudokuSolver fallback) {
+        this.fallback = fallback;
+        this.propagator = BulkValidator.isVectorized() ? new VectorPropagator() : null;
+    }
+
+    /**
+     * Solves packed puzzles.
+     *
+     * @param puzzles The puzzles, 81 bytes each (0 = empty).
+     * @param count The number of puzzles.
+     * @return One result per puzzle.
+     * @throws IllegalArgumentException if the array holds fewer than {@code count} puzzles.
+     */
+    public SolveResult[] solveAll(byte[] puzzles, int count) {
+        if (count < 0 || (long) count * GridGeometry.CELLS > puzzles.length) {
+            throw new IllegalArgumentException("The array holds fewer than " + count + " puzzles.");
+        }
+        SolveResult[] results = new SolveResult[count];
+        int done = 0;
+        if (propagator != null) {
+            int lanes = VectorPropagator.LANES;
+            byte[] grids = new byte[GridGeometry.CELLS * lanes];
+            byte[] status = new byte[lanes];
+            for (; done + lanes <= count; done += lanes) {
+                propagator.run(puzzles, done, grids, status);
+                for (int lane = 0; lane < lanes; lane++) {
+                    results[done + lane] = finish(grids, lane * GridGeometry.CELLS, status[lane]);
+                }
+            }
+        }
+        byte[] single = new byte[GridGeometry.CELLS];
+        for (int i = done; i < count; i++) {
+            System.arraycopy(puzzles, i * GridGeometry.CELLS, single, 0, GridGeometry.CELLS);
+            results[i] = fallback.solve(single);
+            searched++;
+        }
+        return results;
+    }
+
+    /**
+     * Checks whether puzzles are propagated in SIMD lanes.
+     *
+     * @return {@code true} if the Vector API is used.
+     */
+    public static boolean isVectorized() {
+        return BulkValidator.isVectorized();
+    }
+
+    /**
+     * Gets the number of puzzles solved by propagation alone.
+     *
+     * @return The count.
+     */
+    public long getPropagatedCount() {
+        return propagated;
+    }
+
+    /**
+     * Gets the number of puzzles found unsolvable by propagation.
+     *
+     * @return The count.
+     */
+    public long getContradictionCount() {
+        return contradictions;
+    }
+
+    /**
+     * Gets the number of puzzles passed to the scalar solver.
+     *
+     * @return The count.
+     */
+    public long getSearchedCount() {
+        return searched;
+    }
+
+    /**
+     * Converts the outcome of one lane into a result.
+     *
+     * @param grids The propagated grids of the block.
+     * @param offset The offset of the lane's grid.
+     * @param status The lane status.
+     * @return The result of the puzzle.
+     */
+    private SolveResult finish(byte[] grids, int offset, byte status) {
+        byte[] grid = new byte[GridGeometry.CELLS];
+        System.arraycopy(grids, offset, grid, 0, GridGeometry.CELLS);
+        if (status == VectorPropagator.SOLVED) {
+            propagated++;
+            // Every step of propagation is forced, so a grid it completes is the only solution.
+            return new SolveResult(grid, 1, 0);
+        }
+        if (status == VectorPropagator.CONTRADICTION) {
+            contradictions++;
+            return new SolveResult(null, 0, 0);
+        }
+        searched++;
+        return fallback.solve(grid);
+    }
+}
@@ -0,0 +1,191 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.PortfolioSolver.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.Board;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Races several solving strategies against the same puzzle on virtual threads.
+ * The first strategy to finish wins and the others are cancelled, so the latency of a solve is
+ * the latency of the strategy that suits the puzzle best. All strategies of a race share one {@link SolveBudget}
+ * whose deadline bounds the whole race and which is cancelled as soon as the race is decided, and the
+ * solver counts how often each strategy wins.
+ * Instances are thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (solve budgets)
+ */
+public class PortfolioSolver {
+    private final List<SolverStrategy> strategies;
+    private final Duration deadline;
+    /** Wins per strategy name, in strategy order. */
+    private final Map<String, LongAdder> wins = new LinkedHashMap<>();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Result of a race: the winning strategy and its result.
+     */
+    public static class Outcome {
+        private final String strategy;
+        private final SolveResult result;
+        private final long elapsedNanos;
+
+        /**
+         * Creates an outcome.
+         *
+         * @param strategy The name of the winning strategy.
+         * @param result The result of the winner.
+         * @param elapsedNanos The time from the start of the race to the win.
+         */
+        Outcome(String strategy, SolveResult result, long elapsedNanos) {
+            this.strategy = strategy;
+            this.result = result;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the name of the winning strategy.
+         *
+         * @return The strategy name.
+         */
+        public String getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * Gets the result of the winning strategy.
+         *
+         * @return The solve result.
+         */
+        public SolveResult getResult() {
+            return result;
+        }
+
+        /**
+         * Gets the race time.
+         *
+         * @return The elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    /**
+     * Creates a portfolio.
+     *
+     * @param strategies The competing strategies (at least one, with distinct names).
+     * @param deadline The maximum time a race may take.
+     */
+    public PortfolioSolver(List<SolverStrategy> strategies, Duration deadline) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one strategy.");
+        }
+        this.strategies = List.copyOf(strategies);
+        this.deadline = deadline;
+        for (SolverStrategy s : this.strategies) {
+            wins.put(s.getName(), new LongAdder());
+        }
+    }
+
+    /**
+     * Creates a portfolio of the bitmask backtracking, dancing links and logic-plus-guessing strategies.
+     * The backtracking strategy runs without a cache, so every race measures real solving.
+     *
+     * @param deadline The maximum time a race may take.
+     * @return The portfolio.
+     */
+    public static PortfolioSolver withDefaultStrategies(Duration deadline) {
+        return new PortfolioSolver(List.of(new SudokuSolver(), new DlxSolver(), new LogicSolver()), deadline);
+    }
+
+    /**
+     * Solves the current state of a board.
+     *
+     * @param board The board; it is copied before the race starts and not modified.
+     * @return The winning strategy and its result.
+     * @throws TimeoutException if no strategy finished before the deadline.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    public Outcome solve(Board board) throws TimeoutException, InterruptedException {
+        return solve(board.snapshot());
+    }
+
+    /**
+     * Races all strategies on a puzzle.
+     *
+     * @param cells 81 cell values (0 = empty); each strategy gets its own copy.
+     * @return The winning strategy and its result.
+     * @throws TimeoutException if no strategy finished before the deadline.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    public Outcome solve(byte[] cells) throws TimeoutException, InterruptedException {
+        if (cells.length != GridGeometry.CELLS) {
+            throw new IllegalArgumentException("A grid must have exactly 81 cells.");
+        }
+        long start = System.nanoTime();
+        SolveBudget budget = SolveBudget.ofTime(deadline);
+        List<Callable<Outcome>> tasks = new ArrayList<>(strategies.size());
+        for (SolverStrategy strategy : strategies) {
+            byte[] copy = Arrays.copyOf(cells, cells.length);
+            tasks.add(() -> new Outcome(strategy.getName(), strategy.solve(copy, budget).completed(),
+                    System.nanoTime() - start));
+        }
+        Outcome winner;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            winner = executor.invokeAny(tasks, deadline.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                timeouts.increment();
+                throw new TimeoutException("No strategy finished before the deadline.");
+            }
+            throw new IllegalStateException("All strategies failed.", e.getCause());
+        } finally {
+            budget.cancel();
+        }
+        wins.get(winner.getStrategy()).increment();
+        return winner;
+    }
+
+    /**
+     * Gets how often each strategy has won so far.
+     *
+     * @return Win counts by strategy name, in strategy order.
+     */
+    public Map<String, Long> getWinCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, LongAdder> e : wins.entrySet()) {
+            result.put(e.getKey(), e.getValue().sum());
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of races that hit the deadline.
+     *
+     * @return The timeout count.
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+}
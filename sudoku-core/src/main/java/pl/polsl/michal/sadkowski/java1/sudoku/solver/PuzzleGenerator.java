@@ -0,0 +1,189 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.PuzzleGenerator.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Deterministic generator of puzzles with a unique solution.
+ * <p>
+ * A puzzle depends only on its seed: the three diagonal boxes of an empty grid are filled with shuffled digits,
+ * the grid is completed by an uncached {@link SudokuSolver}, and then every cell, in a shuffled order, is emptied
+ * unless that would make the solution ambiguous. All random choices come from one {@link SplittableRandom}
+ * created from the seed, so the same seed gives the same puzzle on every machine and thread.
+ * <p>
+ * {@link #generateAll} gives puzzle {@code i} of a pack the seed {@code firstSeed + i} and hands out chunks of
+ * consecutive seeds to the worker threads. Finished chunks are passed to the sink strictly in seed order, so
+ * the output is identical for any number of threads, while the workers never wait for each other.
+ * One instance is not thread-safe; use one per thread.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public class PuzzleGenerator {
+    /** Seeds given to a worker at a time. */
+    public static final int CHUNK_SIZE = 64;
+    /** Chunks in flight per worker, so that a slow chunk does not stall the others. */
+    private static final int CHUNKS_AHEAD = 4;
+
+    /** Completes grids and checks uniqueness; uncached, so results never depend on other work. */
+    private final SudokuSolver solver = new SudokuSolver();
+    /** The cells in removal order. */
+    private final int[] order = new int[GridGeometry.CELLS];
+    /** Digits to shuffle into a box. */
+    private final byte[] digits = new byte[GridGeometry.SIZE];
+
+    /**
+     * Receives generated puzzles in seed order.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * Takes one puzzle. The array is reused after the call returns.
+         *
+         * @param index The number of the puzzle in the pack (its seed minus the first seed).
+         * @param puzzle The 81 givens (0 = empty).
+         * @param rating The solver rating of the puzzle.
+         * @throws IOException if the puzzle cannot be stored; generation stops.
+         */
+        void accept(long index, byte[] puzzle, long rating) throws IOException;
+    }
+
+    /**
+     * Creates a generator.
+     */
+    public PuzzleGenerator() {
+    }
+
+    /**
+     * Generates the puzzle of a seed.
+     *
+     * @param seed The seed.
+     * @param puzzle Receives the 81 givens (0 = empty).
+     * @return The solver rating of the puzzle (number of search nodes).
+     */
+    public long generate(long seed, byte[] puzzle) {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] grid = new byte[GridGeometry.CELLS];
+        for (int box = 0; box < GridGeometry.SIZE; box += 4) {
+            for (int d = 0; d < GridGeometry.SIZE; d++) digits[d] = (byte) (d + 1);
+            for (int d = GridGeometry.SIZE - 1; d > 0; d--) {
+                int k = random.nextInt(d + 1);
+                byte t = digits[d];
+                digits[d] = digits[k];
+                digits[k] = t;
+            }
+            int[] cells = GridGeometry.UNIT_CELLS[2 * GridGeometry.SIZE + box];
+            for (int d = 0; d < GridGeometry.SIZE; d++) grid[cells[d]] = digits[d];
+        }
+        System.arraycopy(solver.solve(grid).getSolution(), 0, puzzle, 0, GridGeometry.CELLS);
+
+        for (int i = 0; i < GridGeometry.CELLS; i++) order[i] = i;
+        for (int i = GridGeometry.CELLS - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[k];
+            order[k] = t;
+        }
+        long rating = 0;
+        for (int cell : order) {
+            byte value = puzzle[cell];
+            puzzle[cell] = 0;
+            SolveResult result = solver.solve(puzzle);
+            if (result.isUnique()) {
+                rating = result.getRating();
+            } else {
+                puzzle[cell] = value;
+            }
+        }
+        return rating;
+    }
+
+    /**
+     * Generates a pack of puzzles on several threads and passes them to a sink in seed order.
+     * The output depends only on the first seed and the count, never on the number of threads.
+     *
+     * @param firstSeed The seed of the first puzzle.
+     * @param count The number of puzzles.
+     * @param threads The number of worker threads.
+     * @param sink Receives the puzzles on the calling thread.
+     * @throws IOException if the sink fails.
+     * @throws InterruptedException if the calling thread is interrupted.
+     * @throws IllegalArgumentException if the count is negative or there are no threads.
+     */
+    public static void generateAll(long firstSeed, long count, int threads, Sink sink)
+            throws IOException, InterruptedException {
+        if (count < 0 || threads < 1) {
+            throw new IllegalArgumentException("Not a correct count or number of threads.");
+        }
+        ThreadLocal<PuzzleGenerator> generators = ThreadLocal.withInitial(PuzzleGenerator::new);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayDeque<Future<long[]>> ratings = new ArrayDeque<>();
+            ArrayDeque<byte[]> puzzles = new ArrayDeque<>();
+            byte[] puzzle = new byte[GridGeometry.CELLS];
+            long next = 0;
+            long emitted = 0;
+            while (emitted < count) {
+                while (next < count && ratings.size() < threads * CHUNKS_AHEAD) {
+                    long start = next;
+                    int size = (int) Math.min(CHUNK_SIZE, count - start);
+                    byte[] chunk = new byte[size * GridGeometry.CELLS];
+                    puzzles.addLast(chunk);
+                    ratings.addLast(pool.submit(() -> generateChunk(generators.get(), firstSeed + start, chunk)));
+                    next += size;
+                }
+                long[] chunkRatings = getResult(ratings.removeFirst());
+                byte[] chunk = puzzles.removeFirst();
+                for (int i = 0; i < chunkRatings.length; i++) {
+                    System.arraycopy(chunk, i * GridGeometry.CELLS, puzzle, 0, GridGeometry.CELLS);
+                    sink.accept(emitted++, puzzle, chunkRatings[i]);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates a chunk of consecutive seeds.
+     *
+     * @param generator The generator of the worker thread.
+     * @param firstSeed The seed of the first puzzle of the chunk.
+     * @param chunk Receives the packed puzzles, 81 bytes each.
+     * @return The ratings of the puzzles.
+     */
+    private static long[] generateChunk(PuzzleGenerator generator, long firstSeed, byte[] chunk) {
+        int size = chunk.length / GridGeometry.CELLS;
+        long[] ratings = new long[size];
+        byte[] puzzle = new byte[GridGeometry.CELLS];
+        for (int i = 0; i < size; i++) {
+            ratings[i] = generator.generate(firstSeed + i, puzzle);
+            System.arraycopy(puzzle, 0, chunk, i * GridGeometry.CELLS, GridGeometry.CELLS);
+        }
+        return ratings;
+    }
+
+    /**
+     * Unwraps the result of a chunk.
+     *
+     * @param future The chunk task.
+     * @return The ratings of the chunk.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    private static long[] getResult(Future<long[]> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generating a chunk of puzzles failed.", e.getCause());
+        }
+    }
+}
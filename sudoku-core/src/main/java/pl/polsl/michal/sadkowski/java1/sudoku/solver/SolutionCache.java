@@ -0,0 +1,335 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.SolutionCache.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, thread-safe cache of solve results (solutions and ratings) keyed by the packed grid.
+ * <p>
+ * The cache is split into independently locked segments, each an access-ordered map.
+ * Two eviction policies are available:
+ * <ul>
+ * <li>{@link Eviction#LRU} - the least recently used entry is always replaced.</li>
+ * <li>{@link Eviction#TINY_LFU} - LRU with a frequency admission filter: a new entry only replaces
+ * the LRU victim if it has been requested more often, so one-off puzzles cannot flush popular ones.</li>
+ * </ul>
+ * Optionally puzzles are canonicalized (digit relabelling and transposition) before lookup,
+ * so equivalent copies of the same puzzle share one entry.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public class SolutionCache {
+
+    /**
+     * Available eviction policies.
+     */
+    public enum Eviction {
+        /** Plain least-recently-used replacement. */
+        LRU,
+        /** Least-recently-used replacement with a TinyLFU frequency admission filter. */
+        TINY_LFU
+    }
+
+    /** Number of independently locked segments. */
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final boolean canonicalize;
+    private final int maxEntries;
+    private final Eviction eviction;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * One lock-protected part of the cache.
+     */
+    private final class Segment {
+        private final LinkedHashMap<GridKey, SolveResult> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch sketch;
+        private final int capacity;
+
+        /**
+         * Creates a segment.
+         *
+         * @param capacity The maximum number of entries in this segment.
+         */
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.sketch = eviction == Eviction.TINY_LFU ? new FrequencySketch(capacity) : null;
+        }
+
+        /**
+         * Looks up a key and records the access.
+         *
+         * @param key The grid key.
+         * @return The cached result, or {@code null}.
+         */
+        synchronized SolveResult get(GridKey key) {
+            if (sketch != null) sketch.increment(key.longHash());
+            return map.get(key);
+        }
+
+        /**
+         * Inserts a result, evicting or rejecting according to the policy.
+         *
+         * @param key The grid key.
+         * @param value The result to store.
+         */
+        synchronized void put(GridKey key, SolveResult value) {
+            if (map.containsKey(key) || map.size() < capacity) {
+                map.put(key, value);
+                return;
+            }
+            Iterator<Map.Entry<GridKey, SolveResult>> eldest = map.entrySet().iterator();
+            GridKey victim = eldest.next().getKey();
+            if (sketch != null && sketch.frequency(key.longHash()) <= sketch.frequency(victim.longHash())) {
+                rejections.increment();
+                return;
+            }
+            eldest.remove();
+            evictions.increment();
+            map.put(key, value);
+        }
+
+        /**
+         * Gets the number of entries.
+         *
+         * @return The segment size.
+         */
+        synchronized int size() {
+            return map.size();
+        }
+
+        /**
+         * Removes all entries.
+         */
+        synchronized void clear() {
+            map.clear();
+        }
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxEntries The maximum number of cached results (at least 1).
+     * @param eviction The eviction policy.
+     * @param canonicalize {@code true} to share entries between relabelled or transposed copies of a puzzle.
+     */
+    public SolutionCache(int maxEntries, Eviction eviction, boolean canonicalize) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1.");
+        }
+        this.maxEntries = maxEntries;
+        this.eviction = eviction;
+        this.canonicalize = canonicalize;
+        int segmentCount = Math.min(SEGMENTS, maxEntries);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int share = maxEntries / segmentCount + (i < maxEntries % segmentCount ? 1 : 0);
+            segments[i] = new Segment(share);
+        }
+    }
+
+    /**
+     * Looks up the result for a puzzle.
+     *
+     * @param cells 81 cell values of the puzzle.
+     * @return The cached result, or {@code null} if the puzzle is not cached.
+     */
+    public SolveResult get(byte[] cells) {
+        byte[] key = new byte[GridGeometry.CELLS];
+        GridTransform transform = toKeyCells(cells, key);
+        SolveResult cached = lookup(GridKey.of(key));
+        return cached == null ? null : fromKeyForm(cached, transform);
+    }
+
+    /**
+     * Stores the result for a puzzle.
+     *
+     * @param cells 81 cell values of the puzzle.
+     * @param result The result computed for exactly these cells.
+     */
+    public void put(byte[] cells, SolveResult result) {
+        byte[] key = new byte[GridGeometry.CELLS];
+        GridTransform transform = toKeyCells(cells, key);
+        SolveResult stored = result;
+        if (transform != null && result.isSolved()) {
+            stored = new SolveResult(transform.toCanonical(result.solutionArray()), result.getSolutionCount(),
+                    result.getRating());
+        }
+        store(GridKey.of(key), stored);
+    }
+
+    /**
+     * Returns the cached result for a puzzle or computes and caches it.
+     * The computation runs outside of any lock; two threads may compute the same puzzle at once.
+     *
+     * @param cells 81 cell values of the puzzle.
+     * @param solver The function that solves a puzzle given in key form.
+     * @return The result for the original puzzle.
+     */
+    public SolveResult getOrCompute(byte[] cells, Function<byte[], SolveResult> solver) {
+        byte[] key = new byte[GridGeometry.CELLS];
+        GridTransform transform = toKeyCells(cells, key);
+        GridKey gridKey = GridKey.of(key);
+        SolveResult result = lookup(gridKey);
+        if (result == null) {
+            result = solver.apply(key);
+            store(gridKey, result);
+        }
+        return fromKeyForm(result, transform);
+    }
+
+    /**
+     * Gets the number of lookups that found a cached result.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a cached result.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entries removed to make room for new ones.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of new entries the TinyLFU filter refused to admit.
+     *
+     * @return The rejection count.
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Computes the fraction of lookups served from the cache.
+     *
+     * @return The hit ratio (0.0-1.0), or 0 if there were no lookups yet.
+     */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Gets the current number of cached results.
+     *
+     * @return The cache size.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment s : segments) size += s.size();
+        return size;
+    }
+
+    /**
+     * Removes all cached results. Statistics are kept.
+     */
+    public void clear() {
+        for (Segment s : segments) s.clear();
+    }
+
+    /**
+     * Returns a one-line summary of the cache statistics.
+     *
+     * @return The statistics as a string.
+     */
+    @Override
+    public String toString() {
+        return String.format("SolutionCache{policy=%s, size=%d/%d, hits=%d, misses=%d, hitRatio=%.3f, evictions=%d, rejected=%d}",
+                eviction, size(), maxEntries, getHitCount(), getMissCount(), getHitRatio(), getEvictionCount(),
+                getRejectionCount());
+    }
+
+    /**
+     * Looks up a key in its segment and updates the hit/miss statistics.
+     *
+     * @param key The grid key.
+     * @return The stored result, or {@code null}.
+     */
+    private SolveResult lookup(GridKey key) {
+        SolveResult result = segmentFor(key).get(key);
+        if (result == null) misses.increment();
+        else hits.increment();
+        return result;
+    }
+
+    /**
+     * Stores a result in the segment of its key.
+     *
+     * @param key The grid key.
+     * @param result The result in key form.
+     */
+    private void store(GridKey key, SolveResult result) {
+        segmentFor(key).put(key, result);
+    }
+
+    /**
+     * Selects the segment responsible for a key.
+     *
+     * @param key The grid key.
+     * @return The segment.
+     */
+    private Segment segmentFor(GridKey key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[Math.floorMod(h, segments.length)];
+    }
+
+    /**
+     * Converts a puzzle to the form used as the key.
+     *
+     * @param cells The original cells.
+     * @param out Receives the key cells.
+     * @return The transformation applied, or {@code null} if canonicalization is off.
+     */
+    private GridTransform toKeyCells(byte[] cells, byte[] out) {
+        if (cells.length != GridGeometry.CELLS) {
+            throw new IllegalArgumentException("A grid must have exactly 81 cells.");
+        }
+        if (!canonicalize) {
+            System.arraycopy(cells, 0, out, 0, GridGeometry.CELLS);
+            return null;
+        }
+        return GridTransform.canonicalize(cells, out);
+    }
+
+    /**
+     * Maps a result stored in key form back to the original puzzle.
+     *
+     * @param stored The stored result.
+     * @param transform The transformation, or {@code null}.
+     * @return The result for the original puzzle.
+     */
+    private static SolveResult fromKeyForm(SolveResult stored, GridTransform transform) {
+        if (transform == null || !stored.isSolved()) return stored;
+        return new SolveResult(transform.toOriginal(stored.solutionArray()), stored.getSolutionCount(), stored.getRating());
+    }
+}
@@ -0,0 +1,267 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.SolutionCounter.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact, parallel solution counter for puzzles with few clues.
+ * <p>
+ * The search tree is split deterministically at a fixed depth into independent subtrees, which are
+ * counted on a thread pool. Completed subtrees and their counts are written periodically to a checkpoint
+ * file (atomically, through a temporary file), so a long job that is stopped can be resumed:
+ * on start the counter reads a matching checkpoint and only counts the subtrees that are still missing.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public class SolutionCounter {
+    /** Checkpoint file signature ("SCNT"). */
+    private static final int MAGIC = 0x53434E54;
+    /** Checkpoint format version. */
+    private static final int VERSION = 1;
+
+    private final int splitDepth;
+    private final int threads;
+    private final Path checkpoint;
+    private final long checkpointIntervalMillis;
+
+    /**
+     * Outcome of a counting job.
+     */
+    public static class Result {
+        private final long solutions;
+        private final int subtrees;
+        private final int resumed;
+        private final long elapsedNanos;
+
+        /**
+         * Creates a result.
+         *
+         * @param solutions The exact number of solutions.
+         * @param subtrees The number of subtrees the search was split into.
+         * @param resumed The number of subtrees taken from the checkpoint.
+         * @param elapsedNanos The time spent in this run.
+         */
+        Result(long solutions, int subtrees, int resumed, long elapsedNanos) {
+            this.solutions = solutions;
+            this.subtrees = subtrees;
+            this.resumed = resumed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the number of solutions.
+         *
+         * @return The exact solution count.
+         */
+        public long getSolutions() {
+            return solutions;
+        }
+
+        /**
+         * Gets the number of subtrees.
+         *
+         * @return The subtree count.
+         */
+        public int getSubtrees() {
+            return subtrees;
+        }
+
+        /**
+         * Gets the number of subtrees restored from the checkpoint instead of being counted again.
+         *
+         * @return The resumed subtree count.
+         */
+        public int getResumed() {
+            return resumed;
+        }
+
+        /**
+         * Gets the time spent in this run.
+         *
+         * @return The elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns a one-line summary.
+         *
+         * @return The result as a string.
+         */
+        @Override
+        public String toString() {
+            return String.format("%d solutions (%d subtrees, %d resumed from checkpoint, %.3f s)",
+                    solutions, subtrees, resumed, elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * Creates a counter.
+     *
+     * @param splitDepth The number of branching levels expanded to form the subtrees (0 = one subtree).
+     * @param threads The number of worker threads.
+     * @param checkpoint The checkpoint file, or {@code null} to run without checkpoints.
+     * @param checkpointIntervalMillis The minimum time between two checkpoint writes.
+     */
+    public SolutionCounter(int splitDepth, int threads, Path checkpoint, long checkpointIntervalMillis) {
+        if (splitDepth < 0 || threads < 1) {
+            throw new IllegalArgumentException("Depth must be at least 0 and threads at least 1.");
+        }
+        this.splitDepth = splitDepth;
+        this.threads = threads;
+        this.checkpoint = checkpoint;
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+    }
+
+    /**
+     * Counts all solutions of a puzzle, resuming from the checkpoint if it belongs to the same job.
+     * The checkpoint is kept after the job finishes, so asking again returns the result immediately.
+     *
+     * @param puzzle 81 cell values (0 = empty).
+     * @return The exact solution count and job statistics.
+     * @throws IOException if the checkpoint cannot be read or written, or belongs to another puzzle or depth.
+     * @throws InterruptedException if the calling thread is interrupted; completed work stays in the checkpoint.
+     */
+    public Result count(byte[] puzzle) throws IOException, InterruptedException {
+        if (puzzle.length != GridGeometry.CELLS) {
+            throw new IllegalArgumentException("A grid must have exactly 81 cells.");
+        }
+        long start = System.nanoTime();
+        List<byte[]> subtrees = new BacktrackingSearch().split(puzzle, splitDepth);
+        int n = subtrees.size();
+        long[] counts = new long[n];
+        boolean[] done = new boolean[n];
+        if (checkpoint != null && Files.exists(checkpoint)) {
+            readCheckpoint(puzzle, counts, done);
+        }
+        int resumed = 0;
+        for (boolean d : done) if (d) resumed++;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<long[]> completion = new ExecutorCompletionService<>(pool);
+            int pending = 0;
+            for (int i = 0; i < n; i++) {
+                if (done[i]) continue;
+                final int index = i;
+                final byte[] root = subtrees.get(i);
+                completion.submit(() -> new long[] {index, new BacktrackingSearch().countAll(root)});
+                pending++;
+            }
+            long lastWrite = System.currentTimeMillis();
+            while (pending > 0) {
+                Future<long[]> finished = completion.poll(checkpointIntervalMillis, TimeUnit.MILLISECONDS);
+                if (finished != null) {
+                    long[] r = getResult(finished);
+                    counts[(int) r[0]] = r[1];
+                    done[(int) r[0]] = true;
+                    pending--;
+                }
+                if (checkpoint != null && System.currentTimeMillis() - lastWrite >= checkpointIntervalMillis) {
+                    writeCheckpoint(puzzle, counts, done);
+                    lastWrite = System.currentTimeMillis();
+                }
+            }
+        } catch (InterruptedException e) {
+            if (checkpoint != null) writeCheckpoint(puzzle, counts, done);
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+        if (checkpoint != null) writeCheckpoint(puzzle, counts, done);
+        long total = 0;
+        for (long c : counts) total += c;
+        return new Result(total, n, resumed, System.nanoTime() - start);
+    }
+
+    /**
+     * Unwraps the result of a counting task.
+     *
+     * @param future The completed task.
+     * @return The subtree index and its count.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    private static long[] getResult(Future<long[]> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Counting a subtree failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Loads the completed subtrees from the checkpoint.
+     *
+     * @param puzzle The puzzle of this job.
+     * @param counts Receives the counts of completed subtrees.
+     * @param done Receives the completion flags.
+     * @throws IOException if the file cannot be read or belongs to another job.
+     */
+    private void readCheckpoint(byte[] puzzle, long[] counts, boolean[] done) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a solution counter checkpoint: " + checkpoint);
+            }
+            byte[] stored = new byte[GridGeometry.CELLS];
+            in.readFully(stored);
+            int depth = in.readInt();
+            int n = in.readInt();
+            if (!Arrays.equals(stored, puzzle) || depth != splitDepth || n != counts.length) {
+                throw new IOException("Checkpoint " + checkpoint + " belongs to a different puzzle or split depth.");
+            }
+            for (int i = 0; i < n; i++) {
+                long c = in.readLong();
+                if (c >= 0) {
+                    counts[i] = c;
+                    done[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all completed subtrees to a temporary file and moves it over the checkpoint.
+     * Pending subtrees are stored with the count -1.
+     *
+     * @param puzzle The puzzle of this job.
+     * @param counts The subtree counts.
+     * @param done The completion flags.
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    private void writeCheckpoint(byte[] puzzle, long[] counts, boolean[] done) throws IOException {
+        Path dir = checkpoint.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, checkpoint.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(puzzle);
+            out.writeInt(splitDepth);
+            out.writeInt(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                out.writeLong(done[i] ? counts[i] : -1L);
+            }
+        }
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,19 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.Solvability.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+/**
+ * Answer of a bounded "can this position still be completed?" check, see
+ * {@link LogicSolver#checkSolvable(byte[], long)}.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public enum Solvability {
+    /** At least one completion exists. */
+    SOLVABLE,
+    /** No completion exists: some entry is wrong. */
+    DEAD_END,
+    /** The node budget ran out before either was proven. */
+    UNKNOWN
+}
@@ -0,0 +1,192 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveBudget.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Resources one solve call may use: a maximum number of search nodes, a wall-clock deadline and
+ * a cancellation token, so that a pathological grid cannot keep a solver busy for long.
+ * <p>
+ * Searches call {@link #check(long)} on every node. The node limit is a single comparison; the clock,
+ * the token and the interrupt flag of the thread are only read once every {@link #CHECK_INTERVAL} nodes,
+ * so the check costs almost nothing in the inner loop. On a virtual thread that check point also yields,
+ * so that strategies racing in a {@link PortfolioSolver} share the carrier threads even when there are fewer
+ * cores than strategies. When a limit is hit the search unwinds with {@link Exhausted} and the solver returns
+ * a {@link SolveOutcome} saying which limit stopped it.
+ * <p>
+ * The deadline is fixed when the budget is created. A budget may be shared by several searches, e.g. all
+ * strategies of one race, and cancelled from any thread. The class is public so that solvers outside this
+ * package, such as the variant engine, use the same check.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class SolveBudget {
+    /** Number of nodes between two checks of the clock and the token; a power of two. */
+    public static final int CHECK_INTERVAL = 1024;
+
+    /** The largest number of nodes a search may visit. */
+    private final long maxNodes;
+    /** The {@link System#nanoTime()} after which the search stops; only used if {@link #timed} is set. */
+    private final long deadline;
+    /** Whether the budget has a deadline. */
+    private final boolean timed;
+    /** The cancellation token. */
+    private volatile boolean cancelled;
+
+    /**
+     * Thrown by {@link #check(long)} to unwind a search that ran out of budget.
+     * Solvers catch it and return a {@link SolveOutcome}; callers that use the plain
+     * {@link SolverStrategy#solve(byte[])} see it as a {@link CancellationException}.
+     * It has no stack trace, so stopping a deep search is cheap.
+     */
+    public static final class Exhausted extends CancellationException {
+        /** Serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The limit that stopped the search. */
+        private final SolveOutcome.Status status;
+
+        /**
+         * Creates the signal.
+         *
+         * @param status The limit that stopped the search.
+         */
+        Exhausted(SolveOutcome.Status status) {
+            super("Search stopped: " + status + ".");
+            this.status = status;
+        }
+
+        /**
+         * Gets the limit that stopped the search.
+         *
+         * @return {@link SolveOutcome.Status#NODE_LIMIT}, {@link SolveOutcome.Status#TIME_LIMIT}
+         *         or {@link SolveOutcome.Status#CANCELLED}.
+         */
+        public SolveOutcome.Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Skips filling in the stack trace.
+         *
+         * @return This exception.
+         */
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Creates a budget.
+     *
+     * @param maxNodes The largest number of nodes a search may visit ({@link Long#MAX_VALUE} for no limit).
+     * @param timeLimit The time the search may take from now, or {@code null} for no deadline.
+     * @throws IllegalArgumentException if the node limit is below one or the time limit is negative.
+     */
+    public SolveBudget(long maxNodes, Duration timeLimit) {
+        if (maxNodes < 1 || (timeLimit != null && timeLimit.isNegative())) {
+            throw new IllegalArgumentException("Not a correct node or time limit.");
+        }
+        this.maxNodes = maxNodes;
+        this.timed = timeLimit != null;
+        this.deadline = timed ? System.nanoTime() + saturatedNanos(timeLimit) : 0;
+    }
+
+    /**
+     * Creates a budget that only stops on cancellation or an interrupt.
+     *
+     * @return A new budget without node or time limit.
+     */
+    public static SolveBudget unlimited() {
+        return new SolveBudget(Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates a budget with a node limit only.
+     *
+     * @param maxNodes The largest number of nodes a search may visit.
+     * @return A new budget.
+     */
+    public static SolveBudget ofNodes(long maxNodes) {
+        return new SolveBudget(maxNodes, null);
+    }
+
+    /**
+     * Creates a budget with a deadline only.
+     *
+     * @param timeLimit The time the search may take from now.
+     * @return A new budget.
+     */
+    public static SolveBudget ofTime(Duration timeLimit) {
+        return new SolveBudget(Long.MAX_VALUE, timeLimit);
+    }
+
+    /**
+     * Converts a duration to nanoseconds, capped so that the deadline does not overflow.
+     *
+     * @param timeLimit The duration.
+     * @return The nanoseconds, at most a hundred years.
+     */
+    private static long saturatedNanos(Duration timeLimit) {
+        return timeLimit.compareTo(Duration.ofDays(36_500)) > 0 ? Duration.ofDays(36_500).toNanos()
+                : timeLimit.toNanos();
+    }
+
+    /**
+     * Cancels every search that uses this budget; they stop at their next check point.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks if the budget was cancelled.
+     *
+     * @return {@code true} after {@link #cancel()}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the node limit.
+     *
+     * @return The largest number of nodes a search may visit.
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Charges one search node.
+     *
+     * @param nodes The number of nodes visited so far, including this one.
+     * @throws Exhausted if the node limit is exceeded, or, at a check point, if the deadline has passed,
+     *         the budget was cancelled or the current thread was interrupted.
+     */
+    public void check(long nodes) {
+        if (nodes > maxNodes) throw new Exhausted(SolveOutcome.Status.NODE_LIMIT);
+        if ((nodes & (CHECK_INTERVAL - 1)) != 0) return;
+        Thread current = Thread.currentThread();
+        if (cancelled || current.isInterrupted()) throw new Exhausted(SolveOutcome.Status.CANCELLED);
+        if (timed && System.nanoTime() - deadline > 0) throw new Exhausted(SolveOutcome.Status.TIME_LIMIT);
+        if (current.isVirtual()) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Returns a short description of the budget.
+     *
+     * @return A string with the limits.
+     */
+    @Override
+    public String toString() {
+        return "SolveBudget{" + "maxNodes=" + (maxNodes == Long.MAX_VALUE ? "none" : maxNodes)
+                + ", deadline=" + (timed ? "set" : "none") + ", cancelled=" + cancelled + '}';
+    }
+}
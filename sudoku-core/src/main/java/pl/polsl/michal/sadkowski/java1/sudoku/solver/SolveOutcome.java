@@ -0,0 +1,156 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveOutcome.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Immutable outcome of a solve call made with a {@link SolveBudget}: whether the search finished and,
+ * if not, which limit stopped it, together with what was found and the search statistics.
+ * A finished search has a complete {@link SolveResult}. A stopped one keeps the solution found so far,
+ * if any, and a solution count that is only a lower bound.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class SolveOutcome {
+
+    /**
+     * How a solve call ended.
+     */
+    public enum Status {
+        /** The search finished and found at least one solution. */
+        SOLVED,
+        /** The search finished and proved that there is no solution. */
+        UNSOLVABLE,
+        /** The node limit of the budget ran out. */
+        NODE_LIMIT,
+        /** The deadline of the budget passed. */
+        TIME_LIMIT,
+        /** The budget was cancelled or the solving thread was interrupted. */
+        CANCELLED
+    }
+
+    /** How the call ended. */
+    private final Status status;
+    /** What the search found; complete only if the search finished. */
+    private final SolveResult result;
+    /** The time the call took. */
+    private final long elapsedNanos;
+
+    /**
+     * Creates an outcome.
+     *
+     * @param status How the call ended.
+     * @param result What the search found.
+     * @param elapsedNanos The time the call took.
+     */
+    private SolveOutcome(Status status, SolveResult result, long elapsedNanos) {
+        this.status = status;
+        this.result = result;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Creates the outcome of a search that finished.
+     *
+     * @param result The complete result.
+     * @param startNanos The {@link System#nanoTime()} at which the call started.
+     * @return {@link Status#SOLVED} or {@link Status#UNSOLVABLE} with the result.
+     */
+    public static SolveOutcome finished(SolveResult result, long startNanos) {
+        return new SolveOutcome(result.isSolved() ? Status.SOLVED : Status.UNSOLVABLE, result,
+                System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Creates the outcome of a search that ran out of budget.
+     *
+     * @param stop The signal that stopped the search.
+     * @param partial What the search found before it stopped.
+     * @param startNanos The {@link System#nanoTime()} at which the call started.
+     * @return The outcome with the limit that stopped the search.
+     */
+    public static SolveOutcome stopped(SolveBudget.Exhausted stop, SolveResult partial, long startNanos) {
+        return new SolveOutcome(stop.getStatus(), partial, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets how the call ended.
+     *
+     * @return The status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the search finished, so that the result is complete.
+     *
+     * @return {@code true} for {@link Status#SOLVED} and {@link Status#UNSOLVABLE}.
+     */
+    public boolean isFinished() {
+        return status == Status.SOLVED || status == Status.UNSOLVABLE;
+    }
+
+    /**
+     * Checks if a limit of the budget stopped the search.
+     *
+     * @return {@code true} if the search did not finish.
+     */
+    public boolean isBudgetExhausted() {
+        return !isFinished();
+    }
+
+    /**
+     * Gets what the search found. If the search did not finish, the solution is the first one found so far
+     * (or {@code null}) and the solution count is only a lower bound.
+     *
+     * @return The result.
+     */
+    public SolveResult getResult() {
+        return result;
+    }
+
+    /**
+     * Gets the result of a search that must have finished.
+     *
+     * @return The complete result.
+     * @throws CancellationException if a limit of the budget stopped the search.
+     */
+    public SolveResult completed() {
+        if (!isFinished()) {
+            throw new CancellationException("Search stopped: " + status + ".");
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of search nodes visited.
+     *
+     * @return The node count.
+     */
+    public long getNodes() {
+        return result.getRating();
+    }
+
+    /**
+     * Gets the time the call took.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns a short string representation of the outcome.
+     *
+     * @return A string with the status, the solution count, the nodes and the time.
+     */
+    @Override
+    public String toString() {
+        return "SolveOutcome{" + "status=" + status + ", solutions=" + result.getSolutionCount()
+                + ", nodes=" + getNodes() + ", elapsedMillis=" + String.format("%.3f", elapsedNanos / 1e6) + '}';
+    }
+}
@@ -0,0 +1,96 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveResult.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+/**
+ * Immutable result of solving a puzzle: the first solution found, how many solutions exist
+ * (counted up to two) and a difficulty rating expressed as the number of search nodes.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class SolveResult {
+    /** The first solution found, or {@code null} if the puzzle has none. */
+    private final byte[] solution;
+    /** Number of solutions found: 0, 1, or 2 meaning "two or more". */
+    private final int solutionCount;
+    /** Number of search nodes visited, used as the difficulty rating. */
+    private final long rating;
+
+    /**
+     * Creates a new result.
+     *
+     * @param solution The first solution (81 cells), or {@code null} if there is none.
+     * @param solutionCount The number of solutions found (0, 1 or 2).
+     * @param rating The number of search nodes visited.
+     */
+    public SolveResult(byte[] solution, int solutionCount, long rating) {
+        this.solution = solution;
+        this.solutionCount = solutionCount;
+        this.rating = rating;
+    }
+
+    /**
+     * Checks if at least one solution was found.
+     *
+     * @return {@code true} if the puzzle is solvable.
+     */
+    public boolean isSolved() {
+        return solution != null;
+    }
+
+    /**
+     * Checks if the puzzle has exactly one solution.
+     *
+     * @return {@code true} if the solution is unique.
+     */
+    public boolean isUnique() {
+        return solutionCount == 1;
+    }
+
+    /**
+     * Gets a copy of the first solution found.
+     *
+     * @return 81 cell values in row-major order, or {@code null} if there is no solution.
+     */
+    public byte[] getSolution() {
+        return solution == null ? null : solution.clone();
+    }
+
+    /**
+     * Gives direct access to the solution array without copying. Used inside the solver package only.
+     *
+     * @return The internal solution array, or {@code null}.
+     */
+    byte[] solutionArray() {
+        return solution;
+    }
+
+    /**
+     * Gets the number of solutions found.
+     *
+     * @return 0, 1, or 2 meaning "two or more".
+     */
+    public int getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * Gets the difficulty rating of the puzzle.
+     *
+     * @return The number of search nodes needed to solve the puzzle and prove uniqueness.
+     */
+    public long getRating() {
+        return rating;
+    }
+
+    /**
+     * Returns a short string representation of the result.
+     *
+     * @return A string with the solution count and rating.
+     */
+    @Override
+    public String toString() {
+        return "SolveResult{" + "solutions=" + solutionCount + ", rating=" + rating + '}';
+    }
+}
@@ -0,0 +1,42 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.SolverStrategy.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+/**
+ * A solving algorithm that can take part in a {@link PortfolioSolver} race.
+ * Every solve call runs under a {@link SolveBudget}; implementations charge each search node to it and
+ * report a search that ran out of budget in the returned {@link SolveOutcome}. Without a budget the search
+ * still stops once the interrupt flag of the current thread is set.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (solve budgets)
+ */
+public interface SolverStrategy {
+
+    /**
+     * Gets the short name of the strategy, used in statistics.
+     *
+     * @return The strategy name.
+     */
+    String getName();
+
+    /**
+     * Solves a puzzle within a budget, counting solutions up to two.
+     *
+     * @param cells 81 cell values in row-major order (0 = empty).
+     * @param budget The node limit, deadline and cancellation token of the call.
+     * @return Whether the search finished or which limit stopped it, with the result and statistics.
+     */
+    SolveOutcome solve(byte[] cells, SolveBudget budget);
+
+    /**
+     * Solves a puzzle, counting solutions up to two. Only an interrupt of the current thread stops the search.
+     *
+     * @param cells 81 cell values in row-major order (0 = empty).
+     * @return The solve result.
+     * @throws java.util.concurrent.CancellationException if the thread was interrupted during the search.
+     */
+    default SolveResult solve(byte[] cells) {
+        return solve(cells, SolveBudget.unlimited()).completed();
+    }
+}
@@ -0,0 +1,133 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.SudokuSolver.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Entry point of the solving engine.
+ * Solves puzzles with a bitmask backtracking search and, if a {@link SolutionCache} is attached,
+ * consults the cache before running the search and stores every new result in it.
+ * A search stopped by its {@link SolveBudget} is never cached. Givens that break a row, column or box rule
+ * are rejected as unsolvable up front, without a search and without touching the cache. Instances are thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (solve budgets)
+ */
+public class SudokuSolver implements SolverStrategy {
+    /** Default capacity of the shared cache. */
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+    /** Process-wide solver backed by a shared cache. */
+    private static final SudokuSolver SHARED =
+            new SudokuSolver(new SolutionCache(DEFAULT_CACHE_SIZE, SolutionCache.Eviction.TINY_LFU, true));
+
+    /** The cache consulted before every search, or {@code null}. */
+    private final SolutionCache cache;
+
+    /**
+     * Creates a solver without a cache.
+     */
+    public SudokuSolver() {
+        this(null);
+    }
+
+    /**
+     * Creates a solver that consults the given cache.
+     *
+     * @param cache The solution cache, or {@code null} to always search.
+     */
+    public SudokuSolver(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the process-wide solver, which uses a shared TinyLFU cache with canonicalization.
+     *
+     * @return The shared solver instance.
+     */
+    public static SudokuSolver shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the name of the strategy.
+     *
+     * @return {@code "backtracking"}.
+     */
+    @Override
+    public String getName() {
+        return "backtracking";
+    }
+
+    /**
+     * Solves a puzzle, counting solutions up to two so that uniqueness is known.
+     *
+     * @param cells 81 cell values in row-major order (0 = empty).
+     * @return The result with the first solution, the solution count and the rating.
+     * @throws IllegalArgumentException if the array does not have 81 cells.
+     */
+    @Override
+    public SolveResult solve(byte[] cells) {
+        if (cells.length != GridGeometry.CELLS) {
+            throw new IllegalArgumentException("A grid must have exactly 81 cells.");
+        }
+        if (!BacktrackingSearch.hasValidGivens(cells)) {
+            return new SolveResult(null, 0, 0);
+        }
+        if (cache == null) {
+            return search(cells);
+        }
+        return cache.getOrCompute(cells, SudokuSolver::search);
+    }
+
+    /**
+     * Solves a puzzle within a budget, counting solutions up to two. A cached result is returned without
+     * searching and without charging the budget.
+     *
+     * @param cells 81 cell values in row-major order (0 = empty).
+     * @param budget The node limit, deadline and cancellation token of the call.
+     * @return The outcome; the rating of the result is the number of search nodes.
+     * @throws IllegalArgumentException if the array does not have 81 cells.
+     */
+    @Override
+    public SolveOutcome solve(byte[] cells, SolveBudget budget) {
+        if (cells.length != GridGeometry.CELLS) {
+            throw new IllegalArgumentException("A grid must have exactly 81 cells.");
+        }
+        long start = System.nanoTime();
+        if (!BacktrackingSearch.hasValidGivens(cells)) {
+            return SolveOutcome.finished(new SolveResult(null, 0, 0), start);
+        }
+        SolveResult cached = cache == null ? null : cache.get(cells);
+        if (cached != null) {
+            return SolveOutcome.finished(cached, start);
+        }
+        SolveOutcome outcome = new BacktrackingSearch().run(cells, 2, budget);
+        if (cache != null && outcome.isFinished()) {
+            cache.put(cells, outcome.getResult());
+        }
+        return outcome;
+    }
+
+    /**
+     * Gets the cache consulted by this solver.
+     *
+     * @return The cache, or {@code null} if none is attached.
+     */
+    public SolutionCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Runs the search without consulting the cache.
+     *
+     * @param cells 81 cell values.
+     * @return The search result.
+     * @throws CancellationException if the thread was interrupted during the search.
+     */
+    static SolveResult search(byte[] cells) {
+        return new BacktrackingSearch().run(cells, 2, SolveBudget.unlimited()).completed();
+    }
+}
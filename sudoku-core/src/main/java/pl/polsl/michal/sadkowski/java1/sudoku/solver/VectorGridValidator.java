@@ -0,0 +1,80 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.VectorGridValidator.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+/**
+ * SIMD part of the {@link BulkValidator}, kept in its own class so that it is loaded only when the
+ * {@code jdk.incubator.vector} module is present.
+ * <p>
+ * Boards are processed in blocks of one board per lane. A block is first transposed into a
+ * cell-major buffer of digit bits ({@code 1 << value}), so the nine cells of a unit become nine
+ * contiguous vector loads. OR-ing them and comparing with {@code 0x3FE} checks that unit in every
+ * lane at once; the 27 unit results are AND-ed into one lane mask per block.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+final class VectorGridValidator {
+    /** Preferred short species: 10-bit digit masks fit in 16-bit lanes. */
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    /** Boards per block. */
+    private static final int LANES = SPECIES.length();
+
+    /** Utility class, no instances. */
+    private VectorGridValidator() {
+    }
+
+    /**
+     * Validates as many whole blocks of boards as possible.
+     *
+     * @param boards The packed boards.
+     * @param count The number of boards.
+     * @param words The result bits to fill.
+     * @return The number of boards processed; the rest must be checked by the scalar loop.
+     */
+    static int validate(byte[] boards, int count, long[] words) {
+        if (LANES > 64) return 0;
+        short[] block = new short[GridGeometry.CELLS * LANES];
+        int blocks = count / LANES;
+        int[][] units = GridGeometry.UNIT_CELLS;
+        for (int k = 0; k < blocks; k++) {
+            int first = k * LANES;
+            transpose(boards, first, block);
+            VectorMask<Short> valid = SPECIES.maskAll(true);
+            for (int u = 0; u < GridGeometry.UNITS && valid.anyTrue(); u++) {
+                int[] unit = units[u];
+                ShortVector seen = ShortVector.fromArray(SPECIES, block, unit[0] * LANES);
+                for (int j = 1; j < GridGeometry.SIZE; j++) {
+                    seen = seen.or(ShortVector.fromArray(SPECIES, block, unit[j] * LANES));
+                }
+                valid = valid.and(seen.compare(VectorOperators.EQ, (short) GridGeometry.ALL_DIGITS));
+            }
+            // LANES is a power of two not above 64, so a block never straddles two words.
+            words[first >>> 6] |= valid.toLong() << (first & 63);
+        }
+        return blocks * LANES;
+    }
+
+    /**
+     * Copies one block of boards into the cell-major buffer, replacing values by their digit bits.
+     *
+     * @param boards The packed boards.
+     * @param first The index of the first board of the block.
+     * @param block The buffer, {@code 81 * LANES} entries.
+     */
+    private static void transpose(byte[] boards, int first, short[] block) {
+        short[] bit = BulkValidator.DIGIT_BIT;
+        for (int lane = 0; lane < LANES; lane++) {
+            int base = (first + lane) * GridGeometry.CELLS;
+            for (int cell = 0, at = lane; cell < GridGeometry.CELLS; cell++, at += LANES) {
+                block[at] = bit[boards[base + cell] & 0xFF];
+            }
+        }
+    }
+}
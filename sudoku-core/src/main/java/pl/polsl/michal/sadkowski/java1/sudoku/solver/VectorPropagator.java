@@ -0,0 +1,145 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.solver.VectorPropagator.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.util.Arrays;
+
+/**
+ * Bit-sliced constraint propagation of several puzzles at once, one puzzle per SIMD lane.
+ * Used by the {@link MultiPuzzleSolver} and loaded only when the {@code jdk.incubator.vector} module is present.
+ * <p>
+ * The candidate masks of a block of puzzles are stored cell-major ({@code cand[cell * LANES + lane]}),
+ * so every vector holds the same cell of all puzzles of the block. Each sweep visits the 27 units and, for all lanes at once,
+ * <ol>
+ * <li>removes the values of the unit's single-candidate cells from its other cells (naked singles),</li>
+ * <li>places digits that fit only one cell of the unit (hidden singles),</li>
+ * <li>marks lanes as contradictions when a unit repeats a fixed digit, can no longer hold some digit,
+ * or a cell runs out of candidates.</li>
+ * </ol>
+ * Sweeps repeat until nothing changes. One instance is not thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+final class VectorPropagator {
+    /** Lane status: every cell was fixed by propagation. */
+    static final byte SOLVED = 1;
+    /** Lane status: propagation proved that the puzzle has no solution. */
+    static final byte CONTRADICTION = 2;
+    /** Lane status: propagation stopped; the puzzle needs search. */
+    static final byte STUCK = 3;
+
+    /** Preferred short species: 10-bit candidate masks fit in 16-bit lanes. */
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    /** Puzzles per block. */
+    static final int LANES = SPECIES.length();
+    /** Upper bound on sweeps; propagation normally settles far earlier. */
+    private static final int MAX_SWEEPS = GridGeometry.CELLS;
+
+    private final short[] cand = new short[GridGeometry.CELLS * LANES];
+
+    /**
+     * Propagates one block of puzzles.
+     *
+     * @param puzzles The packed puzzles, 81 bytes each.
+     * @param first The index of the first puzzle of the block; the block holds {@link #LANES} puzzles.
+     * @param grids Receives the propagated grids of the block (fixed cells filled, others 0), 81 bytes per lane.
+     * @param status Receives one status per lane.
+     */
+    void run(byte[] puzzles, int first, byte[] grids, byte[] status) {
+        load(puzzles, first);
+        VectorMask<Short> dead = SPECIES.maskAll(false);
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            ShortVector changed = ShortVector.zero(SPECIES);
+            for (int[] unit : GridGeometry.UNIT_CELLS) {
+                ShortVector fixed = ShortVector.zero(SPECIES);
+                ShortVector once = ShortVector.zero(SPECIES);
+                ShortVector more = ShortVector.zero(SPECIES);
+                for (int cell : unit) {
+                    ShortVector c = ShortVector.fromArray(SPECIES, cand, cell * LANES);
+                    ShortVector single = c.blend((short) 0, isSingle(c).not());
+                    dead = dead.or(fixed.and(single).compare(VectorOperators.NE, (short) 0));
+                    fixed = fixed.or(single);
+                    more = more.or(once.and(c));
+                    once = once.or(c);
+                }
+                dead = dead.or(once.compare(VectorOperators.NE, (short) GridGeometry.ALL_DIGITS));
+                ShortVector hidden = once.and(more.not());
+                ShortVector keep = fixed.not();
+                for (int cell : unit) {
+                    int at = cell * LANES;
+                    ShortVector c = ShortVector.fromArray(SPECIES, cand, at);
+                    VectorMask<Short> open = isSingle(c).not();
+                    ShortVector reduced = c.and(keep);
+                    ShortVector h = reduced.and(hidden);
+                    reduced = reduced.blend(h, h.compare(VectorOperators.NE, (short) 0));
+                    ShortVector next = c.blend(reduced, open);
+                    dead = dead.or(next.compare(VectorOperators.EQ, (short) 0))
+                            .or(isSingle(h).not().and(h.compare(VectorOperators.NE, (short) 0)).and(open));
+                    changed = changed.or(next.lanewise(VectorOperators.XOR, c));
+                    next.intoArray(cand, at);
+                }
+            }
+            if (!changed.compare(VectorOperators.NE, (short) 0).andNot(dead).anyTrue()) break;
+        }
+        VectorMask<Short> solved = SPECIES.maskAll(true);
+        for (int cell = 0; cell < GridGeometry.CELLS; cell++) {
+            ShortVector c = ShortVector.fromArray(SPECIES, cand, cell * LANES);
+            solved = solved.and(isSingle(c));
+        }
+        for (int lane = 0; lane < LANES; lane++) {
+            status[lane] = dead.laneIsSet(lane) ? CONTRADICTION : solved.laneIsSet(lane) ? SOLVED : STUCK;
+        }
+        store(grids);
+    }
+
+    /**
+     * Fills the candidate buffer: a given becomes a single bit, an empty cell gets all nine candidates.
+     *
+     * @param puzzles The packed puzzles.
+     * @param first The first puzzle of the block.
+     */
+    private void load(byte[] puzzles, int first) {
+        for (int lane = 0; lane < LANES; lane++) {
+            int base = (first + lane) * GridGeometry.CELLS;
+            for (int cell = 0, at = lane; cell < GridGeometry.CELLS; cell++, at += LANES) {
+                int v = puzzles[base + cell];
+                cand[at] = v == 0 ? (short) GridGeometry.ALL_DIGITS : BulkValidator.DIGIT_BIT[v & 0xFF];
+            }
+        }
+    }
+
+    /**
+     * Writes the fixed cells of every lane back to row-major grids.
+     *
+     * @param grids The destination, 81 bytes per lane.
+     */
+    private void store(byte[] grids) {
+        Arrays.fill(grids, 0, GridGeometry.CELLS * LANES, (byte) 0);
+        for (int cell = 0; cell < GridGeometry.CELLS; cell++) {
+            for (int lane = 0; lane < LANES; lane++) {
+                int c = cand[cell * LANES + lane];
+                if (c != 0 && (c & (c - 1)) == 0) {
+                    grids[lane * GridGeometry.CELLS + cell] = (byte) Integer.numberOfTrailingZeros(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests which lanes hold exactly one candidate.
+     *
+     * @param c The candidate masks.
+     * @return The lanes with a single, non-zero candidate.
+     */
+    private static VectorMask<Short> isSingle(ShortVector c) {
+        return c.and(c.sub((short) 1)).compare(VectorOperators.EQ, (short) 0)
+                .and(c.compare(VectorOperators.NE, (short) 0));
+    }
+}
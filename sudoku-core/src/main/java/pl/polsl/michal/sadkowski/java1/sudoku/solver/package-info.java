@@ -0,0 +1,12 @@
+/**
+ * Contains the Sudoku solving engine: the {@link pl.polsl.michal.sadkowski.java1.sudoku.solver.SudokuSolver}
+ * backtracking solver, the {@link pl.polsl.michal.sadkowski.java1.sudoku.solver.SolutionCache}
+ * that remembers solutions of puzzles that were already solved, and the bulk tools
+ * ({@link pl.polsl.michal.sadkowski.java1.sudoku.solver.BulkValidator},
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.solver.MultiPuzzleSolver}) that process many boards
+ * at once in SIMD lanes when the {@code jdk.incubator.vector} module is available.
+ * The {@link pl.polsl.michal.sadkowski.java1.sudoku.solver.PuzzleGenerator} creates reproducible puzzle packs from seeds.
+ * Every solve call can be bounded by a {@link pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveBudget}
+ * and reports how it ended in a {@link pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveOutcome}.
+ */
+package pl.polsl.michal.sadkowski.java1.sudoku.solver;
@@ -0,0 +1,83 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.store.LeaderboardEntry.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.store;
+
+/**
+ * One finished game on a leaderboard. Instances are immutable.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class LeaderboardEntry {
+    /** The player's name. */
+    private final String player;
+    /** The solving time in seconds. */
+    private final int seconds;
+    /** When the game was finished, in epoch milliseconds. */
+    private final long finishedAt;
+    /** The position of the result in the log; breaks ties in favour of the earlier result. */
+    final long sequence;
+
+    /**
+     * Creates an entry.
+     *
+     * @param player The player's name.
+     * @param seconds The solving time in seconds.
+     * @param finishedAt When the game was finished, in epoch milliseconds.
+     * @param sequence The position of the result in the log.
+     */
+    LeaderboardEntry(String player, int seconds, long finishedAt, long sequence) {
+        this.player = player;
+        this.seconds = seconds;
+        this.finishedAt = finishedAt;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Gets the player's name.
+     *
+     * @return The name.
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the solving time.
+     *
+     * @return The time in seconds.
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Gets the time the game was finished.
+     *
+     * @return The time in epoch milliseconds.
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Compares two entries: the faster one first, and of equal times the earlier one.
+     *
+     * @param other The other entry.
+     * @return A negative number if this entry ranks higher, a positive one if it ranks lower.
+     */
+    int compareTo(LeaderboardEntry other) {
+        int c = Integer.compare(seconds, other.seconds);
+        return c != 0 ? c : Long.compare(sequence, other.sequence);
+    }
+
+    /**
+     * Returns a string representation of the entry.
+     *
+     * @return The player and the time.
+     */
+    @Override
+    public String toString() {
+        return player + " " + String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -0,0 +1,454 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.store.LeaderboardStore.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.store;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.GridKey;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Persistent leaderboard of finished games.
+ * <p>
+ * Every result is appended to a log file: a header ({@link #MAGIC}, {@link #VERSION}) followed by one record
+ * per game: the difficulty and the player as length-prefixed UTF-8, the givens of the puzzle packed into 41 bytes,
+ * the time in seconds and the finishing time in epoch milliseconds. Opening the store replays the log into an
+ * in-memory index keyed by difficulty and puzzle; a record cut short by a crash is dropped from the end of the file.
+ * <p>
+ * For every key the index keeps a bounded heap of the best {@code capacity} results, a Fenwick tree that counts
+ * results per second of solving time, and the best time of every player. Recording a result costs
+ * O(log capacity + log time); the best results are read from the heap and the rank of a player
+ * (one more than the number of strictly faster results) from the tree, without looking at other results.
+ * <p>
+ * Writes are buffered and flushed at most every {@link #FLUSH_INTERVAL_MILLIS} milliseconds, on {@link #flush()}
+ * and on {@link #close()}, so a high rate of finished games costs few system calls. Recording never interrupts
+ * the game: the first I/O error stops the log and is kept in {@link #getError()}, while the index keeps working.
+ * The store is thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class LeaderboardStore implements Closeable {
+    /** File signature ("SLDB"). */
+    public static final int MAGIC = 0x534C4442;
+    /** Format version. */
+    public static final int VERSION = 1;
+    /** Longest time kept exactly; slower games are stored as this many seconds. */
+    public static final int MAX_SECONDS = 24 * 3600;
+    /** Longest flush delay of a recorded result. */
+    public static final long FLUSH_INTERVAL_MILLIS = 100;
+    /** Bytes of the packed givens: two cells per byte. */
+    private static final int PUZZLE_BYTES = (GridGeometry.CELLS + 1) / 2;
+    /** Longest stored name in bytes. */
+    private static final int MAX_NAME_BYTES = 255;
+
+    /** How many best results are kept per key. */
+    private final int capacity;
+    /** The index: difficulty, then puzzle. */
+    private final Map<String, Map<GridKey, Ranking>> index = new HashMap<>();
+    /** The log, or {@code null} after an error. */
+    private DataOutputStream out;
+    /** The number of results seen, used to order equal times. */
+    private long sequence;
+    /** When the log was last flushed, in {@link System#nanoTime()}. */
+    private long lastFlush = System.nanoTime();
+    /** The error that stopped the log. */
+    private IOException error;
+    /** Buffer for the packed givens of the record being written. */
+    private final byte[] packed = new byte[PUZZLE_BYTES];
+
+    /**
+     * Creates a store over an open log.
+     *
+     * @param capacity How many best results are kept per key.
+     */
+    private LeaderboardStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Opens a leaderboard file, creating it if it does not exist, and loads its results into the index.
+     *
+     * @param file The log file.
+     * @param capacity How many best results are kept per puzzle and difficulty (e.g. 100).
+     * @return The open store.
+     * @throws IOException if the file cannot be read or created, or is not a leaderboard.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public static LeaderboardStore open(Path file, int capacity) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        LeaderboardStore store = new LeaderboardStore(capacity);
+        long valid = 0;
+        if (Files.exists(file) && Files.size(file) > 0) {
+            valid = store.load(file);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(valid);
+        }
+        store.out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.APPEND), 1 << 16));
+        if (valid == 0) {
+            store.out.writeInt(MAGIC);
+            store.out.writeShort(VERSION);
+            store.out.flush();
+        }
+        return store;
+    }
+
+    /**
+     * Replays the log into the index.
+     *
+     * @param file The log file.
+     * @return The length of the valid part of the file.
+     * @throws IOException if the file cannot be read or has a wrong header.
+     */
+    private long load(Path file) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() != VERSION) {
+                throw new IOException("Not a leaderboard file: " + file);
+            }
+            long valid = 6;
+            byte[] packed = new byte[PUZZLE_BYTES];
+            byte[] puzzle = new byte[GridGeometry.CELLS];
+            while (true) {
+                try {
+                    byte[] difficulty = readName(in);
+                    byte[] player = readName(in);
+                    in.readFully(packed);
+                    int seconds = in.readInt();
+                    long finishedAt = in.readLong();
+                    unpack(packed, puzzle);
+                    add(GridKey.of(puzzle), new String(difficulty, StandardCharsets.UTF_8),
+                            new String(player, StandardCharsets.UTF_8), seconds, finishedAt);
+                    valid += 2 + difficulty.length + player.length + PUZZLE_BYTES + 4 + 8;
+                } catch (EOFException e) {
+                    return valid;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param puzzle The givens of the puzzle (81 cells, 0 = empty).
+     * @param difficulty The difficulty the game was played at.
+     * @param player The player's name.
+     * @param seconds The solving time in seconds; clamped to 0..{@link #MAX_SECONDS}.
+     * @return The rank of this result: one more than the number of strictly faster results.
+     */
+    public synchronized int record(byte[] puzzle, String difficulty, String player, int seconds) {
+        int time = Math.max(0, Math.min(seconds, MAX_SECONDS));
+        long finishedAt = System.currentTimeMillis();
+        String d = clip(difficulty);
+        String p = clip(player);
+        Ranking ranking = add(GridKey.of(puzzle), d, p, time, finishedAt);
+        append(puzzle, d, p, time, finishedAt);
+        return ranking.countFaster(time) + 1;
+    }
+
+    /**
+     * Gets the best results of a puzzle.
+     *
+     * @param puzzle The givens of the puzzle.
+     * @param difficulty The difficulty.
+     * @param limit The largest number of results to return; at most the capacity of the store is available.
+     * @return The best results, fastest first; empty if there are none.
+     */
+    public synchronized List<LeaderboardEntry> getTop(byte[] puzzle, String difficulty, int limit) {
+        Ranking ranking = find(puzzle, difficulty);
+        if (ranking == null) return new ArrayList<>();
+        LeaderboardEntry[] entries = ranking.top.toArray(new LeaderboardEntry[0]);
+        Arrays.sort(entries, LeaderboardEntry::compareTo);
+        List<LeaderboardEntry> result = new ArrayList<>(Math.min(limit, entries.length));
+        for (int i = 0; i < entries.length && i < limit; i++) {
+            result.add(entries[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the rank of a player's best result on a puzzle.
+     *
+     * @param puzzle The givens of the puzzle.
+     * @param difficulty The difficulty.
+     * @param player The player's name.
+     * @return One more than the number of results strictly faster than the player's best, or -1 if the player
+     *         has no result.
+     */
+    public synchronized int getRank(byte[] puzzle, String difficulty, String player) {
+        Ranking ranking = find(puzzle, difficulty);
+        if (ranking == null) return -1;
+        Integer best = ranking.best.get(clip(player));
+        return best == null ? -1 : ranking.countFaster(best) + 1;
+    }
+
+    /**
+     * Gets the number of results of a puzzle.
+     *
+     * @param puzzle The givens of the puzzle.
+     * @param difficulty The difficulty.
+     * @return The number of recorded games.
+     */
+    public synchronized int getResultCount(byte[] puzzle, String difficulty) {
+        Ranking ranking = find(puzzle, difficulty);
+        return ranking == null ? 0 : ranking.total;
+    }
+
+    /**
+     * Writes all buffered results to the file.
+     */
+    public synchronized void flush() {
+        if (out == null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+        lastFlush = System.nanoTime();
+    }
+
+    /**
+     * Gets the error that stopped the log.
+     *
+     * @return The I/O error, or {@code null} if the log works.
+     */
+    public synchronized IOException getError() {
+        return error;
+    }
+
+    /**
+     * Flushes and closes the log. The index stays readable.
+     *
+     * @throws IOException if the remaining data cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (out == null) return;
+        DataOutputStream o = out;
+        out = null;
+        o.close();
+    }
+
+    /**
+     * Adds a result to the index.
+     *
+     * @param key The puzzle key.
+     * @param difficulty The difficulty.
+     * @param player The player.
+     * @param seconds The time in seconds; clamped to 0..{@link #MAX_SECONDS}.
+     * @param finishedAt The finishing time.
+     * @return The ranking of the key.
+     */
+    private Ranking add(GridKey key, String difficulty, String player, int seconds, long finishedAt) {
+        Ranking ranking = index.computeIfAbsent(difficulty, d -> new HashMap<>())
+                .computeIfAbsent(key, k -> new Ranking());
+        int time = Math.max(0, Math.min(seconds, MAX_SECONDS));
+        ranking.add(new LeaderboardEntry(player, time, finishedAt, sequence++), capacity);
+        return ranking;
+    }
+
+    /**
+     * Looks up the ranking of a key.
+     *
+     * @param puzzle The givens.
+     * @param difficulty The difficulty.
+     * @return The ranking, or {@code null} if there are no results.
+     */
+    private Ranking find(byte[] puzzle, String difficulty) {
+        Map<GridKey, Ranking> byPuzzle = index.get(clip(difficulty));
+        return byPuzzle == null ? null : byPuzzle.get(GridKey.of(puzzle));
+    }
+
+    /**
+     * Appends a result to the log and flushes it if the last flush is old enough.
+     *
+     * @param puzzle The givens.
+     * @param difficulty The difficulty.
+     * @param player The player.
+     * @param seconds The time in seconds.
+     * @param finishedAt The finishing time.
+     */
+    private void append(byte[] puzzle, String difficulty, String player, int seconds, long finishedAt) {
+        if (out == null) return;
+        try {
+            writeName(difficulty);
+            writeName(player);
+            for (int i = 0; i < GridGeometry.CELLS; i += 2) {
+                int high = i + 1 < GridGeometry.CELLS ? puzzle[i + 1] & 0xF : 0;
+                packed[i >> 1] = (byte) ((puzzle[i] & 0xF) | high << 4);
+            }
+            out.write(packed);
+            out.writeInt(seconds);
+            out.writeLong(finishedAt);
+            if (System.nanoTime() - lastFlush >= FLUSH_INTERVAL_MILLIS * 1_000_000L) {
+                out.flush();
+                lastFlush = System.nanoTime();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Stops the log after an error.
+     *
+     * @param e The error.
+     */
+    private void fail(IOException e) {
+        error = e;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // the first error is the one reported
+        }
+        out = null;
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 name.
+     *
+     * @param name The name, at most {@link #MAX_NAME_BYTES} bytes long.
+     * @throws IOException if writing fails.
+     */
+    private void writeName(String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 name.
+     *
+     * @param in The log.
+     * @return The UTF-8 bytes of the name.
+     * @throws IOException if reading fails or the log ends.
+     */
+    private static byte[] readName(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedByte()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Shortens a name to at most {@link #MAX_NAME_BYTES} bytes of UTF-8, so that it fits its length prefix.
+     *
+     * @param name The name; {@code null} is treated as empty.
+     * @return The name or its longest prefix that fits.
+     */
+    private static String clip(String name) {
+        if (name == null) return "";
+        if (name.length() <= MAX_NAME_BYTES / 3) return name;
+        String s = name;
+        while (utf8Length(s) > MAX_NAME_BYTES) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return s;
+    }
+
+    /**
+     * Counts the UTF-8 bytes of a string.
+     *
+     * @param s The string.
+     * @return The encoded length.
+     */
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Unpacks givens stored two cells per byte.
+     *
+     * @param packed The packed bytes.
+     * @param cells Receives the 81 cells.
+     */
+    private static void unpack(byte[] packed, byte[] cells) {
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int b = packed[i >> 1];
+            cells[i] = (byte) ((i & 1) == 0 ? b & 0xF : (b >> 4) & 0xF);
+        }
+    }
+
+    /**
+     * The results of one puzzle at one difficulty.
+     */
+    private static final class Ranking {
+        /** The best results; the worst of them is at the head. */
+        final PriorityQueue<LeaderboardEntry> top = new PriorityQueue<>((a, b) -> b.compareTo(a));
+        /** The best time of every player. */
+        final Map<String, Integer> best = new HashMap<>();
+        /** Fenwick tree over the times: element {@code s + 1} counts the results of {@code s} seconds. */
+        int[] tree = new int[1 << 10];
+        /** The number of results. */
+        int total;
+
+        /**
+         * Adds a result.
+         *
+         * @param entry The result.
+         * @param capacity How many best results are kept.
+         */
+        void add(LeaderboardEntry entry, int capacity) {
+            if (top.size() < capacity) {
+                top.add(entry);
+            } else if (entry.compareTo(top.peek()) < 0) {
+                top.poll();
+                top.add(entry);
+            }
+            best.merge(entry.getPlayer(), entry.getSeconds(), Math::min);
+            int i = entry.getSeconds() + 1;
+            while (i >= tree.length) {
+                grow();
+            }
+            for (; i < tree.length; i += i & -i) {
+                tree[i]++;
+            }
+            total++;
+        }
+
+        /**
+         * Doubles the tree. Its size is a power of two, so the old elements keep their meaning, the new ones
+         * cover only the empty upper half, and the new last element covers everything.
+         */
+        private void grow() {
+            int n = tree.length;
+            tree = Arrays.copyOf(tree, n * 2);
+            tree[n] = total;
+        }
+
+        /**
+         * Counts the results faster than a time.
+         *
+         * @param seconds The time.
+         * @return The number of results of fewer seconds.
+         */
+        int countFaster(int seconds) {
+            int count = 0;
+            for (int i = Math.min(seconds, tree.length - 1); i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+    }
+}
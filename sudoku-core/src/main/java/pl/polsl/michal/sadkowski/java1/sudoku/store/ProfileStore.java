@@ -0,0 +1,603 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.store.ProfileStore.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.store;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.ProfileRepository;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent store of user profiles for a large number of users.
+ * <p>
+ * Users are spread by a hash of their name over a fixed number of shards. Every shard is an append-only
+ * segment file ({@code profiles-NN.seg}): a header ({@link #MAGIC}, {@link #VERSION}) followed by records of
+ * {@code [length][CRC-32][name][profile]}. Saving a profile appends a new record; the newest record of a name wins.
+ * For every shard an in-memory index maps names to the offset and length of their newest record, so loading a
+ * profile is a single positioned read and nothing but the index is kept in memory.
+ * <p>
+ * On {@link #close()} every segment is forced to the disk, so a store that does not force each group is still
+ * durable once closed, and the index of every shard is written next to it ({@code profiles-NN.idx}) together with the
+ * length of the segment it covers. Opening the store reads these index files and scans only the records appended
+ * after them, so startup does not read the profiles; a record cut short by a crash is dropped from the end.
+ * <p>
+ * Writes go through group commit: {@link #save(User)} hands its record to one committer thread and waits. The
+ * committer takes every record that is waiting, writes the records of each shard with one call, optionally forces
+ * them to the disk once for the whole group, and only then publishes them in the index and releases the callers.
+ * Older versions of a profile stay in the segment until it is rewritten. The store is thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class ProfileStore implements ProfileRepository, Closeable {
+    /** Segment file signature ("SPRF"). */
+    public static final int MAGIC = 0x53505246;
+    /** Index file signature ("SPRI"). */
+    public static final int INDEX_MAGIC = 0x53505249;
+    /** Format version of both files. */
+    public static final int VERSION = 1;
+    /** Largest record in bytes. */
+    public static final int MAX_RECORD = 1 << 20;
+    /** Length of a segment header. */
+    private static final int HEADER = 6;
+    /** Length of a record header (length and checksum). */
+    private static final int RECORD_HEADER = 8;
+    /** Bits of a packed index entry that hold the record length. */
+    private static final int LENGTH_BITS = 21;
+    /** Version of the profile encoding inside a record. */
+    private static final int PROFILE_FORMAT = 1;
+    /** Most records written by one group commit. */
+    private static final int MAX_GROUP = 4096;
+    /** Marker that stops the committer. */
+    private static final Pending STOP = new Pending(null, null, null);
+
+    /** The shards. */
+    private final Shard[] shards;
+    /** Whether every group is forced to the disk. */
+    private final boolean durable;
+    /** Records waiting for the committer. */
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    /** The committer thread. */
+    private final Thread committer;
+    /** Whether {@link #close()} was called. */
+    private volatile boolean closed;
+
+    /**
+     * Creates a store over opened shards and starts the committer.
+     *
+     * @param shards The shards.
+     * @param durable Whether every group is forced to the disk.
+     */
+    private ProfileStore(Shard[] shards, boolean durable) {
+        this.shards = shards;
+        this.durable = durable;
+        this.committer = new Thread(this::commitLoop, "sudoku-profile-commit");
+        this.committer.setDaemon(true);
+    }
+
+    /**
+     * Opens a profile store in a directory, creating the directory and the segments if needed.
+     *
+     * @param directory The directory of the segment and index files.
+     * @param shardCount The number of shards, a power of two; must be the same every time the store is opened.
+     * @param durable {@code true} to force every group commit to the disk before {@link #save(User)} returns.
+     * @return The open store.
+     * @throws IOException if a file cannot be opened or is not a profile segment.
+     * @throws IllegalArgumentException if the shard count is not a power of two.
+     */
+    public static ProfileStore open(Path directory, int shardCount, boolean durable) throws IOException {
+        if (shardCount < 1 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("Shard count must be a power of two.");
+        }
+        Files.createDirectories(directory);
+        Shard[] shards = new Shard[shardCount];
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = Shard.open(directory, i);
+            }
+        } catch (IOException e) {
+            for (Shard shard : shards) {
+                if (shard != null) shard.channel.close();
+            }
+            throw e;
+        }
+        ProfileStore store = new ProfileStore(shards, durable);
+        store.committer.start();
+        return store;
+    }
+
+    /**
+     * Saves a user's profile and waits until its group is committed.
+     *
+     * @param user The user.
+     * @throws SudokuException if the store is closed, the profile is too large or cannot be written.
+     */
+    @Override
+    public void save(User user) throws SudokuException {
+        if (closed) throw new SudokuException("The profile store is closed.");
+        byte[] record;
+        try {
+            record = encode(user);
+        } catch (IOException e) {
+            throw new SudokuException("Cannot encode the profile of " + user.getUsername() + ".", e);
+        }
+        if (record.length > MAX_RECORD) {
+            throw new SudokuException("The profile of " + user.getUsername() + " is too large.");
+        }
+        Pending pending = new Pending(shardOf(user.getUsername()), user.getUsername(), record);
+        synchronized (queue) {
+            if (closed) throw new SudokuException("The profile store is closed.");
+            queue.add(pending);
+        }
+        try {
+            pending.done.get();
+        } catch (ExecutionException e) {
+            throw new SudokuException("Cannot save the profile of " + user.getUsername() + ".", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SudokuException("Interrupted while saving the profile of " + user.getUsername() + ".", e);
+        }
+    }
+
+    /**
+     * Loads a user's profile with one positioned read. The returned user has this store attached.
+     *
+     * @param username The user's name.
+     * @return The user, or {@code null} if there is no profile.
+     * @throws SudokuException if the record cannot be read or is damaged.
+     */
+    @Override
+    public User load(String username) throws SudokuException {
+        Shard shard = shardOf(username);
+        long location;
+        synchronized (shard) {
+            Long found = shard.index.get(username);
+            if (found == null) return null;
+            location = found;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (location & ((1 << LENGTH_BITS) - 1)));
+            long position = location >>> LENGTH_BITS;
+            while (buffer.hasRemaining()) {
+                if (shard.channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+            }
+            byte[] record = buffer.array();
+            if (!checksumMatches(record)) {
+                throw new SudokuException("The profile of " + username + " is damaged.");
+            }
+            User user = decode(record);
+            user.setRepository(this);
+            return user;
+        } catch (IOException e) {
+            throw new SudokuException("Cannot read the profile of " + username + ".", e);
+        }
+    }
+
+    /**
+     * Gets the number of stored profiles.
+     *
+     * @return The number of distinct names.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.index.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Commits the waiting records, forces the segments to the disk, writes the index files and closes the segments.
+     *
+     * @throws IOException if a segment cannot be forced or an index file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (queue) {
+            if (closed) return;
+            closed = true;
+            queue.add(STOP);
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException error = null;
+        for (Shard shard : shards) {
+            try {
+                synchronized (shard) {
+                    shard.channel.force(false);
+                    shard.writeIndex();
+                }
+            } catch (IOException e) {
+                if (error == null) error = e;
+            }
+            shard.channel.close();
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * Runs on the committer thread: takes groups of waiting records and commits them.
+     */
+    private void commitLoop() {
+        List<Pending> group = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(group, MAX_GROUP - 1);
+            if (group.remove(STOP)) {
+                stop = true;
+                queue.drainTo(group);
+                group.remove(STOP);
+            }
+            commit(group);
+            group.clear();
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        IOException error = new IOException("The profile store stopped committing.");
+        for (Pending pending : left) {
+            if (pending != STOP) pending.done.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Writes a group of records, forces them if the store is durable, publishes them in the index
+     * and releases the waiting callers. A failure of one shard, checked or not, fails only the records of that
+     * shard, so the committer thread keeps running and no caller waits forever.
+     *
+     * @param group The records.
+     */
+    private void commit(List<Pending> group) {
+        Map<Shard, List<Pending>> byShard = new HashMap<>();
+        for (Pending pending : group) {
+            byShard.computeIfAbsent(pending.shard, s -> new ArrayList<>()).add(pending);
+        }
+        for (Map.Entry<Shard, List<Pending>> entry : byShard.entrySet()) {
+            Shard shard = entry.getKey();
+            List<Pending> records = entry.getValue();
+            try {
+                shard.append(records);
+                if (durable) shard.channel.force(false);
+                synchronized (shard) {
+                    for (Pending pending : records) {
+                        shard.index.put(pending.name, pending.position << LENGTH_BITS | pending.record.length);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                for (Pending pending : records) {
+                    pending.done.completeExceptionally(e);
+                }
+                continue;
+            }
+            for (Pending pending : records) {
+                pending.done.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Picks the shard of a name.
+     *
+     * @param username The name.
+     * @return The shard.
+     */
+    private Shard shardOf(String username) {
+        int h = username.hashCode() * 0x9E3779B9;
+        return shards[(h ^ (h >>> 16)) & (shards.length - 1)];
+    }
+
+    /**
+     * Encodes a profile as a complete record.
+     *
+     * @param user The user.
+     * @return The record, header included.
+     * @throws IOException if a value cannot be encoded.
+     */
+    private static byte[] encode(User user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(0);
+        out.writeUTF(user.getUsername());
+        out.writeByte(PROFILE_FORMAT);
+        out.writeInt(user.getGamesPlayed());
+        out.writeInt(user.getGamesWon());
+        out.writeInt(user.getBestSeconds());
+        out.writeLong(user.getTotalSeconds());
+        Map<String, String> settings = user.getSettings();
+        out.writeShort(settings.size());
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            out.writeUTF(setting.getKey());
+            out.writeUTF(setting.getValue());
+        }
+        out.writeBoolean(user.hasSavedGame());
+        if (user.hasSavedGame()) {
+            out.write(user.getSavedGivens());
+            out.write(user.getSavedBoard());
+            out.writeInt(user.getSavedSeconds());
+        }
+        byte[] record = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER, record.length - RECORD_HEADER);
+        ByteBuffer.wrap(record).putInt(record.length - RECORD_HEADER).putInt((int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * Decodes a record.
+     *
+     * @param record The record, header included.
+     * @return The user.
+     * @throws IOException if the record is malformed.
+     */
+    private static User decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(record, RECORD_HEADER, record.length - RECORD_HEADER));
+        User user = new User(in.readUTF());
+        if (in.readUnsignedByte() != PROFILE_FORMAT) {
+            throw new IOException("Unknown profile format.");
+        }
+        int played = in.readInt();
+        int won = in.readInt();
+        int best = in.readInt();
+        user.setStatistics(played, won, best, in.readLong());
+        int settings = in.readUnsignedShort();
+        for (int i = 0; i < settings; i++) {
+            user.setSetting(in.readUTF(), in.readUTF());
+        }
+        if (in.readBoolean()) {
+            byte[] givens = new byte[GridGeometry.CELLS];
+            byte[] board = new byte[GridGeometry.CELLS];
+            in.readFully(givens);
+            in.readFully(board);
+            user.saveGame(givens, board, in.readInt());
+        }
+        return user;
+    }
+
+    /**
+     * Verifies the checksum of a record.
+     *
+     * @param record The record, header included.
+     * @return {@code true} if the stored length and checksum match the body.
+     */
+    private static boolean checksumMatches(byte[] record) {
+        ByteBuffer header = ByteBuffer.wrap(record);
+        if (header.getInt() != record.length - RECORD_HEADER) return false;
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER, record.length - RECORD_HEADER);
+        return header.getInt() == (int) crc.getValue();
+    }
+
+    /**
+     * A record waiting for the committer.
+     */
+    private static final class Pending {
+        /** The target shard. */
+        final Shard shard;
+        /** The user's name. */
+        final String name;
+        /** The encoded record. */
+        final byte[] record;
+        /** Completed when the record is committed. */
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        /** Where the record was written. */
+        long position;
+
+        /**
+         * Creates a waiting record.
+         *
+         * @param shard The target shard.
+         * @param name The user's name.
+         * @param record The encoded record.
+         */
+        Pending(Shard shard, String name, byte[] record) {
+            this.shard = shard;
+            this.name = name;
+            this.record = record;
+        }
+    }
+
+    /**
+     * One segment file with its index. The index is guarded by the shard's monitor;
+     * the end of the segment is only changed by the committer.
+     */
+    private static final class Shard {
+        /** The segment file. */
+        final Path segment;
+        /** The index file. */
+        final Path indexFile;
+        /** The open segment. */
+        final FileChannel channel;
+        /** Name to packed offset and length of the newest record. */
+        final Map<String, Long> index = new HashMap<>();
+        /** The end of the segment, where the next record goes. */
+        long end;
+
+        /**
+         * Creates a shard over an open segment.
+         *
+         * @param segment The segment file.
+         * @param indexFile The index file.
+         * @param channel The open segment.
+         */
+        private Shard(Path segment, Path indexFile, FileChannel channel) {
+            this.segment = segment;
+            this.indexFile = indexFile;
+            this.channel = channel;
+        }
+
+        /**
+         * Opens a shard: reads its index file, if it is valid, and scans the records after it.
+         *
+         * @param directory The store directory.
+         * @param number The shard number.
+         * @return The shard.
+         * @throws IOException if the segment cannot be opened or has a wrong header.
+         */
+        static Shard open(Path directory, int number) throws IOException {
+            String base = String.format("profiles-%02d", number);
+            Path segment = directory.resolve(base + ".seg");
+            FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            Shard shard = new Shard(segment, directory.resolve(base + ".idx"), channel);
+            try {
+                if (channel.size() < HEADER) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putShort((short) VERSION);
+                    header.flip();
+                    channel.truncate(0);
+                    channel.write(header, 0);
+                    shard.end = HEADER;
+                } else {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER);
+                    channel.read(header, 0);
+                    header.flip();
+                    if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+                        throw new IOException("Not a profile segment: " + segment);
+                    }
+                    shard.scan(shard.readIndex());
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return shard;
+        }
+
+        /**
+         * Reads the index file if it matches the segment.
+         *
+         * @return The segment length the index covers, or the header length if there is no usable index.
+         */
+        private long readIndex() {
+            if (!Files.exists(indexFile)) return HEADER;
+            try (InputStream raw = Files.newInputStream(indexFile);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+                if (in.readInt() != INDEX_MAGIC || in.readUnsignedShort() != VERSION) return HEADER;
+                long covered = in.readLong();
+                int count = in.readInt();
+                if (covered < HEADER || covered > channel.size()) return HEADER;
+                for (int i = 0; i < count; i++) {
+                    index.put(in.readUTF(), in.readLong());
+                }
+                return covered;
+            } catch (IOException e) {
+                index.clear();
+                return HEADER;
+            }
+        }
+
+        /**
+         * Adds the records from a position to the end of the segment to the index
+         * and cuts off a damaged or incomplete last record.
+         *
+         * @param from Where to start.
+         * @throws IOException if the segment cannot be read.
+         */
+        private void scan(long from) throws IOException {
+            long position = from;
+            long size = channel.size();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel.position(position)), 1 << 16));
+            while (position + RECORD_HEADER <= size) {
+                int length = in.readInt();
+                if (length < 2 || length > MAX_RECORD || position + RECORD_HEADER + length > size) break;
+                byte[] record = new byte[RECORD_HEADER + length];
+                ByteBuffer.wrap(record).putInt(length).putInt(in.readInt());
+                in.readFully(record, RECORD_HEADER, length);
+                if (!checksumMatches(record)) break;
+                String name = new DataInputStream(new ByteArrayInputStream(record, RECORD_HEADER, length)).readUTF();
+                index.put(name, position << LENGTH_BITS | record.length);
+                position += record.length;
+            }
+            if (position < size) channel.truncate(position);
+            end = position;
+        }
+
+        /**
+         * Appends records at the end of the segment with one write and remembers their positions.
+         *
+         * @param records The records.
+         * @throws IOException if writing fails or the segment is too large to be indexed; the segment end is then
+         *         left unchanged.
+         */
+        void append(List<Pending> records) throws IOException {
+            int total = 0;
+            for (Pending pending : records) {
+                total += pending.record.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(total);
+            long position = end;
+            for (Pending pending : records) {
+                pending.position = position;
+                position += pending.record.length;
+                buffer.put(pending.record);
+            }
+            if (position > Long.MAX_VALUE >>> LENGTH_BITS) {
+                throw new IOException("The profile segment is full.");
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, end + buffer.position());
+            }
+            end = position;
+        }
+
+        /**
+         * Writes the index file atomically, covering the whole segment.
+         *
+         * @throws IOException if the file cannot be written.
+         */
+        void writeIndex() throws IOException {
+            Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (OutputStream raw = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw, 1 << 16))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(end);
+                out.writeInt(index.size());
+                for (Map.Entry<String, Long> entry : index.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
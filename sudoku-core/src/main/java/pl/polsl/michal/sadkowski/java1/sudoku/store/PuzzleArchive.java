@@ -0,0 +1,566 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleArchive.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.store;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed binary archive of puzzles, with a streaming {@link Writer} and {@link Reader} and random access by
+ * puzzle number.
+ * <p>
+ * Every grid is one record. A grid with at most {@value #MAX_SPARSE_CLUES} givens stores a 88-bit mask (bit 0 clear,
+ * bit {@code i + 1} set for every given cell {@code i}) followed by the given digits packed two per byte, so a
+ * typical puzzle of 25 clues takes 24 bytes instead of an 81-character line. A fuller grid, such as a solution,
+ * stores a flag byte and all 81 cells packed two per byte (42 bytes).
+ * <p>
+ * Records are grouped into blocks of up to {@code blockSize} puzzles and every block is compressed on its own with
+ * {@link Deflater}. A block is stored as its puzzle count, raw length, compressed length and the CRC-32 of the raw
+ * records, followed by the compressed data. The file starts with a header ({@link #MAGIC}, {@link #VERSION}, block
+ * size) and ends with a block count of 0, the file offsets of all blocks, the number of puzzles, the offset of the
+ * block index and {@link #MAGIC} again. A reader therefore streams the blocks from the start, while
+ * {@link #open(Path)} reads the index from the end and decompresses only the block that holds a requested puzzle.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class PuzzleArchive implements Closeable {
+    /** File signature ("SARC"). */
+    public static final int MAGIC = 0x53415243;
+    /** Format version. */
+    public static final int VERSION = 1;
+    /** Default number of puzzles per block. */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+    /** Most givens stored with a mask; fuller grids are stored whole. */
+    public static final int MAX_SPARSE_CLUES = 61;
+    /** Bytes of the given mask, including the flag bit. */
+    private static final int MASK_BYTES = (GridGeometry.CELLS + 1 + 7) / 8;
+    /** Bytes of all cells packed two per byte. */
+    private static final int PACKED_BYTES = (GridGeometry.CELLS + 1) / 2;
+    /** Longest record: the flag byte and all cells. */
+    private static final int MAX_RECORD_BYTES = 1 + PACKED_BYTES;
+    /** Length of the file header. */
+    private static final int HEADER = 12;
+    /** Length of a block header. */
+    private static final int BLOCK_HEADER = 16;
+    /** Length of the file trailer. */
+    private static final int TRAILER = 20;
+
+    /** The archive file. */
+    private final FileChannel channel;
+    /** Puzzles per block. */
+    private final int blockSize;
+    /** File offset of every block. */
+    private final long[] blockOffsets;
+    /** The number of puzzles. */
+    private final long count;
+    /** The records of the last decompressed block. */
+    private byte[] raw = new byte[0];
+    /** Start of every record of the last decompressed block. */
+    private int[] recordStart = new int[0];
+    /** The last decompressed block, or -1. */
+    private int cachedBlock = -1;
+    /** Decompresses blocks. */
+    private final Inflater inflater = new Inflater();
+
+    /**
+     * Creates an archive over an open file and its index.
+     *
+     * @param channel The file.
+     * @param blockSize Puzzles per block.
+     * @param blockOffsets File offset of every block.
+     * @param count The number of puzzles.
+     */
+    private PuzzleArchive(FileChannel channel, int blockSize, long[] blockOffsets, long count) {
+        this.channel = channel;
+        this.blockSize = blockSize;
+        this.blockOffsets = blockOffsets;
+        this.count = count;
+    }
+
+    /**
+     * Opens an archive for random access by reading its block index.
+     *
+     * @param file The archive file.
+     * @return The archive; it must be closed.
+     * @throws IOException if the file cannot be read or is not a complete archive.
+     */
+    public static PuzzleArchive open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER + 4 + TRAILER) throw new IOException("Not a puzzle archive: " + file);
+            ByteBuffer header = readFully(channel, 0, HEADER);
+            ByteBuffer trailer = readFully(channel, size - TRAILER, TRAILER);
+            if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION || trailer.getInt(16) != MAGIC) {
+                throw new IOException("Not a complete puzzle archive: " + file);
+            }
+            int blockSize = header.getInt(8);
+            long count = trailer.getLong(0);
+            long indexOffset = trailer.getLong(8);
+            if (blockSize < 1 || indexOffset < HEADER || indexOffset > size - TRAILER - 4) {
+                throw new IOException("Puzzle archive has a damaged index: " + file);
+            }
+            int blocks = readFully(channel, indexOffset, 4).getInt(0);
+            if (blocks < 0 || indexOffset + 4 + 8L * blocks != size - TRAILER
+                    || count > (long) blocks * blockSize || count <= (long) (blocks - 1) * blockSize) {
+                throw new IOException("Puzzle archive has a damaged index: " + file);
+            }
+            long[] offsets = new long[blocks];
+            readFully(channel, indexOffset + 4, 8 * blocks).asLongBuffer().get(offsets);
+            return new PuzzleArchive(channel, blockSize, offsets, count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads bytes at a file position.
+     *
+     * @param channel The file.
+     * @param position The file position.
+     * @param length The number of bytes.
+     * @return The bytes, flipped for reading.
+     * @throws IOException if the file ends first.
+     */
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Puzzle archive is cut short.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Gets the number of puzzles.
+     *
+     * @return The number of puzzles.
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Reads one puzzle. Only its block is decompressed, and the last block is kept, so reading in order
+     * decompresses every block once.
+     *
+     * @param index The puzzle number (0 to size - 1).
+     * @param cells Receives the 81 cells (0 = empty).
+     * @throws IOException if the block cannot be read or is damaged.
+     * @throws IndexOutOfBoundsException if there is no such puzzle.
+     */
+    public synchronized void get(long index, byte[] cells) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("No puzzle with number " + index + ".");
+        }
+        int block = (int) (index / blockSize);
+        if (block != cachedBlock) loadBlock(block);
+        decode(raw, recordStart[(int) (index % blockSize)], cells);
+    }
+
+    /**
+     * Decompresses a block and finds the start of its records.
+     *
+     * @param block The block number.
+     * @throws IOException if the block cannot be read or is damaged.
+     */
+    private void loadBlock(int block) throws IOException {
+        cachedBlock = -1;
+        ByteBuffer header = readFully(channel, blockOffsets[block], BLOCK_HEADER);
+        int puzzles = header.getInt(0);
+        int rawLength = header.getInt(4);
+        int compressedLength = header.getInt(8);
+        if (puzzles < 1 || puzzles > blockSize || rawLength < 0 || rawLength > puzzles * MAX_RECORD_BYTES
+                || compressedLength < 0) {
+            throw new IOException("Damaged block " + block + " in puzzle archive.");
+        }
+        ByteBuffer compressed = readFully(channel, blockOffsets[block] + BLOCK_HEADER, compressedLength);
+        if (raw.length < rawLength) raw = new byte[blockSize * MAX_RECORD_BYTES];
+        inflate(inflater, compressed.array(), compressedLength, raw, rawLength, header.getInt(12));
+        if (recordStart.length < puzzles) recordStart = new int[blockSize];
+        int at = 0;
+        for (int i = 0; i < puzzles; i++) {
+            recordStart[i] = at;
+            at += recordLength(raw, at);
+        }
+        if (at != rawLength) throw new IOException("Damaged block " + block + " in puzzle archive.");
+        cachedBlock = block;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    /**
+     * Encodes a grid as one record.
+     *
+     * @param cells The 81 cells (0 = empty).
+     * @param out The output buffer.
+     * @param at Where the record starts.
+     * @return The length of the record.
+     */
+    static int encode(byte[] cells, byte[] out, int at) {
+        int clues = 0;
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if (cells[i] != 0) clues++;
+        }
+        if (clues > MAX_SPARSE_CLUES) {
+            out[at] = 1;
+            Arrays.fill(out, at + 1, at + 1 + PACKED_BYTES, (byte) 0);
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                out[at + 1 + (i >> 1)] |= (byte) ((cells[i] & 0xF) << ((i & 1) << 2));
+            }
+            return MAX_RECORD_BYTES;
+        }
+        int length = MASK_BYTES + (clues + 1) / 2;
+        Arrays.fill(out, at, at + length, (byte) 0);
+        int digit = 0;
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if (cells[i] == 0) continue;
+            out[at + ((i + 1) >> 3)] |= (byte) (1 << ((i + 1) & 7));
+            out[at + MASK_BYTES + (digit >> 1)] |= (byte) ((cells[i] & 0xF) << ((digit & 1) << 2));
+            digit++;
+        }
+        return length;
+    }
+
+    /**
+     * Decodes one record.
+     *
+     * @param in The records.
+     * @param at Where the record starts.
+     * @param cells Receives the 81 cells.
+     */
+    static void decode(byte[] in, int at, byte[] cells) {
+        if ((in[at] & 1) != 0) {
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                cells[i] = (byte) ((in[at + 1 + (i >> 1)] >> ((i & 1) << 2)) & 0xF);
+            }
+            return;
+        }
+        int digit = 0;
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            if ((in[at + ((i + 1) >> 3)] & (1 << ((i + 1) & 7))) == 0) {
+                cells[i] = 0;
+            } else {
+                cells[i] = (byte) ((in[at + MASK_BYTES + (digit >> 1)] >> ((digit & 1) << 2)) & 0xF);
+                digit++;
+            }
+        }
+    }
+
+    /**
+     * Gets the length of a record from its first bytes.
+     *
+     * @param in The records.
+     * @param at Where the record starts.
+     * @return The length of the record.
+     */
+    static int recordLength(byte[] in, int at) {
+        if ((in[at] & 1) != 0) return MAX_RECORD_BYTES;
+        int clues = 0;
+        for (int k = 0; k < MASK_BYTES; k++) {
+            clues += Integer.bitCount(in[at + k] & 0xFF);
+        }
+        return MASK_BYTES + (clues + 1) / 2;
+    }
+
+    /**
+     * Decompresses a block and checks its length and CRC-32.
+     *
+     * @param inflater The decompressor; it is reset first.
+     * @param compressed The compressed data.
+     * @param compressedLength Its length.
+     * @param raw Receives the records.
+     * @param rawLength The expected length of the records.
+     * @param crc The expected CRC-32 of the records.
+     * @throws IOException if the block is damaged.
+     */
+    private static void inflate(Inflater inflater, byte[] compressed, int compressedLength, byte[] raw,
+                                int rawLength, int crc) throws IOException {
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += n;
+            }
+            CRC32 check = new CRC32();
+            check.update(raw, 0, rawLength);
+            if (length != rawLength || !inflater.finished() || (int) check.getValue() != crc) {
+                throw new IOException("Damaged block in puzzle archive.");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Damaged block in puzzle archive.", e);
+        }
+    }
+
+    /**
+     * Writes an archive to a stream, one block at a time. Blocks are compressed as soon as they are full,
+     * so memory use does not depend on the number of puzzles. The archive is complete only after {@link #close()}.
+     */
+    public static final class Writer implements Closeable {
+        /** The output. */
+        private final DataOutputStream out;
+        /** Puzzles per block. */
+        private final int blockSize;
+        /** The records of the current block. */
+        private final byte[] raw;
+        /** The length of the records of the current block. */
+        private int rawLength;
+        /** The number of puzzles in the current block. */
+        private int blockCount;
+        /** Compressed data of the current block. */
+        private byte[] compressed;
+        /** File offset of every written block. */
+        private long[] blockOffsets = new long[16];
+        /** The number of written blocks. */
+        private int blocks;
+        /** The number of puzzles written. */
+        private long count;
+        /** The number of bytes written so far. */
+        private long position = HEADER;
+        /** Compresses blocks. */
+        private final Deflater deflater = new Deflater();
+        /** Checksums blocks. */
+        private final CRC32 crc = new CRC32();
+        /** Whether the archive was closed. */
+        private boolean closed;
+
+        /**
+         * Starts an archive with the default block size.
+         *
+         * @param out The stream; it is closed with the writer.
+         * @throws IOException if the header cannot be written.
+         */
+        public Writer(OutputStream out) throws IOException {
+            this(out, DEFAULT_BLOCK_SIZE);
+        }
+
+        /**
+         * Starts an archive.
+         *
+         * @param out The stream; it is closed with the writer.
+         * @param blockSize Puzzles per block; larger blocks compress better, smaller ones are faster to read
+         * at random.
+         * @throws IOException if the header cannot be written.
+         * @throws IllegalArgumentException if the block size is not positive.
+         */
+        public Writer(OutputStream out, int blockSize) throws IOException {
+            if (blockSize < 1 || blockSize > Integer.MAX_VALUE / MAX_RECORD_BYTES / 2) {
+                throw new IllegalArgumentException("Not a correct block size: " + blockSize);
+            }
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+            this.blockSize = blockSize;
+            this.raw = new byte[blockSize * MAX_RECORD_BYTES];
+            this.compressed = new byte[raw.length / 2 + 64];
+            this.out.writeInt(MAGIC);
+            this.out.writeShort(VERSION);
+            this.out.writeShort(0);
+            this.out.writeInt(blockSize);
+        }
+
+        /**
+         * Adds a grid.
+         *
+         * @param cells The 81 cells (0 = empty).
+         * @throws IOException if a full block cannot be written.
+         * @throws IllegalArgumentException if the grid does not have 81 cells.
+         */
+        public void write(byte[] cells) throws IOException {
+            if (cells.length != GridGeometry.CELLS) {
+                throw new IllegalArgumentException("A grid must have exactly 81 cells.");
+            }
+            if (closed) throw new IOException("Puzzle archive is closed.");
+            rawLength += encode(cells, raw, rawLength);
+            count++;
+            if (++blockCount == blockSize) writeBlock();
+        }
+
+        /**
+         * Gets the number of grids written.
+         *
+         * @return The count.
+         */
+        public long size() {
+            return count;
+        }
+
+        /**
+         * Compresses and writes the current block.
+         *
+         * @throws IOException if the block cannot be written.
+         */
+        private void writeBlock() throws IOException {
+            if (blocks == blockOffsets.length) blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+            blockOffsets[blocks++] = position;
+            deflater.reset();
+            deflater.setInput(raw, 0, rawLength);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            crc.reset();
+            crc.update(raw, 0, rawLength);
+            out.writeInt(blockCount);
+            out.writeInt(rawLength);
+            out.writeInt(length);
+            out.writeInt((int) crc.getValue());
+            out.write(compressed, 0, length);
+            position += BLOCK_HEADER + length;
+            rawLength = 0;
+            blockCount = 0;
+        }
+
+        /**
+         * Writes the last block and the block index, and closes the stream.
+         *
+         * @throws IOException if the archive cannot be completed.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                if (blockCount > 0) writeBlock();
+                out.writeInt(0);
+                long indexOffset = position + 4;
+                out.writeInt(blocks);
+                for (int b = 0; b < blocks; b++) {
+                    out.writeLong(blockOffsets[b]);
+                }
+                out.writeLong(count);
+                out.writeLong(indexOffset);
+                out.writeInt(MAGIC);
+            } finally {
+                deflater.end();
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Reads an archive from a stream, one block at a time, from the first puzzle to the last.
+     */
+    public static final class Reader implements Closeable {
+        /** The input. */
+        private final DataInputStream in;
+        /** Puzzles per block. */
+        private final int blockSize;
+        /** The records of the current block. */
+        private byte[] raw = new byte[0];
+        /** Compressed data of the current block. */
+        private byte[] compressed = new byte[0];
+        /** Where the next record of the current block starts. */
+        private int at;
+        /** Puzzles left in the current block. */
+        private int left;
+        /** Whether the end marker was read. */
+        private boolean ended;
+        /** Decompresses blocks. */
+        private final Inflater inflater = new Inflater();
+
+        /**
+         * Starts reading an archive.
+         *
+         * @param in The stream; it is closed with the reader.
+         * @throws IOException if the header cannot be read or is not an archive header.
+         */
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+            if (this.in.readInt() != MAGIC || this.in.readShort() != VERSION) {
+                throw new IOException("Not a puzzle archive.");
+            }
+            this.in.readShort();
+            this.blockSize = this.in.readInt();
+            if (blockSize < 1) throw new IOException("Not a puzzle archive.");
+        }
+
+        /**
+         * Reads the next grid.
+         *
+         * @param cells Receives the 81 cells (0 = empty).
+         * @return {@code false} if the archive has no more grids.
+         * @throws IOException if a block cannot be read or is damaged.
+         */
+        public boolean next(byte[] cells) throws IOException {
+            if (left == 0 && !readBlock()) return false;
+            decode(raw, at, cells);
+            at += recordLength(raw, at);
+            left--;
+            return true;
+        }
+
+        /**
+         * Reads and decompresses the next block.
+         *
+         * @return {@code false} at the end marker.
+         * @throws IOException if the block cannot be read or is damaged.
+         */
+        private boolean readBlock() throws IOException {
+            if (ended) return false;
+            int puzzles = in.readInt();
+            if (puzzles == 0) {
+                ended = true;
+                return false;
+            }
+            int rawLength = in.readInt();
+            int compressedLength = in.readInt();
+            int crc = in.readInt();
+            if (puzzles < 0 || puzzles > blockSize || rawLength < 0 || rawLength > puzzles * MAX_RECORD_BYTES
+                    || compressedLength < 0 || compressedLength > rawLength + rawLength / 8 + 1024) {
+                throw new IOException("Damaged block in puzzle archive.");
+            }
+            if (compressed.length < compressedLength) compressed = new byte[compressedLength];
+            in.readFully(compressed, 0, compressedLength);
+            if (raw.length < rawLength) raw = new byte[blockSize * MAX_RECORD_BYTES];
+            inflate(inflater, compressed, compressedLength, raw, rawLength, crc);
+            at = 0;
+            left = puzzles;
+            return true;
+        }
+
+        /**
+         * Closes the stream.
+         *
+         * @throws IOException if the stream cannot be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            in.close();
+        }
+    }
+}
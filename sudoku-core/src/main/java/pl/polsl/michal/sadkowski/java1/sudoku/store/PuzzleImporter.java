@@ -0,0 +1,481 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleImporter.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.store;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streaming reader of puzzle collections in the common text formats.
+ * <ul>
+ * <li>{@link Format#LINE}: one puzzle of 81 cells per line, as in {@code .sdm} files and the console output;
+ * anything after the 81st cell and a space or {@code #} (a name or a rating) is ignored.</li>
+ * <li>{@link Format#SDK}: a puzzle as 9 lines of 9 cells, as in {@code .sdk} files; spaces and the box
+ * decorations {@code | - +} are ignored, and records follow each other with or without blank lines. A blank or
+ * comment line ends a record; after a malformed line the rest of its record, up to the next blank or comment
+ * line, is skipped, so that a bad row never joins the rows of the next puzzle.</li>
+ * <li>{@link Format#CSV}: a puzzle per line, either as the first field ({@code puzzle,solution}) or as 81 fields
+ * of one cell each.</li>
+ * </ul>
+ * Digits 1-9 are values; {@code 0 . _ *} are empty cells. Lines that start with {@code #}, {@code [} or a letter
+ * are comments or headers and are skipped. The format is detected from the first data line of 9 or 81 cells.
+ * <p>
+ * The input is read in blocks of {@value #BUFFER_SIZE} bytes and parsed byte by byte, with a table lookup per
+ * byte, straight into the caller's array of packed boards (81 bytes each); no line or String is created.
+ * Malformed records are skipped and counted, and the line numbers of the first {@value #MAX_REPORTED} are kept.
+ * One instance is not thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class PuzzleImporter implements Closeable {
+    /** Size of the read buffer. */
+    public static final int BUFFER_SIZE = 1 << 16;
+    /** Number of malformed records whose line numbers are kept. */
+    public static final int MAX_REPORTED = 100;
+
+    /**
+     * Supported text formats.
+     */
+    public enum Format {
+        /** 81 cells per line ({@code .sdm}, plain lists). */
+        LINE,
+        /** 9 lines of 9 cells per puzzle ({@code .sdk}). */
+        SDK,
+        /** Comma-separated: the puzzle as the first field, or one cell per field. */
+        CSV
+    }
+
+    /** Byte class: a digit 1-9. */
+    private static final byte DIGIT = 1;
+    /** Byte class: an empty cell. */
+    private static final byte EMPTY = 2;
+    /** Byte class: end of line. */
+    private static final byte NEWLINE = 3;
+    /** Byte class: space, tab or carriage return. */
+    private static final byte SPACE = 4;
+    /** Byte class: a box decoration. */
+    private static final byte DECORATION = 5;
+    /** Byte class: a field separator. */
+    private static final byte COMMA = 6;
+    /** Byte class: starts a comment or header line. */
+    private static final byte COMMENT = 7;
+    /** Byte class: anything else. */
+    private static final byte OTHER = 0;
+    /** Class of every byte value. */
+    private static final byte[] CLASS = new byte[256];
+    /** Cell value of every byte value: 1-9 for digits, 0 for empty cells, -1 for anything else. */
+    private static final byte[] VALUE = new byte[256];
+
+    static {
+        for (int b = '1'; b <= '9'; b++) CLASS[b] = DIGIT;
+        for (char c : new char[] {'0', '.', '_', '*'}) CLASS[c] = EMPTY;
+        CLASS['\n'] = NEWLINE;
+        for (char c : new char[] {' ', '\t', '\r'}) CLASS[c] = SPACE;
+        for (char c : new char[] {'|', '-', '+'}) CLASS[c] = DECORATION;
+        for (char c : new char[] {',', ';'}) CLASS[c] = COMMA;
+        CLASS['#'] = COMMENT;
+        CLASS['['] = COMMENT;
+        for (int b = 'A'; b <= 'Z'; b++) CLASS[b] = COMMENT;
+        for (int b = 'a'; b <= 'z'; b++) CLASS[b] = COMMENT;
+        for (int b = 0; b < 256; b++) {
+            VALUE[b] = (byte) (CLASS[b] == DIGIT ? b - '0' : CLASS[b] == EMPTY ? 0 : -1);
+        }
+    }
+
+    /** Line state: nothing but spaces seen. */
+    private static final int START = 0;
+    /** Line state: reading cells. */
+    private static final int CELLS = 1;
+    /** Line state: the rest of the line is ignored. */
+    private static final int SKIP = 2;
+    /** Line state: the line is malformed; the rest is ignored. */
+    private static final int BAD = 3;
+
+    /** The input. */
+    private final InputStream in;
+    /** The read buffer. */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    /** The next byte to parse. */
+    private int position;
+    /** The end of the valid bytes. */
+    private int limit;
+    /** Whether the input is exhausted. */
+    private boolean eof;
+    /** The detected or requested format. */
+    private final Format format;
+
+    /** The state of the current line. */
+    private int lineState = START;
+    /** Cells of the current line. */
+    private int lineCells;
+    /** Cells of the current SDK record in completed lines. */
+    private int recordCells;
+    /** The first line of the current SDK record. */
+    private long recordLine;
+    /** Whether the rest of a malformed SDK record is being skipped. */
+    private boolean dropping;
+    /** The current line number, 1-based. */
+    private long line = 1;
+    /** Bytes parsed so far. */
+    private long bytes;
+    /** Puzzles read so far. */
+    private long records;
+    /** Malformed records skipped so far. */
+    private long malformed;
+    /** Line numbers of the first malformed records. */
+    private final List<Long> malformedLines = new ArrayList<>();
+
+    /**
+     * Starts reading and detects the format from the first data line of 9 or 81 cells.
+     *
+     * @param in The input; it is closed with the importer.
+     * @throws IOException if the input cannot be read.
+     */
+    public PuzzleImporter(InputStream in) throws IOException {
+        this.in = in;
+        fill();
+        this.format = detect(buffer, limit);
+    }
+
+    /**
+     * Starts reading in a known format.
+     *
+     * @param in The input; it is closed with the importer.
+     * @param format The format.
+     */
+    public PuzzleImporter(InputStream in, Format format) {
+        this.in = in;
+        this.format = format;
+    }
+
+    /**
+     * Detects the format from the first line that starts with a cell and has a telling number of cells.
+     * A line of 9 cells (spaces and box decorations aside) means {@link Format#SDK} and a line of at least 81
+     * cells means {@link Format#LINE} or {@link Format#CSV}; lines with any other count, such as a truncated
+     * record, are skipped, so that one bad first record does not decide the format of the whole input.
+     *
+     * @param data The first bytes of the input.
+     * @param length Their number.
+     * @return {@link Format#CSV} if a comma follows the first cell or the 81st cell, {@link Format#SDK} for a line
+     *         of 9 cells, {@link Format#LINE} otherwise.
+     */
+    static Format detect(byte[] data, int length) {
+        int i = 0;
+        while (i < length) {
+            while (i < length && CLASS[data[i] & 0xFF] == SPACE) i++;
+            if (i < length && (CLASS[data[i] & 0xFF] == DIGIT || CLASS[data[i] & 0xFF] == EMPTY)) {
+                if (i + 1 < length && CLASS[data[i + 1] & 0xFF] == COMMA) return Format.CSV;
+                int cells = 0;
+                while (i < length && data[i] != '\n') {
+                    int k = CLASS[data[i] & 0xFF];
+                    if (k == DIGIT || k == EMPTY) {
+                        if (++cells == GridGeometry.CELLS) {
+                            boolean comma = i + 1 < length && CLASS[data[i + 1] & 0xFF] == COMMA;
+                            return comma ? Format.CSV : Format.LINE;
+                        }
+                    } else if (k != SPACE && k != DECORATION) {
+                        break;
+                    }
+                    i++;
+                }
+                if (cells == GridGeometry.SIZE) return Format.SDK;
+            }
+            while (i < length && data[i] != '\n') i++;
+            i++;
+        }
+        return Format.LINE;
+    }
+
+    /**
+     * Gets the format of the input.
+     *
+     * @return The detected or requested format.
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Reads puzzles into an array of packed boards.
+     *
+     * @param boards Receives the boards, 81 cells each (0 = empty).
+     * @param maxBoards The most boards to read; at most {@code boards.length / 81}.
+     * @return The number of boards read; 0 only at the end of the input.
+     * @throws IOException if the input cannot be read.
+     */
+    public int read(byte[] boards, int maxBoards) throws IOException {
+        int max = Math.min(maxBoards, boards.length / GridGeometry.CELLS);
+        int count = 0;
+        while (count < max) {
+            if (position == limit) {
+                if (eof || !fill()) {
+                    count += endOfInput(boards, count * GridGeometry.CELLS);
+                    break;
+                }
+            }
+            count += format == Format.SDK ? parseSdk(boards, count * GridGeometry.CELLS)
+                    : parseLines(boards, count * GridGeometry.CELLS);
+        }
+        records += count;
+        return count;
+    }
+
+    /**
+     * Reads the next puzzle.
+     *
+     * @param cells Receives the 81 cells (0 = empty).
+     * @return {@code false} at the end of the input.
+     * @throws IOException if the input cannot be read.
+     */
+    public boolean next(byte[] cells) throws IOException {
+        return read(cells, 1) == 1;
+    }
+
+    /**
+     * Parses line formats until a record is complete or the buffer is used up.
+     *
+     * @param out The boards.
+     * @param base Where the record is written.
+     * @return 1 if a record was completed, 0 otherwise.
+     */
+    private int parseLines(byte[] out, int base) {
+        boolean csv = format == Format.CSV;
+        byte[] data = buffer;
+        int end = limit;
+        int p = position;
+        int state = lineState;
+        int n = lineCells;
+        try {
+            while (p < end) {
+                if (state == START && end - p > GridGeometry.CELLS) {
+                    // Fast path: a whole record at the start of the line, without per-byte state changes
+                    int j = 0;
+                    while (j < GridGeometry.CELLS) {
+                        int v = VALUE[data[p + j] & 0xFF];
+                        if (v < 0) break;
+                        out[base + j++] = (byte) v;
+                    }
+                    if (j == GridGeometry.CELLS) {
+                        p += j;
+                        n = j;
+                        state = CELLS;
+                        continue;
+                    }
+                }
+                int b = data[p++] & 0xFF;
+                int k = CLASS[b];
+                if (k == NEWLINE) {
+                    line++;
+                    int complete = state != BAD && n == GridGeometry.CELLS ? 1 : 0;
+                    if (complete == 0 && (state == BAD || n > 0)) reportMalformed(line - 1);
+                    state = START;
+                    n = 0;
+                    if (complete == 1) return 1;
+                    continue;
+                }
+                if (state >= SKIP) continue;
+                if (k == DIGIT || k == EMPTY) {
+                    if (n < GridGeometry.CELLS) {
+                        out[base + n++] = (byte) (k == DIGIT ? b - '0' : 0);
+                        state = CELLS;
+                    } else {
+                        state = BAD;
+                    }
+                } else if (state == START) {
+                    if (k == COMMENT) state = SKIP;
+                    else if (k != SPACE) state = BAD;
+                } else if (n == GridGeometry.CELLS) {
+                    state = SKIP;
+                } else if (!csv || (k != COMMA && k != SPACE)) {
+                    state = BAD;
+                }
+            }
+            return 0;
+        } finally {
+            bytes += p - position;
+            position = p;
+            lineState = state;
+            lineCells = n;
+        }
+    }
+
+    /**
+     * Parses the SDK format until a record is complete or the buffer is used up.
+     *
+     * @param out The boards.
+     * @param base Where the record is written.
+     * @return 1 if a record was completed, 0 otherwise.
+     */
+    private int parseSdk(byte[] out, int base) {
+        byte[] data = buffer;
+        int end = limit;
+        int p = position;
+        int state = lineState;
+        int n = lineCells;
+        try {
+            while (p < end) {
+                int b = data[p++] & 0xFF;
+                int k = CLASS[b];
+                if (k == NEWLINE) {
+                    line++;
+                    boolean complete = endSdkLine(state, n);
+                    state = START;
+                    n = 0;
+                    if (complete) return 1;
+                    continue;
+                }
+                if (state >= SKIP) continue;
+                if (k == DIGIT || k == EMPTY) {
+                    if (n < GridGeometry.SIZE) {
+                        out[base + recordCells + n++] = (byte) (k == DIGIT ? b - '0' : 0);
+                        state = CELLS;
+                    } else {
+                        state = BAD;
+                    }
+                } else if (k == COMMENT || k == OTHER) {
+                    state = state == START && k == COMMENT ? SKIP : BAD;
+                } else if (k == DECORATION && state == START) {
+                    state = CELLS;
+                }
+            }
+            return 0;
+        } finally {
+            bytes += p - position;
+            position = p;
+            lineState = state;
+            lineCells = n;
+        }
+    }
+
+    /**
+     * Finishes a line of an SDK record. A blank or comment line ends the record: an incomplete record is
+     * reported, and a record being skipped after a malformed line is left behind. A malformed line is reported
+     * once, and the rest of its record is skipped up to the next blank or comment line.
+     *
+     * @param state The state of the line.
+     * @param n The cells of the line.
+     * @return {@code true} if the line completed a record.
+     */
+    private boolean endSdkLine(int state, int n) {
+        if (state == START || state == SKIP) {
+            if (!dropping && recordCells > 0) reportMalformed(recordLine);
+            dropping = false;
+            recordCells = 0;
+            return false;
+        }
+        if (dropping) return false;
+        if (state == BAD || (n != 0 && n != GridGeometry.SIZE)) {
+            reportMalformed(line - 1);
+            recordCells = 0;
+            dropping = true;
+            return false;
+        }
+        if (n == 0) return false;
+        if (recordCells == 0) recordLine = line - 1;
+        recordCells += n;
+        if (recordCells < GridGeometry.CELLS) return false;
+        recordCells = 0;
+        return true;
+    }
+
+    /**
+     * Finishes the last line, which may lack a line break.
+     *
+     * @param out The boards.
+     * @param base Where the record is written.
+     * @return 1 if the last line completed a record, 0 otherwise.
+     */
+    private int endOfInput(byte[] out, int base) {
+        int state = lineState;
+        int n = lineCells;
+        lineState = START;
+        lineCells = 0;
+        if (format == Format.SDK) {
+            boolean complete = state != START && endSdkLine(state, n);
+            if (!complete && recordCells > 0) reportMalformed(recordLine);
+            recordCells = 0;
+            dropping = false;
+            return complete ? 1 : 0;
+        }
+        if (state != BAD && n == GridGeometry.CELLS) return 1;
+        if (state == BAD || n > 0) reportMalformed(line);
+        return 0;
+    }
+
+    /**
+     * Counts a malformed record.
+     *
+     * @param lineNumber The line where it was found.
+     */
+    private void reportMalformed(long lineNumber) {
+        malformed++;
+        if (malformedLines.size() < MAX_REPORTED) malformedLines.add(lineNumber);
+    }
+
+    /**
+     * Refills the buffer.
+     *
+     * @return {@code false} at the end of the input.
+     * @throws IOException if the input cannot be read.
+     */
+    private boolean fill() throws IOException {
+        int n = in.readNBytes(buffer, 0, buffer.length);
+        position = 0;
+        limit = n;
+        if (n < buffer.length) eof = true;
+        return n > 0;
+    }
+
+    /**
+     * Gets the number of puzzles read.
+     *
+     * @return The count.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Gets the number of malformed records skipped.
+     *
+     * @return The count.
+     */
+    public long getMalformedCount() {
+        return malformed;
+    }
+
+    /**
+     * Gets the line numbers of the first {@value #MAX_REPORTED} malformed records.
+     *
+     * @return A read-only list of 1-based line numbers.
+     */
+    public List<Long> getMalformedLines() {
+        return Collections.unmodifiableList(malformedLines);
+    }
+
+    /**
+     * Gets the number of bytes parsed.
+     *
+     * @return The count.
+     */
+    public long getBytesRead() {
+        return bytes;
+    }
+
+    /**
+     * Closes the input.
+     *
+     * @throws IOException if the input cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,399 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleLibrary.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.store;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.Difficulty;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only library of puzzles in two memory-mapped files.
+ * <p>
+ * The data file holds a header ({@link #MAGIC}, {@link #VERSION}, record size, count) and fixed-width records of
+ * {@link #RECORD_BYTES} bytes: the givens packed two cells per byte, the difficulty, the clue count and the solver
+ * rating. A puzzle's id is its record number, so reading a puzzle is one positioned read at
+ * {@code header + id * RECORD_BYTES}.
+ * <p>
+ * The sidecar index ({@code <data file>.idx}) lists the ids ordered by difficulty and then by clue count, and for
+ * every (difficulty, clue count) bucket where its ids start. All puzzles of a difficulty within a clue range are
+ * therefore one contiguous run of the index, and a random pick is an index lookup plus a record read, without a scan
+ * and without keeping the puzzles on the heap. A library is written once by a {@link Builder}.
+ * <p>
+ * Both files are mapped as one buffer each, which limits a library to about 44 million puzzles.
+ * Instances are immutable and thread-safe.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class PuzzleLibrary {
+    /** Data file signature ("SLIB"). */
+    public static final int MAGIC = 0x534C4942;
+    /** Index file signature ("SLIX"). */
+    public static final int INDEX_MAGIC = 0x534C4958;
+    /** Format version of both files. */
+    public static final int VERSION = 1;
+    /** Size of one puzzle record. */
+    public static final int RECORD_BYTES = 48;
+    /** Bytes of the packed givens. */
+    private static final int PUZZLE_BYTES = (GridGeometry.CELLS + 1) / 2;
+    /** Offset of the difficulty in a record. */
+    private static final int DIFFICULTY_AT = PUZZLE_BYTES;
+    /** Offset of the clue count in a record. */
+    private static final int CLUES_AT = PUZZLE_BYTES + 1;
+    /** Offset of the rating in a record. */
+    private static final int RATING_AT = 44;
+    /** Length of the header of both files. */
+    private static final int HEADER = 16;
+    /** Clue counts 0-81. */
+    private static final int CLUE_SLOTS = GridGeometry.CELLS + 1;
+    /** Number of (difficulty, clue count) buckets. */
+    private static final int BUCKETS = Difficulty.values().length * CLUE_SLOTS;
+
+    /** The records. */
+    private final ByteBuffer data;
+    /** Where every bucket starts in {@link #ids}; one more entry than there are buckets. */
+    private final int[] bucketStart;
+    /** The ids ordered by bucket. */
+    private final IntBuffer ids;
+    /** The number of puzzles. */
+    private final int count;
+
+    /**
+     * Creates a library over mapped files.
+     *
+     * @param data The mapped data file, positioned after the header.
+     * @param bucketStart The bucket table.
+     * @param ids The mapped ids of the index.
+     * @param count The number of puzzles.
+     */
+    private PuzzleLibrary(ByteBuffer data, int[] bucketStart, IntBuffer ids, int count) {
+        this.data = data;
+        this.bucketStart = bucketStart;
+        this.ids = ids;
+        this.count = count;
+    }
+
+    /**
+     * Opens a library and its index by mapping both files.
+     *
+     * @param file The data file; the index is expected next to it with the extension {@code .idx} appended.
+     * @return The library.
+     * @throws IOException if a file cannot be mapped or does not match the format.
+     */
+    public static PuzzleLibrary open(Path file) throws IOException {
+        ByteBuffer data = map(file);
+        if (data.getInt(0) != MAGIC || data.getShort(4) != VERSION || data.getShort(6) != RECORD_BYTES) {
+            throw new IOException("Not a puzzle library: " + file);
+        }
+        int count = data.getInt(8);
+        if (data.capacity() != HEADER + (long) count * RECORD_BYTES) {
+            throw new IOException("Puzzle library has a wrong length: " + file);
+        }
+        Path indexFile = indexOf(file);
+        ByteBuffer index = map(indexFile);
+        if (index.getInt(0) != INDEX_MAGIC || index.getShort(4) != VERSION || index.getInt(8) != count
+                || index.getInt(12) != BUCKETS
+                || index.capacity() != HEADER + 4L * (BUCKETS + 1) + 4L * count) {
+            throw new IOException("Puzzle library index does not match the library: " + indexFile);
+        }
+        int[] bucketStart = new int[BUCKETS + 1];
+        index.position(HEADER);
+        index.asIntBuffer().get(bucketStart);
+        index.position(HEADER + 4 * (BUCKETS + 1));
+        return new PuzzleLibrary(data.position(HEADER).slice(), bucketStart, index.slice().asIntBuffer(), count);
+    }
+
+    /**
+     * Maps a whole file read-only.
+     *
+     * @param file The file.
+     * @return The mapped buffer.
+     * @throws IOException if the file cannot be mapped.
+     */
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Puzzle library file is too large: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Gets the index file of a data file.
+     *
+     * @param file The data file.
+     * @return The index file.
+     */
+    private static Path indexOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    /**
+     * Gets the number of puzzles.
+     *
+     * @return The number of puzzles.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Counts the puzzles of a difficulty within a clue range.
+     *
+     * @param difficulty The difficulty.
+     * @param minClues The smallest clue count.
+     * @param maxClues The largest clue count.
+     * @return The number of matching puzzles.
+     */
+    public int count(Difficulty difficulty, int minClues, int maxClues) {
+        int lo = Math.max(minClues, 0);
+        int hi = Math.min(maxClues, GridGeometry.CELLS);
+        if (lo > hi) return 0;
+        int base = difficulty.ordinal() * CLUE_SLOTS;
+        return bucketStart[base + hi + 1] - bucketStart[base + lo];
+    }
+
+    /**
+     * Counts the puzzles of a difficulty.
+     *
+     * @param difficulty The difficulty.
+     * @return The number of puzzles of that difficulty.
+     */
+    public int count(Difficulty difficulty) {
+        return count(difficulty, 0, GridGeometry.CELLS);
+    }
+
+    /**
+     * Picks a random puzzle of a difficulty within a clue range in O(1).
+     *
+     * @param difficulty The difficulty.
+     * @param minClues The smallest clue count.
+     * @param maxClues The largest clue count.
+     * @param random The random source.
+     * @return The id of the puzzle, or -1 if no puzzle matches.
+     */
+    public int pick(Difficulty difficulty, int minClues, int maxClues, RandomGenerator random) {
+        int n = count(difficulty, minClues, maxClues);
+        if (n == 0) return -1;
+        int first = bucketStart[difficulty.ordinal() * CLUE_SLOTS + Math.max(minClues, 0)];
+        return ids.get(first + random.nextInt(n));
+    }
+
+    /**
+     * Picks a random puzzle of a difficulty.
+     *
+     * @param difficulty The difficulty.
+     * @param random The random source.
+     * @return The id of the puzzle, or -1 if the library has no puzzle of that difficulty.
+     */
+    public int pick(Difficulty difficulty, RandomGenerator random) {
+        return pick(difficulty, 0, GridGeometry.CELLS, random);
+    }
+
+    /**
+     * Reads the givens of a puzzle.
+     *
+     * @param id The puzzle id (0 to size - 1).
+     * @param cells Receives the 81 givens (0 = empty).
+     * @throws IndexOutOfBoundsException if there is no such puzzle.
+     */
+    public void get(int id, byte[] cells) {
+        int at = offsetOf(id);
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int b = data.get(at + (i >> 1));
+            cells[i] = (byte) ((i & 1) == 0 ? b & 0xF : (b >> 4) & 0xF);
+        }
+    }
+
+    /**
+     * Reads the givens of a puzzle.
+     *
+     * @param id The puzzle id.
+     * @return The 81 givens (0 = empty).
+     * @throws IndexOutOfBoundsException if there is no such puzzle.
+     */
+    public byte[] get(int id) {
+        byte[] cells = new byte[GridGeometry.CELLS];
+        get(id, cells);
+        return cells;
+    }
+
+    /**
+     * Gets the difficulty of a puzzle.
+     *
+     * @param id The puzzle id.
+     * @return The difficulty.
+     */
+    public Difficulty getDifficulty(int id) {
+        return Difficulty.of(data.get(offsetOf(id) + DIFFICULTY_AT));
+    }
+
+    /**
+     * Gets the clue count of a puzzle.
+     *
+     * @param id The puzzle id.
+     * @return The number of givens.
+     */
+    public int getClues(int id) {
+        return data.get(offsetOf(id) + CLUES_AT);
+    }
+
+    /**
+     * Gets the solver rating of a puzzle.
+     *
+     * @param id The puzzle id.
+     * @return The number of search nodes, saturated at {@link Integer#MAX_VALUE}.
+     */
+    public int getRating(int id) {
+        return data.getInt(offsetOf(id) + RATING_AT);
+    }
+
+    /**
+     * Finds a record.
+     *
+     * @param id The puzzle id.
+     * @return The offset of the record in the data buffer.
+     */
+    private int offsetOf(int id) {
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("No puzzle with id " + id + ".");
+        }
+        return id * RECORD_BYTES;
+    }
+
+    /**
+     * Collects puzzles in memory and writes a library with its index.
+     */
+    public static final class Builder {
+        /** The records collected so far. */
+        private byte[] records = new byte[RECORD_BYTES * 1024];
+        /** The number of puzzles collected so far. */
+        private int count;
+
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Adds a puzzle; its difficulty is derived from the rating.
+         *
+         * @param givens The 81 givens (0 = empty).
+         * @param rating The solver rating (number of search nodes).
+         * @return The id the puzzle will have.
+         */
+        public int add(byte[] givens, long rating) {
+            return add(givens, Difficulty.fromRating(rating), rating);
+        }
+
+        /**
+         * Adds a puzzle with a given difficulty.
+         *
+         * @param givens The 81 givens (0 = empty).
+         * @param difficulty The difficulty.
+         * @param rating The solver rating (number of search nodes).
+         * @return The id the puzzle will have.
+         * @throws IllegalArgumentException if the givens do not have 81 cells.
+         */
+        public int add(byte[] givens, Difficulty difficulty, long rating) {
+            if (givens.length != GridGeometry.CELLS) {
+                throw new IllegalArgumentException("A grid must have exactly 81 cells.");
+            }
+            if ((long) (count + 1) * RECORD_BYTES + HEADER > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The library is full.");
+            }
+            if ((count + 1) * RECORD_BYTES > records.length) {
+                records = Arrays.copyOf(records, (int) Math.min(Integer.MAX_VALUE - 8L, 2L * records.length));
+            }
+            int at = count * RECORD_BYTES;
+            int clues = 0;
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                int v = givens[i] & 0xF;
+                if (v != 0) clues++;
+                records[at + (i >> 1)] |= (byte) ((i & 1) == 0 ? v : v << 4);
+            }
+            records[at + DIFFICULTY_AT] = (byte) difficulty.ordinal();
+            records[at + CLUES_AT] = (byte) clues;
+            ByteBuffer.wrap(records, at + RATING_AT, 4).putInt((int) Math.min(rating, Integer.MAX_VALUE));
+            return count++;
+        }
+
+        /**
+         * Gets the number of puzzles collected.
+         *
+         * @return The count.
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Writes the data file and its index, replacing existing files.
+         *
+         * @param file The data file; the index is written next to it with {@code .idx} appended.
+         * @throws IOException if a file cannot be written.
+         */
+        public void write(Path file) throws IOException {
+            int[] bucketStart = new int[BUCKETS + 1];
+            for (int id = 0; id < count; id++) {
+                bucketStart[bucketOf(id) + 1]++;
+            }
+            for (int b = 0; b < BUCKETS; b++) {
+                bucketStart[b + 1] += bucketStart[b];
+            }
+            int[] next = Arrays.copyOf(bucketStart, BUCKETS);
+            int[] ids = new int[count];
+            for (int id = 0; id < count; id++) {
+                ids[next[bucketOf(id)]++] = id;
+            }
+            try (OutputStream raw = Files.newOutputStream(file);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(RECORD_BYTES);
+                out.writeInt(count);
+                out.writeInt(0);
+                out.write(records, 0, count * RECORD_BYTES);
+            }
+            try (OutputStream raw = Files.newOutputStream(indexOf(file));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw, 1 << 16))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeInt(count);
+                out.writeInt(BUCKETS);
+                for (int start : bucketStart) {
+                    out.writeInt(start);
+                }
+                for (int id : ids) {
+                    out.writeInt(id);
+                }
+            }
+        }
+
+        /**
+         * Gets the bucket of a collected puzzle.
+         *
+         * @param id The puzzle id.
+         * @return The bucket number: difficulty * 82 + clue count.
+         */
+        private int bucketOf(int id) {
+            int at = id * RECORD_BYTES;
+            return records[at + DIFFICULTY_AT] * CLUE_SLOTS + records[at + CLUES_AT];
+        }
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Contains the persistent stores of the application, such as the
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.store.LeaderboardStore} of finished games and the sharded
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.store.ProfileStore} of user profiles.
+ * The stores keep their data in append-only files and answer queries from in-memory indexes.
+ * The read-only {@link pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleLibrary} of new puzzles is memory-mapped
+ * instead, so it is not loaded onto the heap, and the
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleArchive} is a compact, block-compressed exchange format
+ * for large puzzle collections. The {@link pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleImporter} streams
+ * puzzle collections in the common text formats.
+ */
+package pl.polsl.michal.sadkowski.java1.sudoku.store;
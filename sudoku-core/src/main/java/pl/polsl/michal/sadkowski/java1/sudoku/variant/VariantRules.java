@@ -0,0 +1,482 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantRules.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.variant;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The rules of a 9x9 Sudoku variant, compiled into flat index arrays.
+ * A variant is described with a {@link Builder} and compiled once; the solver then only walks arrays:
+ * <ul>
+ * <li>units - groups of nine cells that must hold every digit once (rows, columns, boxes or jigsaw regions,
+ * diagonals, windows), stored nine cells per unit,</li>
+ * <li>peers - for every cell, the cells that may not repeat its digit, stored as one array with start offsets,</li>
+ * <li>cages - Killer cages with their cells and the precomputed masks of all digit sets that give the cage sum.</li>
+ * </ul>
+ * Instances are immutable and thread-safe; the arrays are package-private and must be treated as read-only.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class VariantRules {
+    /** Digit-set masks of every cage size (0-9) and sum (0-45): {@code COMBOS[size][sum]}. */
+    private static final int[][][] COMBOS = new int[GridGeometry.SIZE + 1][46][];
+
+    static {
+        List<List<List<Integer>>> lists = new ArrayList<>();
+        for (int size = 0; size <= GridGeometry.SIZE; size++) {
+            List<List<Integer>> bySum = new ArrayList<>();
+            for (int sum = 0; sum <= 45; sum++) {
+                bySum.add(new ArrayList<>());
+            }
+            lists.add(bySum);
+        }
+        for (int mask = 0; mask <= GridGeometry.ALL_DIGITS; mask += 2) {
+            int sum = 0;
+            for (int d = 1; d <= GridGeometry.SIZE; d++) {
+                if ((mask & (1 << d)) != 0) sum += d;
+            }
+            lists.get(Integer.bitCount(mask)).get(sum).add(mask);
+        }
+        for (int size = 0; size <= GridGeometry.SIZE; size++) {
+            for (int sum = 0; sum <= 45; sum++) {
+                COMBOS[size][sum] = lists.get(size).get(sum).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    /** The name of the variant, e.g. "classic" or "killer". */
+    private final String name;
+    /** Cells of all units, nine per unit. */
+    final int[] unitCells;
+    /** Number of units. */
+    final int unitCount;
+    /** Start of the peers of cell {@code i} in {@link #peers}; the peers end at {@code peerStart[i + 1]}. */
+    final int[] peerStart;
+    /** Peers of all cells. */
+    final int[] peers;
+    /** Number of cages. */
+    final int cageCount;
+    /** Start of the cells of cage {@code k} in {@link #cageCells}; the cells end at {@code cageStart[k + 1]}. */
+    final int[] cageStart;
+    /** Cells of all cages. */
+    final int[] cageCells;
+    /** Start of the sum combinations of cage {@code k} in {@link #cageCombos}. */
+    final int[] comboStart;
+    /** Digit-set masks that fit the size and sum of every cage. */
+    final int[] cageCombos;
+    /** The sum of every cage. */
+    private final int[] cageSums;
+
+    /**
+     * Compiles the rules collected by a builder.
+     *
+     * @param builder The builder.
+     */
+    private VariantRules(Builder builder) {
+        this.name = builder.name;
+        this.unitCount = builder.units.size();
+        this.unitCells = new int[unitCount * GridGeometry.SIZE];
+        for (int u = 0; u < unitCount; u++) {
+            System.arraycopy(builder.units.get(u), 0, unitCells, u * GridGeometry.SIZE, GridGeometry.SIZE);
+        }
+        this.cageCount = builder.cages.size();
+        this.cageStart = new int[cageCount + 1];
+        this.comboStart = new int[cageCount + 1];
+        this.cageSums = new int[cageCount];
+        for (int k = 0; k < cageCount; k++) {
+            int[] cage = builder.cages.get(k);
+            cageSums[k] = builder.sums.get(k);
+            cageStart[k + 1] = cageStart[k] + cage.length;
+            comboStart[k + 1] = comboStart[k] + COMBOS[cage.length][cageSums[k]].length;
+        }
+        this.cageCells = new int[cageStart[cageCount]];
+        this.cageCombos = new int[comboStart[cageCount]];
+        for (int k = 0; k < cageCount; k++) {
+            int[] cage = builder.cages.get(k);
+            System.arraycopy(cage, 0, cageCells, cageStart[k], cage.length);
+            int[] combos = COMBOS[cage.length][cageSums[k]];
+            System.arraycopy(combos, 0, cageCombos, comboStart[k], combos.length);
+        }
+        boolean[][] linked = new boolean[GridGeometry.CELLS][GridGeometry.CELLS];
+        for (int u = 0; u < unitCount; u++) {
+            link(linked, unitCells, u * GridGeometry.SIZE, (u + 1) * GridGeometry.SIZE);
+        }
+        for (int k = 0; k < cageCount; k++) {
+            link(linked, cageCells, cageStart[k], cageStart[k + 1]);
+        }
+        this.peerStart = new int[GridGeometry.CELLS + 1];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int n = 0;
+            for (int j = 0; j < GridGeometry.CELLS; j++) {
+                if (linked[i][j]) n++;
+            }
+            peerStart[i + 1] = peerStart[i] + n;
+        }
+        this.peers = new int[peerStart[GridGeometry.CELLS]];
+        for (int i = 0, at = 0; i < GridGeometry.CELLS; i++) {
+            for (int j = 0; j < GridGeometry.CELLS; j++) {
+                if (linked[i][j]) peers[at++] = j;
+            }
+        }
+    }
+
+    /**
+     * Marks every pair of distinct cells of a group as peers.
+     *
+     * @param linked The peer matrix.
+     * @param cells The array holding the group.
+     * @param from The first index of the group.
+     * @param to The index after the last cell of the group.
+     */
+    private static void link(boolean[][] linked, int[] cells, int from, int to) {
+        for (int a = from; a < to; a++) {
+            for (int b = from; b < to; b++) {
+                if (a != b) linked[cells[a]][cells[b]] = true;
+            }
+        }
+    }
+
+    /**
+     * Classic Sudoku: rows, columns and boxes.
+     *
+     * @return The compiled rules.
+     */
+    public static VariantRules classic() {
+        return new Builder("classic").rows().columns().boxes().build();
+    }
+
+    /**
+     * Sudoku X: classic rules plus both main diagonals.
+     *
+     * @return The compiled rules.
+     */
+    public static VariantRules diagonal() {
+        return new Builder("x").rows().columns().boxes().diagonals().build();
+    }
+
+    /**
+     * Windoku: classic rules plus the four extra 3x3 windows.
+     *
+     * @return The compiled rules.
+     */
+    public static VariantRules windoku() {
+        return new Builder("windoku").rows().columns().boxes().windows().build();
+    }
+
+    /**
+     * Jigsaw Sudoku: rows, columns and nine irregular regions instead of boxes.
+     *
+     * @param regionMap 81 characters, one region label per cell; there must be nine labels with nine cells each.
+     * @return The compiled rules.
+     * @throws SudokuException if the map does not describe nine regions of nine cells.
+     */
+    public static VariantRules jigsaw(String regionMap) throws SudokuException {
+        return compile(new Builder("jigsaw").rows().columns().regions(parseLabels(regionMap, "region map")));
+    }
+
+    /**
+     * Killer Sudoku: classic rules plus cages whose digits do not repeat and add up to a given sum.
+     *
+     * @param cageMap 81 characters, one cage label per cell; cells sharing a label form one cage.
+     * @param sums The cage sums, in the order in which the labels first appear in the map.
+     * @return The compiled rules.
+     * @throws SudokuException if the map or the sums are inconsistent.
+     */
+    public static VariantRules killer(String cageMap, int[] sums) throws SudokuException {
+        int[] labels = parseLabels(cageMap, "cage map");
+        int count = Arrays.stream(labels).max().orElse(-1) + 1;
+        if (count != sums.length) {
+            throw new SudokuException("The cage map has " + count + " cages, but " + sums.length + " sums were given.");
+        }
+        Builder builder = new Builder("killer").rows().columns().boxes();
+        for (int k = 0; k < count; k++) {
+            int[] cells = new int[GridGeometry.CELLS];
+            int n = 0;
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                if (labels[i] == k) cells[n++] = i;
+            }
+            builder.cage(sums[k], Arrays.copyOf(cells, n));
+        }
+        return compile(builder);
+    }
+
+    /**
+     * Builds rules that come from user data, reporting mistakes as a checked exception.
+     *
+     * @param builder The builder.
+     * @return The compiled rules.
+     * @throws SudokuException if the builder holds an invalid unit, region or cage.
+     */
+    private static VariantRules compile(Builder builder) throws SudokuException {
+        try {
+            return builder.build();
+        } catch (IllegalStateException e) {
+            throw new SudokuException(e.getMessage());
+        }
+    }
+
+    /**
+     * Numbers the labels of a region or cage map in the order of their first appearance.
+     *
+     * @param map 81 label characters.
+     * @param what The name of the map, for error messages.
+     * @return The 0-based label number of every cell.
+     * @throws SudokuException if the map does not have 81 characters.
+     */
+    private static int[] parseLabels(String map, String what) throws SudokuException {
+        if (map == null || map.length() != GridGeometry.CELLS) {
+            throw new SudokuException("The " + what + " must have exactly 81 characters.");
+        }
+        int[] labels = new int[GridGeometry.CELLS];
+        StringBuilder seen = new StringBuilder();
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            char ch = map.charAt(i);
+            int at = seen.indexOf(String.valueOf(ch));
+            if (at < 0) {
+                at = seen.length();
+                seen.append(ch);
+            }
+            labels[i] = at;
+        }
+        return labels;
+    }
+
+    /**
+     * Gets the name of the variant.
+     *
+     * @return The name, e.g. "classic", "x", "windoku", "jigsaw" or "killer".
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of nine-cell units.
+     *
+     * @return The number of units.
+     */
+    public int getUnitCount() {
+        return unitCount;
+    }
+
+    /**
+     * Gets the number of Killer cages.
+     *
+     * @return The number of cages, 0 for variants without cages.
+     */
+    public int getCageCount() {
+        return cageCount;
+    }
+
+    /**
+     * Gets the sum of a Killer cage.
+     *
+     * @param k The cage index, in the order in which the cages were added.
+     * @return The cage sum.
+     */
+    public int getCageSum(int k) {
+        return cageSums[k];
+    }
+
+    /**
+     * Returns a short description of the compiled rules.
+     *
+     * @return A string with the name and the sizes of the tables.
+     */
+    @Override
+    public String toString() {
+        return "VariantRules{" + "name=" + name + ", units=" + unitCount + ", cages=" + cageCount
+                + ", peers=" + peers.length + '}';
+    }
+
+    /**
+     * Collects the units and cages of a variant and compiles them.
+     * Rules are added in any combination; {@link #build()} checks them and produces the flat tables.
+     */
+    public static final class Builder {
+        private final String name;
+        private final List<int[]> units = new ArrayList<>();
+        private final List<int[]> cages = new ArrayList<>();
+        private final List<Integer> sums = new ArrayList<>();
+        private final boolean[] caged = new boolean[GridGeometry.CELLS];
+        private String error;
+
+        /**
+         * Creates an empty builder.
+         *
+         * @param name The name of the variant.
+         */
+        public Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds the nine rows.
+         *
+         * @return This builder.
+         */
+        public Builder rows() {
+            for (int r = 0; r < GridGeometry.SIZE; r++) {
+                units.add(GridGeometry.UNIT_CELLS[r].clone());
+            }
+            return this;
+        }
+
+        /**
+         * Adds the nine columns.
+         *
+         * @return This builder.
+         */
+        public Builder columns() {
+            for (int c = 0; c < GridGeometry.SIZE; c++) {
+                units.add(GridGeometry.UNIT_CELLS[GridGeometry.SIZE + c].clone());
+            }
+            return this;
+        }
+
+        /**
+         * Adds the nine 3x3 boxes.
+         *
+         * @return This builder.
+         */
+        public Builder boxes() {
+            for (int b = 0; b < GridGeometry.SIZE; b++) {
+                units.add(GridGeometry.UNIT_CELLS[2 * GridGeometry.SIZE + b].clone());
+            }
+            return this;
+        }
+
+        /**
+         * Adds both main diagonals.
+         *
+         * @return This builder.
+         */
+        public Builder diagonals() {
+            int[] main = new int[GridGeometry.SIZE];
+            int[] anti = new int[GridGeometry.SIZE];
+            for (int i = 0; i < GridGeometry.SIZE; i++) {
+                main[i] = GridGeometry.index(i, i);
+                anti[i] = GridGeometry.index(i, GridGeometry.SIZE - 1 - i);
+            }
+            return unit(main).unit(anti);
+        }
+
+        /**
+         * Adds the four Windoku windows, the 3x3 squares starting at rows and columns 1 and 5.
+         *
+         * @return This builder.
+         */
+        public Builder windows() {
+            for (int top : new int[]{1, 5}) {
+                for (int left : new int[]{1, 5}) {
+                    int[] window = new int[GridGeometry.SIZE];
+                    for (int k = 0; k < GridGeometry.SIZE; k++) {
+                        window[k] = GridGeometry.index(top + k / 3, left + k % 3);
+                    }
+                    unit(window);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds irregular regions given as a region number (0-8) for every cell.
+         *
+         * @param regionOf The region of every cell.
+         * @return This builder.
+         */
+        public Builder regions(int[] regionOf) {
+            int[][] regions = new int[GridGeometry.SIZE][GridGeometry.SIZE];
+            int[] sizes = new int[GridGeometry.SIZE];
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                int r = regionOf[i];
+                if (r < 0 || r >= GridGeometry.SIZE || sizes[r] == GridGeometry.SIZE) {
+                    error = "The regions must be nine groups of nine cells.";
+                    return this;
+                }
+                regions[r][sizes[r]++] = i;
+            }
+            for (int[] region : regions) {
+                unit(region);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a unit of nine distinct cells that must hold every digit once.
+         *
+         * @param cells The nine cell indices (0-80).
+         * @return This builder.
+         */
+        public Builder unit(int... cells) {
+            if (cells.length != GridGeometry.SIZE || !distinctCells(cells)) {
+                error = "A unit must consist of nine distinct cells.";
+            } else {
+                units.add(cells.clone());
+            }
+            return this;
+        }
+
+        /**
+         * Adds a Killer cage: its digits do not repeat and add up to the sum.
+         *
+         * @param sum The cage sum.
+         * @param cells The cell indices (0-80) of the cage; a cell may belong to one cage only.
+         * @return This builder.
+         */
+        public Builder cage(int sum, int... cells) {
+            if (cells.length == 0 || cells.length > GridGeometry.SIZE || !distinctCells(cells)) {
+                error = "A cage must consist of one to nine distinct cells.";
+                return this;
+            }
+            if (sum < 0 || sum > 45 || COMBOS[cells.length][sum].length == 0) {
+                error = "No " + cells.length + " distinct digits add up to " + sum + ".";
+                return this;
+            }
+            for (int cell : cells) {
+                if (caged[cell]) {
+                    error = "Cell " + cell + " belongs to more than one cage.";
+                    return this;
+                }
+                caged[cell] = true;
+            }
+            cages.add(cells.clone());
+            sums.add(sum);
+            return this;
+        }
+
+        /**
+         * Checks that the cells are valid indices and do not repeat.
+         *
+         * @param cells The cell indices.
+         * @return {@code true} if they are distinct cells of the grid.
+         */
+        private static boolean distinctCells(int[] cells) {
+            boolean[] seen = new boolean[GridGeometry.CELLS];
+            for (int cell : cells) {
+                if (cell < 0 || cell >= GridGeometry.CELLS || seen[cell]) return false;
+                seen[cell] = true;
+            }
+            return true;
+        }
+
+        /**
+         * Compiles the collected rules.
+         *
+         * @return The compiled rules.
+         * @throws IllegalStateException if an invalid unit, region or cage was added.
+         */
+        public VariantRules build() {
+            if (error != null) {
+                throw new IllegalStateException(error);
+            }
+            return new VariantRules(this);
+        }
+    }
+}
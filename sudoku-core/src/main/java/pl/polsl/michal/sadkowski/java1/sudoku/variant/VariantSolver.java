@@ -0,0 +1,236 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantSolver.java
+
+package pl.polsl.michal.sadkowski.java1.sudoku.variant;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.model.GridGeometry;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveBudget;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveOutcome;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolveResult;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SolverStrategy;
+
+/**
+ * Generic solver for any compiled {@link VariantRules}.
+ * A single propagation and search loop runs over the flat tables of the rules, so no variant needs code of its own:
+ * <ol>
+ * <li>a fixed digit is removed from the candidates of all peers of its cell (naked singles),</li>
+ * <li>a digit that fits only one cell of a unit is placed there (hidden singles),</li>
+ * <li>the cells of a cage keep only the digits of the sum combinations that still fit the cage.</li>
+ * </ol>
+ * When propagation stops, the search guesses on the cell with the fewest candidates.
+ * Instances are thread-safe; every call works on its own candidate arrays.
+ *
+ * @author Michał Sadkowski
+ * @version 1.1 (solve budgets)
+ */
+public class VariantSolver implements SolverStrategy {
+    /** The compiled rules. */
+    private final VariantRules rules;
+
+    /**
+     * Creates a solver for a variant.
+     *
+     * @param rules The compiled rules of the variant.
+     */
+    public VariantSolver(VariantRules rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Gets the rules the solver works with.
+     *
+     * @return The compiled rules.
+     */
+    public VariantRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the name of the strategy.
+     *
+     * @return {@code "variant-"} followed by the name of the variant.
+     */
+    @Override
+    public String getName() {
+        return "variant-" + rules.getName();
+    }
+
+    /**
+     * Solves a puzzle within a budget, counting solutions up to two.
+     *
+     * @param cells 81 cell values (0 = empty).
+     * @param budget The node limit, deadline and cancellation token of the call.
+     * @return The outcome; the rating of the result is the number of search nodes.
+     */
+    @Override
+    public SolveOutcome solve(byte[] cells, SolveBudget budget) {
+        long start = System.nanoTime();
+        int[] cand = new int[GridGeometry.CELLS];
+        for (int i = 0; i < GridGeometry.CELLS; i++) {
+            int v = cells[i];
+            if (v < 0 || v > 9) return SolveOutcome.finished(new SolveResult(null, 0, 0), start);
+            cand[i] = v == 0 ? GridGeometry.ALL_DIGITS : 1 << v;
+        }
+        Search search = new Search(rules, budget);
+        try {
+            search.run(cand);
+        } catch (SolveBudget.Exhausted e) {
+            return SolveOutcome.stopped(e, new SolveResult(search.solution, search.count, search.nodes), start);
+        }
+        return SolveOutcome.finished(new SolveResult(search.solution, search.count, search.nodes), start);
+    }
+
+    /**
+     * State of one solve call.
+     */
+    private static final class Search {
+        private final VariantRules rules;
+        private byte[] solution;
+        private int count;
+        private long nodes;
+        /** The budget every node is charged to. */
+        private final SolveBudget budget;
+
+        /**
+         * Creates the search state.
+         *
+         * @param rules The compiled rules.
+         * @param budget The budget every node is charged to.
+         */
+        Search(VariantRules rules, SolveBudget budget) {
+            this.rules = rules;
+            this.budget = budget;
+        }
+
+        /**
+         * Propagates, then guesses recursively.
+         *
+         * @param cand The candidate masks; modified in place.
+         */
+        void run(int[] cand) {
+            budget.check(++nodes);
+            if (!propagate(cand)) return;
+            int best = -1;
+            int bestCount = 10;
+            for (int i = 0; i < GridGeometry.CELLS; i++) {
+                int n = Integer.bitCount(cand[i]);
+                if (n > 1 && n < bestCount) {
+                    best = i;
+                    bestCount = n;
+                    if (n == 2) break;
+                }
+            }
+            if (best == -1) {
+                count++;
+                if (solution == null) {
+                    solution = new byte[GridGeometry.CELLS];
+                    for (int i = 0; i < GridGeometry.CELLS; i++) {
+                        solution[i] = (byte) Integer.numberOfTrailingZeros(cand[i]);
+                    }
+                }
+                return;
+            }
+            int mask = cand[best];
+            while (mask != 0 && count < 2) {
+                int bit = mask & -mask;
+                mask ^= bit;
+                int[] guess = cand.clone();
+                guess[best] = bit;
+                run(guess);
+            }
+        }
+
+        /**
+         * Applies peer elimination, hidden singles and cage combinations until a fixed point is reached.
+         *
+         * @param cand The candidate masks.
+         * @return {@code false} if a contradiction was found.
+         */
+        private boolean propagate(int[] cand) {
+            int[] peerStart = rules.peerStart;
+            int[] peers = rules.peers;
+            int[] unitCells = rules.unitCells;
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int i = 0; i < GridGeometry.CELLS; i++) {
+                    int c = cand[i];
+                    if (c == 0) return false;
+                    if ((c & (c - 1)) != 0) continue;
+                    for (int p = peerStart[i], end = peerStart[i + 1]; p < end; p++) {
+                        int peer = peers[p];
+                        if ((cand[peer] & c) != 0) {
+                            cand[peer] &= ~c;
+                            if (cand[peer] == 0) return false;
+                            changed = true;
+                        }
+                    }
+                }
+                for (int u = 0, end = rules.unitCount * GridGeometry.SIZE; u < end; u += GridGeometry.SIZE) {
+                    int once = 0;
+                    int more = 0;
+                    for (int k = u; k < u + GridGeometry.SIZE; k++) {
+                        int c = cand[unitCells[k]];
+                        more |= once & c;
+                        once |= c;
+                    }
+                    if (once != GridGeometry.ALL_DIGITS) return false;
+                    int hidden = once & ~more;
+                    if (hidden == 0) continue;
+                    for (int k = u; k < u + GridGeometry.SIZE; k++) {
+                        int cell = unitCells[k];
+                        int h = cand[cell] & hidden;
+                        if (h == 0 || h == cand[cell]) continue;
+                        if ((h & (h - 1)) != 0) return false;
+                        cand[cell] = h;
+                        changed = true;
+                    }
+                }
+                for (int k = 0; k < rules.cageCount; k++) {
+                    int result = restrictCage(cand, k);
+                    if (result < 0) return false;
+                    if (result > 0) changed = true;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Keeps in every open cell of a cage only the digits of the sum combinations that still fit the cage:
+         * a combination must contain every digit already fixed in the cage and only digits that some cell can still take.
+         *
+         * @param cand The candidate masks.
+         * @param k The cage index.
+         * @return -1 on a contradiction, 1 if some candidates were removed, 0 otherwise.
+         */
+        private int restrictCage(int[] cand, int k) {
+            int[] cageCells = rules.cageCells;
+            int from = rules.cageStart[k];
+            int to = rules.cageStart[k + 1];
+            int fixed = 0;
+            int union = 0;
+            for (int j = from; j < to; j++) {
+                int c = cand[cageCells[j]];
+                if ((c & (c - 1)) == 0) fixed |= c;
+                union |= c;
+            }
+            int allowed = 0;
+            int[] combos = rules.cageCombos;
+            for (int j = rules.comboStart[k], end = rules.comboStart[k + 1]; j < end; j++) {
+                int combo = combos[j];
+                if ((combo & fixed) == fixed && (combo & ~union) == 0) allowed |= combo;
+            }
+            if (allowed == 0) return -1;
+            int result = 0;
+            for (int j = from; j < to; j++) {
+                int cell = cageCells[j];
+                int c = cand[cell];
+                int reduced = c & allowed;
+                if (reduced == c) continue;
+                if (reduced == 0) return -1;
+                cand[cell] = reduced;
+                result = 1;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Contains the engine for Sudoku variants. A variant (classic, X, Windoku, Jigsaw or Killer) is compiled once into
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantRules}, flat unit, peer and cage tables with
+ * precomputed cage sum combinations, and solved by the single generic loop of
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.variant.VariantSolver}.
+ */
+package pl.polsl.michal.sadkowski.java1.sudoku.variant;
@@ -3,25 +3,36 @@ package pl.polsl.michal.sadkowski.java1.sudoku.view;
 
 import pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController;
 import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.InvalidInputException;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleImporter;
 
 import javax.swing.*;
 import javax.swing.border.Border;
 import javax.swing.border.LineBorder;
 import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.event.*;
+import java.io.IOException;
+import java.util.BitSet;
 import javax.swing.AbstractAction;
 
 /**
  * Custom JPanel component to display the 9x9 Sudoku grid.
  * It handles cell display, selection, mouse/keyboard input delegation to the controller, and arrow key navigation.
+ * Digits that break a Sudoku rule are shown in red. Batches of cell updates are applied in one pass,
+ * touching only cells whose text changes. Ctrl+C copies the whole grid to the clipboard as one line
+ * (Ctrl+Shift+C as 9 lines), and Ctrl+V hands a grid from the clipboard to the controller in one call.
  *
  * @author Michał Sadkowski
- * @version 1.0
+ * @version 1.3 (clipboard)
  */
 public class BoardPanel extends JPanel {
 
     private static final int GRID_SIZE = 9;
     private static final int SUBGRID_SIZE = 3;
+    /** The text shown for each cell value (0 = empty). */
+    private static final String[] DIGIT_TEXT = {"", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
     private final JTextField[][] cells;
     private int selectedRow = -1;
     private int selectedCol = -1;
@@ -33,6 +44,10 @@ public class BoardPanel extends JPanel {
     private final Color subgridBorderColor = Color.BLACK;
     private final Font cellFont = new Font("Arial", Font.BOLD, 20);
     private final Border selectedBorder = new LineBorder(Color.BLUE, 2);
+    private final Color digitColor = Color.BLACK;
+    private final Color conflictColor = new Color(200, 0, 0);
+    /** The cells currently shown as conflicted. */
+    private final BitSet shownConflicts = new BitSet(GRID_SIZE * GRID_SIZE);
 
 
     /**
@@ -46,6 +61,7 @@ public class BoardPanel extends JPanel {
         cells = new JTextField[GRID_SIZE][GRID_SIZE];
         initializeBoard();
         setupArrowKeyNavigation();
+        setupClipboardKeys();
     }
     
     /** * Allows injection of the Controller.
@@ -66,6 +82,7 @@ public class BoardPanel extends JPanel {
                 JTextField cell = cells[row][col];
                 cell.setHorizontalAlignment(JTextField.CENTER);
                 cell.setFont(cellFont);
+                cell.setForeground(digitColor);
                 cell.setBackground(backgroundColor);
                 cell.setEditable(true); 
                 cell.setFocusable(true);
@@ -83,6 +100,13 @@ public class BoardPanel extends JPanel {
                 focusedInputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "none");
                 focusedInputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "none");
                 // --- END FIX ---
+                // Skróty schowka obsługuje cała plansza, a nie pojedyncze pole
+                int shortcut = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+                focusedInputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_C, shortcut), "none");
+                focusedInputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_V, shortcut), "none");
+                focusedInputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_X, shortcut), "none");
+                focusedInputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_INSERT, InputEvent.SHIFT_DOWN_MASK), "none");
+                focusedInputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_PASTE, 0), "none");
 
                 cell.setBorder(getCompositeBorder(row, col, false));
 
@@ -211,19 +235,63 @@ public class BoardPanel extends JPanel {
      */
     public void setCellValue(int row, int col, String value) { 
         if (row >= 0 && row < GRID_SIZE && col >= 0 && col < GRID_SIZE) {
-            cells[row][col].setText(value);
+            showText(cells[row][col], value);
+        }
+    }
+
+    /**
+     * Shows new values of several cells in one pass. Cells that already show their value are skipped,
+     * and the panel is repainted once at the end instead of once per cell.
+     *
+     * @param cellIndices The flat indices (row * 9 + col) of the cells to update.
+     * @param count The number of entries of {@code cellIndices} to use.
+     * @param values The values of the whole board in row-major order (0 = empty).
+     */
+    public void applyBoardDiff(int[] cellIndices, int count, byte[] values) {
+        for (int i = 0; i < count; i++) {
+            int cell = cellIndices[i];
+            showText(cells[cell / GRID_SIZE][cell % GRID_SIZE], DIGIT_TEXT[values[cell]]);
+        }
+        repaint();
+    }
+
+    /**
+     * Sets the text of a cell unless it already shows it, which avoids the document events of {@code setText}.
+     *
+     * @param cell The cell field.
+     * @param text The text to show.
+     */
+    private void showText(JTextField cell, String text) {
+        if (!cell.getText().equals(text)) {
+            cell.setText(text);
         }
     }
     
+    /**
+     * Shows the conflicted cells in the conflict color. Only cells whose state changed are repainted.
+     *
+     * @param conflicts The conflicted cells as flat indices (row * 9 + col).
+     */
+    public void showConflicts(BitSet conflicts) {
+        BitSet changed = (BitSet) conflicts.clone();
+        changed.xor(shownConflicts);
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            cells[i / GRID_SIZE][i % GRID_SIZE].setForeground(conflicts.get(i) ? conflictColor : digitColor);
+        }
+        shownConflicts.clear();
+        shownConflicts.or(conflicts);
+    }
+
     /**
      * Clears all cells on the GUI board and resets the selection. This method is typically called by the Controller.
      */
     public void clearBoardGUI() {
          for (int row = 0; row < GRID_SIZE; row++) {
             for (int col = 0; col < GRID_SIZE; col++) {
-               setCellValue(row, col, "");
+               showText(cells[row][col], "");
             }
         }
+         repaint();
          if (selectedRow != -1 && selectedCol != -1) {
             cells[selectedRow][selectedCol].setBackground(backgroundColor);
             cells[selectedRow][selectedCol].setBorder(getCompositeBorder(selectedRow, selectedCol, false));
@@ -294,6 +362,75 @@ public class BoardPanel extends JPanel {
         });
     }
 
+    /**
+     * Sets up the clipboard shortcuts of the whole board: Ctrl+C (one line), Ctrl+Shift+C (9 lines) and Ctrl+V,
+     * using the platform menu shortcut key.
+     */
+    private void setupClipboardKeys() {
+        InputMap inputMap = getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap actionMap = getActionMap();
+        int shortcut = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_C, shortcut), "copyBoard");
+        actionMap.put("copyBoard", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                copyBoard(PuzzleImporter.Format.LINE);
+            }
+        });
+
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_C, shortcut | InputEvent.SHIFT_DOWN_MASK), "copyGrid");
+        actionMap.put("copyGrid", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                copyBoard(PuzzleImporter.Format.SDK);
+            }
+        });
+
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_V, shortcut), "pasteBoard");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_INSERT, InputEvent.SHIFT_DOWN_MASK), "pasteBoard");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_PASTE, 0), "pasteBoard");
+        actionMap.put("pasteBoard", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                pasteBoard();
+            }
+        });
+    }
+
+    /**
+     * Puts the whole board on the system clipboard.
+     *
+     * @param format The text format of the board.
+     */
+    public void copyBoard(PuzzleImporter.Format format) {
+        if (controller == null) return;
+        StringSelection text = new StringSelection(controller.exportBoard(format));
+        try {
+            Toolkit.getDefaultToolkit().getSystemClipboard().setContents(text, text);
+        } catch (IllegalStateException e) {
+            controller.handleInputValidationError("Schowek jest niedostępny.");
+        }
+    }
+
+    /**
+     * Reads the text on the system clipboard and hands it to the controller as one paste of the whole board.
+     */
+    public void pasteBoard() {
+        if (controller == null) return;
+        String text;
+        try {
+            text = (String) Toolkit.getDefaultToolkit().getSystemClipboard().getData(DataFlavor.stringFlavor);
+        } catch (UnsupportedFlavorException | IOException e) {
+            controller.handleInputValidationError("Schowek nie zawiera tekstu.");
+            return;
+        } catch (IllegalStateException e) {
+            controller.handleInputValidationError("Schowek jest niedostępny.");
+            return;
+        }
+        controller.pasteBoard(text);
+    }
+
     /**
      * Calculates the new selection based on the delta and calls {@link #selectCell(int, int)}.
      * Implements wrap-around navigation.
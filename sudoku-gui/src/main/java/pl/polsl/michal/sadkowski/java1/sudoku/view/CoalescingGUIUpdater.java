@@ -0,0 +1,334 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.view.CoalescingGUIUpdater.java
+package pl.polsl.michal.sadkowski.java1.sudoku.view;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.GUIUpdater;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.Solvability;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * {@link GUIUpdater} that passes the controller's updates to a Swing view on the Event Dispatch Thread.
+ * Calls made on the Event Dispatch Thread go straight to the view. Calls from other threads (the game timer,
+ * background work) only record the latest state: the newest text of every cell, the newest timer text,
+ * selection, conflicts and solvability. The first such call schedules one task on the Event Dispatch Thread, and everything
+ * recorded until that task runs is applied by it in a single pass, however many updates arrived.
+ * Messages are not merged; they are shown in order after the board.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+final class CoalescingGUIUpdater implements GUIUpdater {
+    /** Number of cells. */
+    private static final int CELLS = 81;
+
+    /** The view that receives the updates. */
+    private final GUIUpdater view;
+
+    /** Whether a flush task is scheduled and has not started yet. */
+    private boolean scheduled;
+    /** Whether the board was cleared since the last flush; cleared before the pending cells are applied. */
+    private boolean pendingClear;
+    /** The newest text of every cell changed since the last flush. */
+    private final String[] pendingText = new String[CELLS];
+    /** The cells with a pending text. */
+    private final BitSet pendingCells = new BitSet(CELLS);
+    /** The newest timer text, or {@code null}. */
+    private String pendingTimer;
+    /** The newest selected cell, or -1. */
+    private int pendingSelection = -1;
+    /** A copy of the newest conflicts, or {@code null}. */
+    private BitSet pendingConflicts;
+    /** The newest solvability, or {@code null}. */
+    private Solvability pendingSolvability;
+    /** Messages waiting to be shown, in order. */
+    private final List<Runnable> pendingMessages = new ArrayList<>();
+
+    /**
+     * Creates an updater for a view.
+     *
+     * @param view The Swing view; its methods are only called on the Event Dispatch Thread.
+     */
+    CoalescingGUIUpdater(GUIUpdater view) {
+        this.view = view;
+    }
+
+    /**
+     * Sets the timer text.
+     *
+     * @param text The new timer text.
+     */
+    @Override
+    public void setTimerText(String text) {
+        if (onEdt()) {
+            view.setTimerText(text);
+            return;
+        }
+        synchronized (this) {
+            pendingTimer = text;
+            schedule();
+        }
+    }
+
+    /**
+     * Sets the value of a cell.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     * @param value The text value.
+     */
+    @Override
+    public void setCellValue(int row, int col, String value) {
+        if (onEdt()) {
+            view.setCellValue(row, col, value);
+            return;
+        }
+        synchronized (this) {
+            int cell = row * 9 + col;
+            pendingText[cell] = value;
+            pendingCells.set(cell);
+            schedule();
+        }
+    }
+
+    /**
+     * Sets the values of several cells.
+     *
+     * @param cells The flat indices of the changed cells.
+     * @param count The number of changed cells.
+     * @param values The values of the whole board (0 = empty).
+     */
+    @Override
+    public void applyBoardDiff(int[] cells, int count, byte[] values) {
+        if (onEdt()) {
+            view.applyBoardDiff(cells, count, values);
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < count; i++) {
+                int cell = cells[i];
+                pendingText[cell] = values[cell] == 0 ? "" : String.valueOf(values[cell]);
+                pendingCells.set(cell);
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Selects a cell.
+     *
+     * @param row The 0-based row index.
+     * @param col The 0-based column index.
+     */
+    @Override
+    public void updateCellBorder(int row, int col) {
+        if (onEdt()) {
+            view.updateCellBorder(row, col);
+            return;
+        }
+        synchronized (this) {
+            pendingSelection = row * 9 + col;
+            schedule();
+        }
+    }
+
+    /**
+     * Clears the board; cell updates recorded before are dropped.
+     */
+    @Override
+    public void clearBoardGUI() {
+        if (onEdt()) {
+            view.clearBoardGUI();
+            return;
+        }
+        synchronized (this) {
+            pendingClear = true;
+            pendingCells.clear();
+            pendingSelection = -1;
+            schedule();
+        }
+    }
+
+    /**
+     * Shows the conflicted cells.
+     *
+     * @param conflicts The conflicted cells; copied when the update is deferred.
+     */
+    @Override
+    public void showConflicts(BitSet conflicts) {
+        if (onEdt()) {
+            view.showConflicts(conflicts);
+            return;
+        }
+        synchronized (this) {
+            pendingConflicts = (BitSet) conflicts.clone();
+            schedule();
+        }
+    }
+
+    /**
+     * Shows whether the board can still be completed.
+     *
+     * @param state The result of the check.
+     */
+    @Override
+    public void showSolvability(Solvability state) {
+        if (onEdt()) {
+            view.showSolvability(state);
+            return;
+        }
+        synchronized (this) {
+            pendingSolvability = state;
+            schedule();
+        }
+    }
+
+    /**
+     * Shows the win message.
+     *
+     * @param time The formatted game time.
+     */
+    @Override
+    public void showWinMessage(String time) {
+        message(() -> view.showWinMessage(time));
+    }
+
+    /**
+     * Shows an informational message.
+     *
+     * @param message The message.
+     */
+    @Override
+    public void showInfoMessage(String message) {
+        message(() -> view.showInfoMessage(message));
+    }
+
+    /**
+     * Shows an error message.
+     *
+     * @param message The message.
+     */
+    @Override
+    public void showErrorMessage(String message) {
+        message(() -> view.showErrorMessage(message));
+    }
+
+    /**
+     * Shows a message now on the Event Dispatch Thread, or after the pending board updates otherwise.
+     *
+     * @param show Shows the message.
+     */
+    private void message(Runnable show) {
+        if (onEdt()) {
+            show.run();
+            return;
+        }
+        synchronized (this) {
+            pendingMessages.add(show);
+            schedule();
+        }
+    }
+
+    /**
+     * Checks the calling thread. Pending updates are applied first, so that a direct update
+     * is never overwritten by an older deferred one.
+     *
+     * @return {@code true} if the caller is the Event Dispatch Thread.
+     */
+    private boolean onEdt() {
+        if (!SwingUtilities.isEventDispatchThread()) return false;
+        flush();
+        return true;
+    }
+
+    /**
+     * Schedules the flush task unless one is already waiting. Must hold the lock.
+     */
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+
+    /**
+     * Applies all pending updates to the view. Runs on the Event Dispatch Thread.
+     */
+    private void flush() {
+        boolean clear;
+        int count;
+        int[] cells;
+        String[] texts;
+        String timer;
+        int selection;
+        BitSet conflicts;
+        Solvability solvability;
+        List<Runnable> messages;
+        synchronized (this) {
+            scheduled = false;
+            if (!pendingClear && pendingCells.isEmpty() && pendingTimer == null && pendingSelection < 0
+                    && pendingConflicts == null && pendingSolvability == null && pendingMessages.isEmpty()) {
+                return;
+            }
+            clear = pendingClear;
+            count = pendingCells.cardinality();
+            cells = new int[count];
+            texts = new String[CELLS];
+            int n = 0;
+            for (int i = pendingCells.nextSetBit(0); i >= 0; i = pendingCells.nextSetBit(i + 1)) {
+                cells[n++] = i;
+                texts[i] = pendingText[i];
+            }
+            timer = pendingTimer;
+            selection = pendingSelection;
+            conflicts = pendingConflicts;
+            solvability = pendingSolvability;
+            messages = new ArrayList<>(pendingMessages);
+            pendingClear = false;
+            pendingCells.clear();
+            pendingTimer = null;
+            pendingSelection = -1;
+            pendingConflicts = null;
+            pendingSolvability = null;
+            pendingMessages.clear();
+        }
+        if (clear) view.clearBoardGUI();
+        byte[] values = count > 0 ? toValues(cells, count, texts) : null;
+        if (values != null) {
+            view.applyBoardDiff(cells, count, values);
+        } else {
+            for (int i = 0; i < count; i++) {
+                view.setCellValue(cells[i] / 9, cells[i] % 9, texts[cells[i]]);
+            }
+        }
+        if (conflicts != null) view.showConflicts(conflicts);
+        if (solvability != null) view.showSolvability(solvability);
+        if (selection >= 0) view.updateCellBorder(selection / 9, selection % 9);
+        if (timer != null) view.setTimerText(timer);
+        for (Runnable message : messages) {
+            message.run();
+        }
+    }
+
+    /**
+     * Converts pending cell texts to board values for {@link GUIUpdater#applyBoardDiff}.
+     *
+     * @param cells The changed cells.
+     * @param count The number of changed cells.
+     * @param texts The texts by cell index.
+     * @return The values by cell index, or {@code null} if a text is not a single digit or empty.
+     */
+    private static byte[] toValues(int[] cells, int count, String[] texts) {
+        byte[] values = new byte[CELLS];
+        for (int i = 0; i < count; i++) {
+            String text = texts[cells[i]];
+            if (text.isEmpty()) continue;
+            char ch = text.charAt(0);
+            if (text.length() != 1 || ch < '1' || ch > '9') return null;
+            values[cells[i]] = (byte) (ch - '0');
+        }
+        return values;
+    }
+}
@@ -0,0 +1,172 @@
+// pl.polsl.michal.sadkowski.java1.sudoku.view.GuiLauncher.java
+package pl.polsl.michal.sadkowski.java1.sudoku.view;
+
+import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.SudokuException;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.SudokuGame;
+import pl.polsl.michal.sadkowski.java1.sudoku.model.User;
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.MoveJournal;
+import pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.SudokuSolver;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.LeaderboardStore;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.ProfileStore;
+import pl.polsl.michal.sadkowski.java1.sudoku.store.PuzzleLibrary;
+
+import javax.swing.SwingUtilities;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Starts the graphical version of the game, connecting the Model, View, and Controller layers (MVC).
+ * It lives in the {@code sudoku-gui} module and the launcher loads it by name, so AWT and Swing are loaded
+ * only when the {@code gui} subcommand runs and the console and server deployments do not need the module at all.
+ * If the system property {@code sudoku.journal} names a file, every move is recorded there
+ * as a {@link MoveJournal} for later replay, and if {@code sudoku.leaderboard} names a file, won games are
+ * recorded in that {@link LeaderboardStore}. If {@code sudoku.profiles} names a directory, the player's profile
+ * is kept in a {@link ProfileStore} there: a game left unfinished is saved when the window closes and continued
+ * at the next start. If {@code sudoku.library} names a {@link PuzzleLibrary}, new games start from its puzzles.
+ * The controller talks to the window through a
+ * {@link CoalescingGUIUpdater}, so updates from background threads reach Swing as one task at a time.
+ *
+ * @author Michał Sadkowski
+ * @version 1.0
+ */
+public final class GuiLauncher {
+    /** How many best results are kept per puzzle and difficulty. */
+    private static final int LEADERBOARD_SIZE = 100;
+    /** Number of profile shards. */
+    private static final int PROFILE_SHARDS = 16;
+    /** The name of the local player. */
+    private static final String PLAYER = "GUI Player";
+
+    /** Utility class, no instances. */
+    private GuiLauncher() {
+    }
+
+    /**
+     * Builds the window on the Event Dispatch Thread.
+     *
+     * @param onReady Called on the Event Dispatch Thread once the window is built.
+     */
+    public static void launch(Runnable onReady) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                SudokuGame model = new SudokuGame(openProfile(PLAYER), SudokuSolver.shared());
+                SudokuGUI view = new SudokuGUI();
+                SudokuGUIController controller = new SudokuGUIController(model, new CoalescingGUIUpdater(view));
+                view.setController(controller);
+                attachJournal(controller);
+                attachLeaderboard(controller);
+                attachLibrary(controller);
+                view.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosing(WindowEvent e) {
+                        controller.saveProfile();
+                    }
+                });
+                controller.resumeSavedGame();
+                onReady.run();
+            }
+        });
+    }
+
+    /**
+     * Loads the player's profile if the {@code sudoku.profiles} property is set. Without the property,
+     * or if the store cannot be opened, the player gets a profile that is kept in memory only.
+     * Profiles are saved on the Event Dispatch Thread, so the store does not force every save to the disk;
+     * it is forced when the shutdown hook closes it as the application exits.
+     *
+     * @param name The player's name.
+     * @return The player.
+     */
+    private static User openProfile(String name) {
+        String directory = System.getProperty("sudoku.profiles");
+        if (directory == null || directory.isEmpty()) return new User(name);
+        try {
+            ProfileStore profiles = ProfileStore.open(Paths.get(directory), PROFILE_SHARDS, false);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    profiles.close();
+                } catch (IOException e) {
+                    System.err.println("Cannot close profile store: " + e.getMessage());
+                }
+            }));
+            User user = profiles.load(name);
+            if (user == null) {
+                user = new User(name);
+                user.setRepository(profiles);
+            }
+            return user;
+        } catch (IOException | SudokuException e) {
+            System.err.println("Cannot open profile store " + directory + ": " + e.getMessage());
+            return new User(name);
+        }
+    }
+
+    /**
+     * Opens the leaderboard if the {@code sudoku.leaderboard} property is set.
+     * The store is closed by a shutdown hook when the application exits.
+     *
+     * @param controller The controller whose won games are recorded.
+     */
+    private static void attachLeaderboard(SudokuGUIController controller) {
+        String file = System.getProperty("sudoku.leaderboard");
+        if (file == null || file.isEmpty()) return;
+        try {
+            LeaderboardStore leaderboard = LeaderboardStore.open(Paths.get(file), LEADERBOARD_SIZE);
+            controller.setLeaderboard(leaderboard);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    leaderboard.close();
+                } catch (IOException e) {
+                    System.err.println("Cannot close leaderboard: " + e.getMessage());
+                }
+            }));
+        } catch (IOException e) {
+            System.err.println("Cannot open leaderboard " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the puzzle library if the {@code sudoku.library} property is set. The library is memory-mapped
+     * and needs no closing.
+     *
+     * @param controller The controller that starts new games from the library.
+     */
+    private static void attachLibrary(SudokuGUIController controller) {
+        String file = System.getProperty("sudoku.library");
+        if (file == null || file.isEmpty()) return;
+        try {
+            controller.setPuzzleLibrary(PuzzleLibrary.open(Paths.get(file)));
+        } catch (IOException e) {
+            System.err.println("Cannot open puzzle library " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts recording the session if the {@code sudoku.journal} property is set.
+     * The journal is flushed by a shutdown hook when the application exits.
+     *
+     * @param controller The controller to record.
+     */
+    private static void attachJournal(SudokuGUIController controller) {
+        String file = System.getProperty("sudoku.journal");
+        if (file == null || file.isEmpty()) return;
+        try {
+            MoveJournal journal = new MoveJournal(new FileOutputStream(file));
+            controller.setJournal(journal);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("Cannot close move journal: " + e.getMessage());
+                }
+            }));
+        } catch (IOException e) {
+            System.err.println("Cannot open move journal " + file + ": " + e.getMessage());
+        }
+    }
+}
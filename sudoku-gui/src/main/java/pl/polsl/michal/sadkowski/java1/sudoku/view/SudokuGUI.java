@@ -3,6 +3,7 @@ package pl.polsl.michal.sadkowski.java1.sudoku.view;
 
 import pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController;
 import pl.polsl.michal.sadkowski.java1.sudoku.exceptions.InvalidInputException;
+import pl.polsl.michal.sadkowski.java1.sudoku.solver.Solvability;
 
 import javax.swing.*;
 import java.awt.*;
@@ -11,6 +12,7 @@ import java.awt.KeyEventDispatcher;
 import java.awt.KeyboardFocusManager;
 import java.awt.event.ActionListener; 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -25,6 +27,8 @@ public class SudokuGUI extends JFrame implements SudokuGUIController.GUIUpdater
 
     private BoardPanel boardPanel;
     private JLabel timerLabel;
+    /** Shows the result of the dead-end check. */
+    private JLabel solvabilityLabel;
     private SudokuGUIController controller; 
 
     // Pola dla elementów interfejsu (dla celów FocusTraversalPolicy)
@@ -32,6 +36,11 @@ public class SudokuGUI extends JFrame implements SudokuGUIController.GUIUpdater
     private JButton clearCellButton;
     private JButton restartButton;
     private JButton newGameButton;
+    private JButton saveCheckpointButton;
+    private JButton restoreCheckpointButton;
+    private JButton hintButton;
+    private JButton checkCellButton;
+    private JCheckBox deadEndCheckBox;
     private final List<Component> traversalOrder = new ArrayList<>();
 
 
@@ -128,6 +137,12 @@ public class SudokuGUI extends JFrame implements SudokuGUIController.GUIUpdater
         timerLabel.setFont(new Font("Arial", Font.BOLD, 16));
         timerPanel.add(timerLabel);
         controlPanel.add(timerPanel);
+        JPanel solvabilityPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        solvabilityLabel = new JLabel(" ");
+        solvabilityLabel.setFont(new Font("Arial", Font.BOLD, 13));
+        solvabilityLabel.setForeground(new Color(0xC6, 0x28, 0x28));
+        solvabilityPanel.add(solvabilityLabel);
+        controlPanel.add(solvabilityPanel);
         controlPanel.add(Box.createRigidArea(new Dimension(0, 10)));
 
         // Number buttons (1-9 only)
@@ -205,6 +220,84 @@ public class SudokuGUI extends JFrame implements SudokuGUIController.GUIUpdater
 
         controlPanel.add(actionButtonPanel);
 
+        // Punkty kontrolne: zapamiętanie pozycji przed próbą i powrót do niej
+        JPanel checkpointPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+
+        saveCheckpointButton = new JButton("Zapisz punkt");
+        saveCheckpointButton.setFocusable(true);
+        saveCheckpointButton.addActionListener(e -> {
+            if (controller == null) return;
+            String name = JOptionPane.showInputDialog(this, "Nazwa punktu kontrolnego:",
+                    "Punkt " + (controller.getCheckpointNames().size() + 1));
+            if (name != null && !name.isBlank()) controller.saveCheckpoint(name.trim());
+        });
+        checkpointPanel.add(saveCheckpointButton);
+        traversalOrder.add(saveCheckpointButton);
+
+        restoreCheckpointButton = new JButton("Przywróć punkt");
+        restoreCheckpointButton.setFocusable(true);
+        restoreCheckpointButton.addActionListener(e -> {
+            if (controller == null) return;
+            List<String> names = controller.getCheckpointNames();
+            if (names.isEmpty()) {
+                showInfoMessage("Brak zapisanych punktów kontrolnych.");
+                return;
+            }
+            String[] options = names.toArray(new String[0]);
+            String selected = (String) JOptionPane.showInputDialog(
+                    this,
+                    "Wybierz punkt kontrolny:",
+                    "Przywróć punkt",
+                    JOptionPane.PLAIN_MESSAGE,
+                    null,
+                    options,
+                    options[options.length - 1]
+            );
+            if (selected != null) controller.restoreCheckpoint(selected);
+        });
+        checkpointPanel.add(restoreCheckpointButton);
+        traversalOrder.add(restoreCheckpointButton);
+
+        controlPanel.add(checkpointPanel);
+
+        // Podpowiedzi korzystają z rozwiązania obliczonego przy wczytaniu łamigłówki
+        JPanel hintPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+
+        hintButton = new JButton("Podpowiedź");
+        hintButton.setFocusable(true);
+        hintButton.addActionListener(e -> {
+            int r = boardPanel.getSelectedRow();
+            int c = boardPanel.getSelectedCol();
+            if (controller != null && r != -1 && c != -1) controller.revealCell(r, c);
+        });
+        hintPanel.add(hintButton);
+        traversalOrder.add(hintButton);
+
+        checkCellButton = new JButton("Sprawdź pole");
+        checkCellButton.setFocusable(true);
+        checkCellButton.addActionListener(e -> {
+            int r = boardPanel.getSelectedRow();
+            int c = boardPanel.getSelectedCol();
+            if (controller != null && r != -1 && c != -1) controller.checkCell(r, c);
+        });
+        hintPanel.add(checkCellButton);
+        traversalOrder.add(checkCellButton);
+
+        controlPanel.add(hintPanel);
+
+        // Sprawdzanie w tle, czy plansza nadal ma rozwiązanie
+        JPanel deadEndPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        deadEndCheckBox = new JCheckBox("Wykrywaj ślepe zaułki");
+        deadEndCheckBox.setFocusable(true);
+        deadEndCheckBox.addActionListener(e -> {
+            if (controller != null) controller.setDeadEndCheck(deadEndCheckBox.isSelected());
+            if (!deadEndCheckBox.isSelected()) solvabilityLabel.setText(" ");
+        });
+        deadEndPanel.add(deadEndCheckBox);
+        traversalOrder.add(deadEndCheckBox);
+
+        controlPanel.add(deadEndPanel);
+
         add(controlPanel, BorderLayout.EAST);
 
         pack();
@@ -259,6 +352,29 @@ public class SudokuGUI extends JFrame implements SudokuGUIController.GUIUpdater
         timerLabel.setText(text);
     }
 
+    /**
+     * Implements the {@link pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.GUIUpdater#showConflicts(java.util.BitSet)} method.
+     * Marks the conflicted cells on the board panel.
+     *
+     * @param conflicts The conflicted cells (row * 9 + col).
+     */
+    @Override
+    public void showConflicts(BitSet conflicts) {
+        boardPanel.showConflicts(conflicts);
+    }
+
+    /**
+     * Implements the {@link pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.GUIUpdater#showSolvability(Solvability)} method.
+     * Warns about a dead end; the label is empty while the board can still be completed or the check was inconclusive.
+     *
+     * @param state The result of the dead-end check.
+     */
+    @Override
+    public void showSolvability(Solvability state) {
+        if (!deadEndCheckBox.isSelected()) return;
+        solvabilityLabel.setText(state == Solvability.DEAD_END ? "Ślepy zaułek: plansza nie ma rozwiązania" : " ");
+    }
+
     /**
      * Implements the {@link pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.GUIUpdater#setCellValue(int, int, java.lang.String)} method.
      * Updates the text value of a specific cell in the board panel.
@@ -272,6 +388,19 @@ public class SudokuGUI extends JFrame implements SudokuGUIController.GUIUpdater
         boardPanel.setCellValue(row, col, value); 
     }
     
+    /**
+     * Implements the {@link pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.GUIUpdater#applyBoardDiff(int[], int, byte[])} method.
+     * Updates all changed cells of the board panel in one pass with a single repaint.
+     *
+     * @param cells The flat indices of the changed cells.
+     * @param count The number of changed cells.
+     * @param values The values of the whole board (0 = empty).
+     */
+    @Override
+    public void applyBoardDiff(int[] cells, int count, byte[] values) {
+        boardPanel.applyBoardDiff(cells, count, values);
+    }
+
     /**
      * Implements the {@link pl.polsl.michal.sadkowski.java1.sudoku.controller.SudokuGUIController.GUIUpdater#updateCellBorder(int, int)} method.
      * Updates the visual selection/border of a specific cell in the board panel.
@@ -0,0 +1,8 @@
+/**
+ * Contains the View classes. The Swing window {@link pl.polsl.michal.sadkowski.java1.sudoku.view.SudokuGUI}
+ * with its {@link pl.polsl.michal.sadkowski.java1.sudoku.view.BoardPanel} and the
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.view.GuiLauncher} live in the {@code sudoku-gui} module;
+ * {@link pl.polsl.michal.sadkowski.java1.sudoku.view.ConsoleView}, which displays output to the user
+ * and collects raw input on the console, lives in {@code sudoku-cli}.
+ */
+package pl.polsl.michal.sadkowski.java1.sudoku.view;